@@ -0,0 +1,114 @@
+/*
+ * This file is part of peppermint, licensed under the MIT License.
+ *
+ * Copyright (c) 2018 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.peppermint;
+
+import com.google.gson.JsonObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@Fork(1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, time = 1)
+public class JsonBenchmark {
+  @Param({"4", "16", "64"})
+  public int fields;
+  private JsonObject json;
+  private String intName;
+  private String stringName;
+  private final int[] ints = new int[1];
+  private final JsonErrors errors = new JsonErrors();
+
+  @Setup
+  public void setup() {
+    this.json = JsonFixtures.object(this.fields);
+    // pick fields from the middle of the object, so lookups do not short-circuit on the first entry
+    final int middle = (this.fields / 2) & ~1;
+    this.intName = "field" + middle;
+    this.stringName = "field" + (middle + 1);
+  }
+
+  @Benchmark
+  public int needInt() {
+    return Json.needInt(this.json, this.intName);
+  }
+
+  @Benchmark
+  public int getIntMissing() {
+    return Json.getInt(this.json, "missing", 0);
+  }
+
+  @Benchmark
+  public int tryInt() {
+    return Json.tryInt(this.json, this.intName, this.ints) ? this.ints[0] : 0;
+  }
+
+  @Benchmark
+  public int needIntInvalid() {
+    try {
+      return Json.needInt(this.json, this.stringName);
+    } catch(final RuntimeException e) {
+      return -1;
+    }
+  }
+
+  @Benchmark
+  public int needIntInvalidErrors() {
+    this.errors.clear();
+    return Json.needInt(this.json, this.stringName, this.errors);
+  }
+
+  @Benchmark
+  public String needString() {
+    return Json.needString(this.json, this.stringName);
+  }
+
+  @Benchmark
+  public String getString() {
+    return Json.getString(this.json, this.stringName, null);
+  }
+
+  @Benchmark
+  public boolean hasNonNull() {
+    return Json.hasNonNull(this.json, this.stringName);
+  }
+
+  @Benchmark
+  public boolean isNumber() {
+    return Json.isNumber(this.json, this.intName);
+  }
+}
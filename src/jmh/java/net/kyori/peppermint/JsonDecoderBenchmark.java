@@ -0,0 +1,127 @@
+/*
+ * This file is part of peppermint, licensed under the MIT License.
+ *
+ * Copyright (c) 2018 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.peppermint;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@Fork(1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, time = 1)
+public class JsonDecoderBenchmark {
+  private final Gson gson = new Gson();
+  private final JsonDecoder<Record> decoder = JsonDecoder.of(Record.class);
+  private final JsonDecoder<RecordView> decoderInterface = JsonDecoder.of(RecordView.class);
+  private JsonObject[] records;
+
+  @Setup
+  public void setup() {
+    final JsonArray array = JsonFixtures.records(1024);
+    this.records = new JsonObject[array.size()];
+    for(int i = 0; i < this.records.length; i++) {
+      this.records[i] = array.get(i).getAsJsonObject();
+    }
+  }
+
+  @Benchmark
+  public void decoder(final Blackhole blackhole) {
+    for(final JsonObject record : this.records) {
+      blackhole.consume(this.decoder.decode(record));
+    }
+  }
+
+  @Benchmark
+  public void decoderInterface(final Blackhole blackhole) {
+    for(final JsonObject record : this.records) {
+      blackhole.consume(this.decoderInterface.decode(record).score());
+    }
+  }
+
+  @Benchmark
+  public void gson(final Blackhole blackhole) {
+    for(final JsonObject record : this.records) {
+      blackhole.consume(this.gson.fromJson(record, Record.class));
+    }
+  }
+
+  public static final class Record {
+    final int id;
+    final String name;
+    final boolean enabled;
+    final double score;
+    final List<String> tags;
+    final Position position;
+
+    public Record(final int id, final String name, final boolean enabled, final double score, final List<String> tags, final Position position) {
+      this.id = id;
+      this.name = name;
+      this.enabled = enabled;
+      this.score = score;
+      this.tags = tags;
+      this.position = position;
+    }
+  }
+
+  public interface RecordView {
+    int id();
+
+    String name();
+
+    boolean enabled();
+
+    double score();
+
+    List<String> tags();
+
+    Position position();
+  }
+
+  public static final class Position {
+    final int x;
+    final int y;
+
+    public Position(final int x, final int y) {
+      this.x = x;
+      this.y = y;
+    }
+  }
+}
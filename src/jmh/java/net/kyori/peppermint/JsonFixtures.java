@@ -0,0 +1,120 @@
+/*
+ * This file is part of peppermint, licensed under the MIT License.
+ *
+ * Copyright (c) 2018 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.peppermint;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * Deterministically generated JSON for benchmarks.
+ */
+final class JsonFixtures {
+  private static final long SEED = 0x5eed;
+
+  private JsonFixtures() {
+  }
+
+  /**
+   * Creates an object with {@code fields} fields, named {@code field0} to {@code field<fields - 1>},
+   * alternating between int and string values.
+   *
+   * @param fields the number of fields
+   * @return an object
+   */
+  static @NonNull JsonObject object(final int fields) {
+    final Random random = new Random(SEED);
+    final JsonObject json = new JsonObject();
+    for(int i = 0; i < fields; i++) {
+      if((i & 1) == 0) {
+        json.addProperty("field" + i, random.nextInt());
+      } else {
+        json.addProperty("field" + i, Long.toHexString(random.nextLong()));
+      }
+    }
+    return json;
+  }
+
+  /**
+   * Creates an array of {@code records} records.
+   *
+   * @param records the number of records
+   * @return an array
+   */
+  static @NonNull JsonArray records(final int records) {
+    final Random random = new Random(SEED);
+    final JsonArray array = new JsonArray();
+    for(int i = 0; i < records; i++) {
+      final JsonObject record = new JsonObject();
+      record.addProperty("id", i);
+      record.addProperty("name", Long.toHexString(random.nextLong()));
+      record.addProperty("enabled", random.nextBoolean());
+      record.addProperty("score", random.nextDouble());
+      final JsonArray tags = new JsonArray();
+      for(int j = 0, size = random.nextInt(4); j < size; j++) {
+        tags.add("tag" + random.nextInt(16));
+      }
+      record.add("tags", tags);
+      final JsonObject position = new JsonObject();
+      position.addProperty("x", random.nextInt(1024));
+      position.addProperty("y", random.nextInt(1024));
+      record.add("position", position);
+      array.add(record);
+    }
+    return array;
+  }
+
+  /**
+   * Writes an array of {@code records} records to a file in {@code directory}.
+   *
+   * @param directory the directory
+   * @param records the number of records
+   * @return the file
+   * @throws IOException if an exception occurred while writing
+   */
+  static @NonNull Path write(final @NonNull Path directory, final int records) throws IOException {
+    final Path path = directory.resolve("records-" + records + ".json");
+    JsonIO.write(path, records(records));
+    return path;
+  }
+
+  /**
+   * Deletes {@code directory} and everything in it.
+   *
+   * @param directory the directory
+   * @throws IOException if an exception occurred while deleting
+   */
+  static void delete(final @NonNull Path directory) throws IOException {
+    try(final Stream<Path> paths = Files.walk(directory)) {
+      paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+    }
+  }
+}
@@ -0,0 +1,124 @@
+/*
+ * This file is part of peppermint, licensed under the MIT License.
+ *
+ * Copyright (c) 2018 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.peppermint;
+
+import com.google.gson.JsonElement;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@Fork(1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, time = 1)
+public class JsonIOBenchmark {
+  /**
+   * The number of records in the file - roughly 1 KiB, 128 KiB and 16 MiB.
+   */
+  @Param({"8", "1024", "131072"})
+  public int records;
+  private Path directory;
+  private Path file;
+  private Path binary;
+
+  @Setup
+  public void setup() throws IOException {
+    this.directory = Files.createTempDirectory("peppermint-jmh");
+    this.file = JsonFixtures.write(this.directory, this.records);
+    this.binary = this.directory.resolve("records.pjb");
+    JsonIO.writeBinary(this.binary, JsonIO.read(this.file));
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    JsonFixtures.delete(this.directory);
+  }
+
+  @Benchmark
+  public JsonElement read() throws IOException {
+    return JsonIO.read(this.file);
+  }
+
+  // the reader chain read used before its encoding was detected
+  @Benchmark
+  public JsonElement readInputStreamReader() throws IOException {
+    try(final Reader reader = new InputStreamReader(Files.newInputStream(this.file), StandardCharsets.UTF_8)) {
+      return JsonIO.PARSER.parse(reader);
+    }
+  }
+
+  @Benchmark
+  public long decodeInputStreamReader() throws IOException {
+    try(final Reader reader = new InputStreamReader(Files.newInputStream(this.file), StandardCharsets.UTF_8)) {
+      return drain(reader);
+    }
+  }
+
+  @Benchmark
+  public long decodeUtf8Reader() throws IOException {
+    try(final Reader reader = Readers.open(this.file)) {
+      return drain(reader);
+    }
+  }
+
+  // reads every character in the same chunks as a JsonReader
+  private static long drain(final Reader reader) throws IOException {
+    final char[] buffer = new char[1024];
+    long sum = 0;
+    int n;
+    while((n = reader.read(buffer)) != -1) {
+      sum += n + buffer[n - 1];
+    }
+    return sum;
+  }
+
+  @Benchmark
+  public JsonElement readMapped() throws IOException {
+    return JsonIO.readMapped(this.file);
+  }
+
+  @Benchmark
+  public JsonElement readBinary() throws IOException {
+    return JsonIO.readBinary(this.binary);
+  }
+}
@@ -0,0 +1,91 @@
+/*
+ * This file is part of peppermint, licensed under the MIT License.
+ *
+ * Copyright (c) 2018 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.peppermint;
+
+import com.google.gson.JsonArray;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Measures the throughput of a {@link JsonPipeline} decoding small documents with different numbers of workers.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Fork(1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, time = 1)
+public class JsonPipelineBenchmark {
+  private static final int DOCUMENTS = 4096;
+  @Param({"1", "2", "4", "8"})
+  public int workers;
+  private ExecutorService executor;
+  private byte[][] documents;
+
+  @Setup
+  public void setup() {
+    this.executor = Executors.newCachedThreadPool();
+    final JsonArray records = JsonFixtures.records(DOCUMENTS);
+    this.documents = new byte[DOCUMENTS][];
+    for(int i = 0; i < DOCUMENTS; i++) {
+      this.documents[i] = records.get(i).toString().getBytes(StandardCharsets.UTF_8);
+    }
+  }
+
+  @TearDown
+  public void tearDown() {
+    this.executor.shutdown();
+  }
+
+  @Benchmark
+  public long pipeline() throws InterruptedException {
+    final LongAdder sum = new LongAdder();
+    final JsonPipeline<Integer> pipeline = JsonPipeline.<Integer>builder(this.executor, json -> Json.needInt(json, "id"), batch -> {
+      for(final Integer id : batch) {
+        sum.add(id);
+      }
+    }).workers(this.workers).build();
+    for(final byte[] document : this.documents) {
+      pipeline.submit(document);
+    }
+    pipeline.close();
+    return sum.sum();
+  }
+}
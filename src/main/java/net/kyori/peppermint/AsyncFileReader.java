@@ -0,0 +1,120 @@
+/*
+ * This file is part of peppermint, licensed under the MIT License.
+ *
+ * Copyright (c) 2018 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.peppermint;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.CompletionHandler;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Reads the contents of a file into a buffer using an {@link AsynchronousFileChannel}.
+ */
+final class AsyncFileReader implements CompletionHandler<Integer, Void> {
+  private static final int MAX_SIZE = Integer.MAX_VALUE - 8;
+  private final CompletableFuture<ByteBuffer> future;
+  private final AsynchronousFileChannel channel;
+  private final ByteBuffer buffer;
+  private long position;
+
+  private AsyncFileReader(final @NonNull CompletableFuture<ByteBuffer> future, final @NonNull AsynchronousFileChannel channel, final @NonNull ByteBuffer buffer) {
+    this.future = future;
+    this.channel = channel;
+    this.buffer = buffer;
+  }
+
+  /**
+   * Reads the contents of {@code path}.
+   *
+   * <p>The file is opened on {@code executor}, and read by the channel's own thread pool.</p>
+   *
+   * @param path the path
+   * @param executor the executor
+   * @return a future completed with a buffer, flipped for reading, holding the contents of the file
+   */
+  static @NonNull CompletableFuture<ByteBuffer> read(final @NonNull Path path, final @NonNull Executor executor) {
+    final CompletableFuture<ByteBuffer> future = new CompletableFuture<>();
+    executor.execute(() -> {
+      final AsynchronousFileChannel channel;
+      try {
+        channel = AsynchronousFileChannel.open(path, StandardOpenOption.READ);
+      } catch(final IOException | RuntimeException e) {
+        future.completeExceptionally(e);
+        return;
+      }
+      try {
+        final long size = channel.size();
+        if(size > MAX_SIZE) {
+          throw new IOException("File " + path + " is too large to be read into a buffer (" + size + " bytes)");
+        }
+        new AsyncFileReader(future, channel, ByteBuffer.allocate((int) size)).next();
+      } catch(final IOException | RuntimeException e) {
+        close(channel, e);
+        future.completeExceptionally(e);
+      }
+    });
+    return future;
+  }
+
+  private void next() {
+    this.channel.read(this.buffer, this.position, null, this);
+  }
+
+  @Override
+  public void completed(final Integer result, final Void attachment) {
+    if(result == -1 || !this.buffer.hasRemaining()) {
+      try {
+        this.channel.close();
+      } catch(final IOException e) {
+        this.future.completeExceptionally(e);
+        return;
+      }
+      this.buffer.flip();
+      this.future.complete(this.buffer);
+      return;
+    }
+    this.position += result;
+    this.next();
+  }
+
+  @Override
+  public void failed(final Throwable exception, final Void attachment) {
+    close(this.channel, exception);
+    this.future.completeExceptionally(exception);
+  }
+
+  private static void close(final @NonNull AsynchronousFileChannel channel, final @NonNull Throwable exception) {
+    try {
+      channel.close();
+    } catch(final IOException e) {
+      exception.addSuppressed(e);
+    }
+  }
+}
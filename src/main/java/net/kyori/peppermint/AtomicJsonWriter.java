@@ -0,0 +1,238 @@
+/*
+ * This file is part of peppermint, licensed under the MIT License.
+ *
+ * Copyright (c) 2018 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.peppermint;
+
+import com.google.gson.JsonElement;
+import com.google.gson.stream.JsonWriter;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * A JSON writer which writes to a temporary file, and replaces the target file with it once closed.
+ *
+ * <p>If the document is incomplete when the writer is closed, the temporary file is
+ * deleted and the target file is left untouched.</p>
+ *
+ * <p>The temporary file is forced to the storage device before it replaces the target, so
+ * a crash cannot leave the rename durable but the contents not, and the target empty or
+ * truncated. The target is replaced by a new file, so its permissions are not preserved.</p>
+ */
+final class AtomicJsonWriter extends JsonWriter {
+  private final Path path;
+  private final Path temporary;
+  private boolean closed;
+
+  private AtomicJsonWriter(final @NonNull Writer out, final @NonNull Path path, final @NonNull Path temporary) {
+    super(out);
+    this.path = path;
+    this.temporary = temporary;
+  }
+
+  /**
+   * Opens a writer for {@code path}.
+   *
+   * @param path the path
+   * @param pretty {@code true} to indent the output, {@code false} to write it compactly
+   * @param compression the compression
+   * @return a writer
+   * @throws IOException if an exception occurred while creating the temporary file
+   */
+  static @NonNull AtomicJsonWriter open(final @NonNull Path path, final boolean pretty, final @NonNull JsonCompression compression) throws IOException {
+    final Path target = path.toAbsolutePath();
+    final Path temporary = temporary(target);
+    final AtomicJsonWriter writer = new AtomicJsonWriter(writer(temporary, compression), target, temporary);
+    if(pretty) {
+      writer.setIndent("  ");
+    }
+    return writer;
+  }
+
+  // creates temporary, and opens a buffered UTF-8 writer for it
+  private static @NonNull Writer writer(final @NonNull Path temporary, final @NonNull JsonCompression compression) throws IOException {
+    final OutputStream file = create(temporary);
+    if(compression == JsonCompression.NONE) {
+      // the writer's encoder buffers the bytes it writes to the file
+      return new BufferedWriter(new OutputStreamWriter(file, StandardCharsets.UTF_8), JsonCompression.BUFFER_SIZE);
+    }
+    try {
+      return new BufferedWriter(new OutputStreamWriter(compression.compress(new BufferedOutputStream(file, JsonCompression.BUFFER_SIZE)), StandardCharsets.UTF_8), JsonCompression.BUFFER_SIZE);
+    } catch(final IOException e) {
+      file.close();
+      discard(temporary, e);
+      throw e;
+    }
+  }
+
+  /**
+   * Creates {@code temporary}, and opens it for writing.
+   *
+   * <p>The file is forced to the storage device when the stream is closed, before
+   * it can replace the target.</p>
+   *
+   * @param temporary the temporary file
+   * @return an unbuffered stream
+   * @throws IOException if an exception occurred while creating the file
+   */
+  private static @NonNull OutputStream create(final @NonNull Path temporary) throws IOException {
+    final FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+    return new FilterOutputStream(Channels.newOutputStream(channel)) {
+      @Override
+      public void write(final byte[] b, final int off, final int len) throws IOException {
+        this.out.write(b, off, len);
+      }
+
+      @Override
+      public void close() throws IOException {
+        if(!channel.isOpen()) {
+          return;
+        }
+        try {
+          channel.force(true);
+        } finally {
+          channel.close();
+        }
+      }
+    };
+  }
+
+  @Override
+  public void close() throws IOException {
+    if(this.closed) {
+      return;
+    }
+    this.closed = true;
+    try {
+      super.close();
+    } catch(final IOException e) {
+      discard(this.temporary, e);
+      throw e;
+    }
+    replace(this.temporary, this.path);
+  }
+
+  /**
+   * Gets a path for a temporary file alongside {@code target}.
+   *
+   * @param target the absolute target path
+   * @return the temporary path
+   */
+  static @NonNull Path temporary(final @NonNull Path target) {
+    return target.resolveSibling('.' + target.getFileName().toString() + '.' + Long.toHexString(ThreadLocalRandom.current().nextLong()) + ".tmp");
+  }
+
+  /**
+   * Replaces {@code target} with {@code temporary}, atomically if the file system supports it.
+   *
+   * <p>If the replacement fails, {@code temporary} is deleted.</p>
+   *
+   * @param temporary the temporary file
+   * @param target the target file
+   * @throws IOException if an exception occurred while replacing the file
+   */
+  static void replace(final @NonNull Path temporary, final @NonNull Path target) throws IOException {
+    try {
+      try {
+        Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+      } catch(final AtomicMoveNotSupportedException e) {
+        Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING);
+      }
+    } catch(final IOException e) {
+      discard(temporary, e);
+      throw e;
+    }
+  }
+
+  /**
+   * Writes {@code bytes} to {@code path} through a temporary file.
+   *
+   * @param path the path
+   * @param bytes the bytes
+   * @param length the number of bytes to write
+   * @throws IOException if an exception occurred while writing
+   */
+  static void write(final @NonNull Path path, final byte @NonNull [] bytes, final int length) throws IOException {
+    final Path target = path.toAbsolutePath();
+    final Path temporary = temporary(target);
+    try(final OutputStream out = create(temporary)) {
+      out.write(bytes, 0, length);
+    } catch(final IOException e) {
+      discard(temporary, e);
+      throw e;
+    }
+    replace(temporary, target);
+  }
+
+  /**
+   * Writes {@code elements} to {@code path} through a temporary file, one compact element per line.
+   *
+   * <p>If an element cannot be written, or {@code elements} throws, the temporary file is
+   * deleted and {@code path} is left untouched.</p>
+   *
+   * @param path the path
+   * @param elements the elements
+   * @param compression the compression
+   * @throws IOException if an exception occurred while writing
+   */
+  static void writeLines(final @NonNull Path path, final @NonNull Iterable<? extends JsonElement> elements, final @NonNull JsonCompression compression) throws IOException {
+    final Path target = path.toAbsolutePath();
+    final Path temporary = temporary(target);
+    try(final Writer out = writer(temporary, compression)) {
+      // a compact element never contains a newline, and a lenient writer accepts any number of them
+      final JsonWriter writer = new JsonWriter(out);
+      writer.setLenient(true);
+      for(final JsonElement element : elements) {
+        JsonIO.write(writer, element);
+        out.write('\n');
+      }
+    } catch(final IOException | RuntimeException e) {
+      discard(temporary, e);
+      throw e;
+    }
+    replace(temporary, target);
+  }
+
+  private static void discard(final @NonNull Path temporary, final @NonNull Exception e) {
+    try {
+      Files.deleteIfExists(temporary);
+    } catch(final IOException suppressed) {
+      e.addSuppressed(suppressed);
+    }
+  }
+}
@@ -0,0 +1,423 @@
+/*
+ * This file is part of peppermint, licensed under the MIT License.
+ *
+ * Copyright (c) 2018 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.peppermint;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.internal.LazilyParsedNumber;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A compact binary encoding of JSON elements.
+ *
+ * <p>A document starts with the magic bytes {@code PJB}, a version byte and a flags
+ * byte, followed by a single element. Each element starts with a tag byte:</p>
+ * <ul>
+ *   <li>{@code null}, {@code false} and {@code true} have no payload</li>
+ *   <li>an integer is a zigzag-encoded varint</li>
+ *   <li>any other number is its text, and a string is its UTF-8 bytes, each prefixed by a varint length</li>
+ *   <li>an array is a varint count followed by its elements</li>
+ *   <li>an object is a varint count followed by pairs of names and elements</li>
+ * </ul>
+ *
+ * <p>When the dictionary flag is set, a name is a varint which is either zero, followed by
+ * the name, or one more than the index of a name which has already been read. Otherwise a
+ * name is always written in full.</p>
+ *
+ * <p>Numbers are read back with the exact text they were written with, so an element
+ * round-trips losslessly through its text form.</p>
+ */
+final class BinaryJson {
+  private static final byte[] MAGIC = {'P', 'J', 'B'};
+  private static final byte VERSION = 1;
+  private static final int DICTIONARY = 1;
+  private static final byte NULL = 0;
+  private static final byte FALSE = 1;
+  private static final byte TRUE = 2;
+  private static final byte INTEGER = 3;
+  private static final byte NUMBER = 4;
+  private static final byte STRING = 5;
+  private static final byte ARRAY = 6;
+  private static final byte OBJECT = 7;
+  private byte[] buffer;
+  private int position;
+  private final Map<String, Integer> names;
+  private final List<String> dictionary;
+
+  private BinaryJson(final byte @NonNull [] buffer, final int position, final boolean dictionary) {
+    this.buffer = buffer;
+    this.position = position;
+    this.names = dictionary ? new HashMap<>() : null;
+    this.dictionary = dictionary ? new ArrayList<>() : null;
+  }
+
+  /**
+   * Encodes {@code json}.
+   *
+   * @param json the json
+   * @param dictionary {@code true} to write each distinct name once, {@code false} to write names in full
+   * @return the encoder, whose buffer holds the encoded bytes up to its position
+   */
+  static @NonNull BinaryJson encode(final @NonNull JsonElement json, final boolean dictionary) {
+    final BinaryJson encoder = new BinaryJson(new byte[256], 0, dictionary);
+    encoder.ensure(MAGIC.length + 2);
+    System.arraycopy(MAGIC, 0, encoder.buffer, 0, MAGIC.length);
+    encoder.position = MAGIC.length;
+    encoder.buffer[encoder.position++] = VERSION;
+    encoder.buffer[encoder.position++] = (byte) (dictionary ? DICTIONARY : 0);
+    encoder.write(json);
+    return encoder;
+  }
+
+  /**
+   * Decodes an element from {@code bytes}.
+   *
+   * @param bytes the bytes
+   * @return the json
+   * @throws JsonSyntaxException if {@code bytes} is not a valid encoding
+   */
+  static @NonNull JsonElement decode(final byte @NonNull [] bytes) {
+    if(bytes.length < MAGIC.length + 2 || !Arrays.equals(Arrays.copyOf(bytes, MAGIC.length), MAGIC)) {
+      throw new JsonSyntaxException("Not a binary json document");
+    }
+    if(bytes[MAGIC.length] != VERSION) {
+      throw new JsonSyntaxException("Unsupported binary json version " + bytes[MAGIC.length]);
+    }
+    final BinaryJson decoder = new BinaryJson(bytes, MAGIC.length + 2, (bytes[MAGIC.length + 1] & DICTIONARY) != 0);
+    final JsonElement json = decoder.read();
+    if(decoder.position != bytes.length) {
+      throw new JsonSyntaxException("Did not consume the entire document.");
+    }
+    return json;
+  }
+
+  byte @NonNull [] buffer() {
+    return this.buffer;
+  }
+
+  int position() {
+    return this.position;
+  }
+
+  /*
+   * encoding
+   */
+
+  // elements are written iteratively, so the depth of a tree is not limited by the size of the stack
+  private void write(final @NonNull JsonElement json) {
+    final List<Iterator<?>> stack = new ArrayList<>();
+    JsonElement next = json;
+    while(true) {
+      if(next.isJsonObject()) {
+        final JsonObject object = next.getAsJsonObject();
+        this.writeTag(OBJECT);
+        this.writeVarint(object.size());
+        stack.add(object.entrySet().iterator());
+      } else if(next.isJsonArray()) {
+        final JsonArray array = next.getAsJsonArray();
+        this.writeTag(ARRAY);
+        this.writeVarint(array.size());
+        stack.add(array.iterator());
+      } else {
+        this.writeValue(next);
+      }
+      next = null;
+      while(next == null) {
+        if(stack.isEmpty()) {
+          return;
+        }
+        final Iterator<?> iterator = stack.get(stack.size() - 1);
+        if(!iterator.hasNext()) {
+          stack.remove(stack.size() - 1);
+        } else {
+          final Object child = iterator.next();
+          if(child instanceof Map.Entry) {
+            @SuppressWarnings("unchecked")
+            final Map.Entry<String, JsonElement> entry = (Map.Entry<String, JsonElement>) child;
+            this.writeName(entry.getKey());
+            next = entry.getValue();
+          } else {
+            next = (JsonElement) child;
+          }
+        }
+      }
+    }
+  }
+
+  private void writeValue(final @NonNull JsonElement json) {
+    if(json.isJsonPrimitive()) {
+      final JsonPrimitive primitive = json.getAsJsonPrimitive();
+      if(primitive.isBoolean()) {
+        this.writeTag(primitive.getAsBoolean() ? TRUE : FALSE);
+      } else if(primitive.isNumber()) {
+        final String text = primitive.getAsString();
+        if(Numbers.isInteger(text, Long.MIN_VALUE, Long.MAX_VALUE)) {
+          final long value = Long.parseLong(text);
+          // integers whose text would not be reproduced, such as -0, are kept as text
+          if(Long.toString(value).equals(text)) {
+            this.writeTag(INTEGER);
+            this.writeVarint((value << 1) ^ (value >> 63));
+            return;
+          }
+        }
+        this.writeTag(NUMBER);
+        this.writeString(text);
+      } else {
+        this.writeTag(STRING);
+        this.writeString(primitive.getAsString());
+      }
+    } else {
+      this.writeTag(NULL);
+    }
+  }
+
+  private void writeName(final @NonNull String name) {
+    if(this.names != null) {
+      final Integer index = this.names.putIfAbsent(name, this.names.size());
+      if(index != null) {
+        this.writeVarint(index + 1);
+        return;
+      }
+      this.writeVarint(0);
+    }
+    this.writeString(name);
+  }
+
+  private void writeTag(final byte tag) {
+    this.ensure(1);
+    this.buffer[this.position++] = tag;
+  }
+
+  private void writeVarint(long value) {
+    this.ensure(10);
+    while((value & ~0x7fL) != 0) {
+      this.buffer[this.position++] = (byte) ((value & 0x7f) | 0x80);
+      value >>>= 7;
+    }
+    this.buffer[this.position++] = (byte) value;
+  }
+
+  private void writeString(final @NonNull String string) {
+    final int length = string.length();
+    int bytes = length;
+    boolean ascii = true;
+    for(int i = 0; i < length; i++) {
+      final char c = string.charAt(i);
+      if(c < 0x80) {
+        continue;
+      }
+      // a replaced surrogate takes one byte per char, so the length alone does not show the string is ascii
+      ascii = false;
+      if(c < 0x800) {
+        bytes += 1;
+      } else if(!Character.isSurrogate(c)) {
+        bytes += 2;
+      } else if(Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(string.charAt(i + 1))) {
+        // four bytes for two chars
+        bytes += 2;
+        i++;
+      }
+    }
+    this.writeVarint(bytes);
+    this.ensure(bytes);
+    if(ascii) {
+      for(int i = 0; i < length; i++) {
+        this.buffer[this.position++] = (byte) string.charAt(i);
+      }
+      return;
+    }
+    final byte[] buffer = this.buffer;
+    int position = this.position;
+    for(int i = 0; i < length; i++) {
+      final char c = string.charAt(i);
+      if(c < 0x80) {
+        buffer[position++] = (byte) c;
+      } else if(c < 0x800) {
+        buffer[position++] = (byte) (0xc0 | (c >> 6));
+        buffer[position++] = (byte) (0x80 | (c & 0x3f));
+      } else if(!Character.isSurrogate(c)) {
+        buffer[position++] = (byte) (0xe0 | (c >> 12));
+        buffer[position++] = (byte) (0x80 | ((c >> 6) & 0x3f));
+        buffer[position++] = (byte) (0x80 | (c & 0x3f));
+      } else if(Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(string.charAt(i + 1))) {
+        final int codePoint = Character.toCodePoint(c, string.charAt(++i));
+        buffer[position++] = (byte) (0xf0 | (codePoint >> 18));
+        buffer[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3f));
+        buffer[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3f));
+        buffer[position++] = (byte) (0x80 | (codePoint & 0x3f));
+      } else {
+        // an unpaired surrogate cannot be encoded, and is replaced as String#getBytes would
+        buffer[position++] = '?';
+      }
+    }
+    this.position = position;
+  }
+
+  private void ensure(final int bytes) {
+    if(this.buffer.length - this.position < bytes) {
+      this.buffer = Arrays.copyOf(this.buffer, Math.max(this.buffer.length * 2, this.position + bytes));
+    }
+  }
+
+  /*
+   * decoding
+   */
+
+  // elements are read iteratively, so a crafted document cannot exhaust the stack
+  private @NonNull JsonElement read() {
+    final List<Frame> stack = new ArrayList<>();
+    JsonElement root = null;
+    while(true) {
+      final Frame parent = stack.isEmpty() ? null : stack.get(stack.size() - 1);
+      final String name = parent != null && parent.container.isJsonObject() ? this.readName() : null;
+      final byte tag = this.readByte();
+      final JsonElement value;
+      Frame child = null;
+      switch(tag) {
+        case NULL: value = JsonNull.INSTANCE; break;
+        case FALSE: value = new JsonPrimitive(false); break;
+        case TRUE: value = new JsonPrimitive(true); break;
+        case INTEGER: {
+          final long varint = this.readVarint();
+          value = new JsonPrimitive(new LazilyParsedNumber(Long.toString((varint >>> 1) ^ -(varint & 1))));
+          break;
+        }
+        case NUMBER: value = new JsonPrimitive(new LazilyParsedNumber(this.readString())); break;
+        case STRING: value = new JsonPrimitive(this.readString()); break;
+        case ARRAY: {
+          final int size = this.readSize();
+          value = new JsonArray(size);
+          if(size > 0) {
+            child = new Frame(value, size);
+          }
+          break;
+        }
+        case OBJECT: {
+          final int size = this.readSize();
+          value = new JsonObject();
+          if(size > 0) {
+            child = new Frame(value, size);
+          }
+          break;
+        }
+        default:
+          throw new JsonSyntaxException("Unknown tag " + tag + " at " + (this.position - 1));
+      }
+      if(parent == null) {
+        root = value;
+      } else {
+        if(name != null) {
+          parent.container.getAsJsonObject().add(name, value);
+        } else {
+          parent.container.getAsJsonArray().add(value);
+        }
+        parent.remaining--;
+      }
+      if(child != null) {
+        stack.add(child);
+      } else {
+        while(!stack.isEmpty() && stack.get(stack.size() - 1).remaining == 0) {
+          stack.remove(stack.size() - 1);
+        }
+      }
+      if(stack.isEmpty()) {
+        return root;
+      }
+    }
+  }
+
+  private @NonNull String readName() {
+    if(this.dictionary != null) {
+      final long index = this.readVarint();
+      if(index != 0) {
+        if(index < 0 || index > this.dictionary.size()) {
+          throw new JsonSyntaxException("Unknown name " + index + " at " + this.position);
+        }
+        return this.dictionary.get((int) index - 1);
+      }
+      final String name = this.readString();
+      this.dictionary.add(name);
+      return name;
+    }
+    return this.readString();
+  }
+
+  private byte readByte() {
+    if(this.position >= this.buffer.length) {
+      throw new JsonSyntaxException("Unexpected end of document");
+    }
+    return this.buffer[this.position++];
+  }
+
+  private long readVarint() {
+    long value = 0;
+    for(int shift = 0; shift < 64; shift += 7) {
+      final byte b = this.readByte();
+      value |= (long) (b & 0x7f) << shift;
+      if(b >= 0) {
+        return value;
+      }
+    }
+    throw new JsonSyntaxException("Malformed varint at " + this.position);
+  }
+
+  private int readSize() {
+    final long size = this.readVarint();
+    // every element takes at least one byte, so a size cannot exceed the bytes remaining
+    if(size < 0 || size > this.buffer.length - this.position) {
+      throw new JsonSyntaxException("Invalid size " + size + " at " + this.position);
+    }
+    return (int) size;
+  }
+
+  private @NonNull String readString() {
+    final int length = this.readSize();
+    final String string = new String(this.buffer, this.position, length, StandardCharsets.UTF_8);
+    this.position += length;
+    return string;
+  }
+
+  // an array or object being read, and the number of elements it is still to receive
+  private static final class Frame {
+    final @NonNull JsonElement container;
+    int remaining;
+
+    Frame(final @NonNull JsonElement container, final int remaining) {
+      this.container = container;
+      this.remaining = remaining;
+    }
+  }
+}
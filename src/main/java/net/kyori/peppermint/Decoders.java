@@ -0,0 +1,344 @@
+/*
+ * This file is part of peppermint, licensed under the MIT License.
+ *
+ * Copyright (c) 2018 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.peppermint;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.JsonSyntaxException;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Parameter;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Builds {@link JsonDecoder}s for interfaces and classes.
+ */
+final class Decoders {
+  private static final ClassValue<JsonDecoder<?>> DECODERS = new ClassValue<JsonDecoder<?>>() {
+    @Override
+    protected JsonDecoder<?> computeValue(final Class<?> type) {
+      return type.isInterface() ? implementation(type) : constructor(type);
+    }
+  };
+
+  private Decoders() {
+  }
+
+  @SuppressWarnings("unchecked")
+  static <T> @NonNull JsonDecoder<T> of(final @NonNull Class<T> type) {
+    return (JsonDecoder<T>) DECODERS.get(type);
+  }
+
+  private static @NonNull JsonDecoder<?> constructor(final @NonNull Class<?> type) {
+    if(type.isPrimitive() || type.isArray() || type.isEnum() || Modifier.isAbstract(type.getModifiers())) {
+      throw new IllegalArgumentException("Cannot bind " + type.getName());
+    }
+    Constructor<?>[] constructors = type.getDeclaredConstructors();
+    if(constructors.length != 1) {
+      constructors = type.getConstructors();
+    }
+    if(constructors.length != 1) {
+      throw new IllegalArgumentException("Expected " + type.getName() + " to have exactly one constructor, or exactly one public constructor");
+    }
+    final Constructor<?> constructor = constructors[0];
+    final Parameter[] parameters = constructor.getParameters();
+    final Member[] members = new Member[parameters.length];
+    for(int i = 0; i < parameters.length; i++) {
+      final Parameter parameter = parameters[i];
+      if(!parameter.isNamePresent()) {
+        throw new IllegalArgumentException("Parameter names of " + type.getName() + " are not available, compile it with -parameters");
+      }
+      members[i] = member(parameter.getName(), parameter.getParameterizedType());
+    }
+    final MethodHandle handle;
+    try {
+      constructor.setAccessible(true);
+      handle = MethodHandles.lookup().unreflectConstructor(constructor)
+        .asSpreader(Object[].class, parameters.length)
+        .asType(MethodType.methodType(Object.class, Object[].class));
+    } catch(final IllegalAccessException | RuntimeException e) {
+      throw new IllegalArgumentException("Cannot access the constructor of " + type.getName(), e);
+    }
+    return json -> {
+      final Object[] arguments = new Object[members.length];
+      for(int i = 0; i < members.length; i++) {
+        arguments[i] = members[i].read(json);
+      }
+      try {
+        return handle.invokeExact(arguments);
+      } catch(final RuntimeException | Error e) {
+        throw e;
+      } catch(final Throwable t) {
+        throw new JsonParseException(t);
+      }
+    };
+  }
+
+  private static @NonNull JsonDecoder<?> implementation(final @NonNull Class<?> type) {
+    // the most specific declaration of each bound name, and every distinct declaration, which must all be implemented
+    final Map<String, Method> bound = new HashMap<>();
+    final Map<String, Method> abstracts = new HashMap<>();
+    for(final Method method : type.getMethods()) {
+      if(!Modifier.isAbstract(method.getModifiers()) || isObjectMethod(method)) {
+        continue;
+      }
+      if(method.getParameterCount() != 0 || method.getReturnType() == void.class) {
+        throw new IllegalArgumentException("Cannot bind " + type.getName() + "#" + method.getName() + ", only methods without parameters can be bound");
+      }
+      abstracts.putIfAbsent(method.getName() + ':' + method.getReturnType().getName(), method);
+      bound.merge(method.getName(), method, (a, b) -> {
+        if(a.getReturnType().isAssignableFrom(b.getReturnType())) {
+          return b;
+        } else if(b.getReturnType().isAssignableFrom(a.getReturnType())) {
+          return a;
+        }
+        throw new IllegalArgumentException("Cannot bind " + type.getName() + "#" + a.getName() + ", it is declared with unrelated return types");
+      });
+    }
+    // getMethods() has no defined order, so sort to read members, and print them, in a stable order
+    final List<Method> methods = new ArrayList<>(bound.values());
+    methods.sort(Comparator.comparing(Method::getName));
+    final Member[] members = new Member[methods.size()];
+    for(int i = 0; i < members.length; i++) {
+      final Method method = methods.get(i);
+      members[i] = member(method.getName(), method.getGenericReturnType());
+    }
+    final Class<?> implementation = Implementations.implement(type, methods, new ArrayList<>(abstracts.values()));
+    final MethodHandle constructor;
+    try {
+      constructor = MethodHandles.lookup().findConstructor(implementation, MethodType.methodType(void.class, Object[].class))
+        .asType(MethodType.methodType(Object.class, Object[].class));
+    } catch(final ReflectiveOperationException e) {
+      throw new IllegalArgumentException("Cannot implement " + type.getName(), e);
+    }
+    return json -> {
+      final Object[] values = new Object[members.length];
+      for(int i = 0; i < members.length; i++) {
+        values[i] = members[i].read(json);
+      }
+      try {
+        return constructor.invokeExact(values);
+      } catch(final RuntimeException | Error e) {
+        throw e;
+      } catch(final Throwable t) {
+        throw new JsonParseException(t);
+      }
+    };
+  }
+
+  // an interface may redeclare the public methods of Object, which every implementation already has
+  private static boolean isObjectMethod(final @NonNull Method method) {
+    try {
+      Object.class.getMethod(method.getName(), method.getParameterTypes());
+      return true;
+    } catch(final NoSuchMethodException e) {
+      return false;
+    }
+  }
+
+  private static @NonNull Member member(final @NonNull String name, final @NonNull Type type) {
+    final Class<?> raw = raw(type);
+    if(raw == Optional.class) {
+      final Value value = value(argument(type));
+      return json -> {
+        final JsonElement element = json.get(name);
+        return element == null || element.isJsonNull() ? Optional.empty() : Optional.of(value.read(element, name));
+      };
+    }
+    final Value value = value(type);
+    if(raw == Boolean.class || raw == Byte.class || raw == Double.class || raw == Float.class || raw == Integer.class || raw == Long.class) {
+      return json -> {
+        final JsonElement element = json.get(name);
+        return element == null || element.isJsonNull() ? null : value.read(element, name);
+      };
+    }
+    final String expected = expected(raw);
+    return json -> {
+      final JsonElement element = json.get(name);
+      if(element == null) {
+        Metrics.missing(name);
+        throw new JsonSyntaxException("Missing " + name + ", expected to find " + expected);
+      }
+      return value.read(element, name);
+    };
+  }
+
+  private static @NonNull Value value(final @NonNull Type type) {
+    final Class<?> raw = raw(type);
+    if(raw == boolean.class || raw == Boolean.class) {
+      return Json::needBoolean;
+    } else if(raw == byte.class || raw == Byte.class) {
+      return Json::needByte;
+    } else if(raw == double.class || raw == Double.class) {
+      return Json::needDouble;
+    } else if(raw == float.class || raw == Float.class) {
+      return Json::needFloat;
+    } else if(raw == int.class || raw == Integer.class) {
+      return Json::needInt;
+    } else if(raw == long.class || raw == Long.class) {
+      return Json::needLong;
+    } else if(raw == String.class) {
+      return Json::needString;
+    } else if(raw == JsonElement.class) {
+      return (element, name) -> element;
+    } else if(raw == JsonObject.class) {
+      return (element, name) -> object(element, name);
+    } else if(raw == JsonArray.class) {
+      return (element, name) -> array(element, name);
+    } else if(raw == JsonPrimitive.class) {
+      return (element, name) -> {
+        if(element.isJsonPrimitive()) {
+          return element.getAsJsonPrimitive();
+        }
+        Metrics.mismatch(name);
+        throw new JsonSyntaxException("Expected " + name + " to be a primitive");
+      };
+    } else if(raw.isEnum()) {
+      return enumeration(raw);
+    } else if(raw == List.class) {
+      final Value value = value(argument(type));
+      return (element, name) -> {
+        final JsonArray array = array(element, name);
+        final int size = array.size();
+        final Object[] values = new Object[size];
+        for(int i = 0; i < size; i++) {
+          values[i] = value.read(array.get(i), name + '[' + i + ']');
+        }
+        return Collections.unmodifiableList(Arrays.asList(values));
+      };
+    } else if(raw == Optional.class || raw.isPrimitive() || raw.isArray()) {
+      throw new IllegalArgumentException("Cannot bind " + type.getTypeName());
+    }
+    // resolved lazily, so that types may refer to themselves
+    return (element, name) -> of(raw).decode(object(element, name));
+  }
+
+  private static @NonNull Value enumeration(final @NonNull Class<?> type) {
+    final Map<String, Object> constants = new HashMap<>();
+    for(final Object constant : type.getEnumConstants()) {
+      constants.put(((Enum<?>) constant).name(), constant);
+    }
+    final String names = constants.keySet().toString();
+    return (element, name) -> {
+      final Object constant = constants.get(Json.needString(element, name));
+      if(constant == null) {
+        Metrics.mismatch(name);
+        throw new JsonSyntaxException("Expected " + name + " to be one of " + names);
+      }
+      return constant;
+    };
+  }
+
+  private static @NonNull JsonObject object(final @NonNull JsonElement element, final @NonNull String name) {
+    if(element.isJsonObject()) {
+      return element.getAsJsonObject();
+    }
+    Metrics.mismatch(name);
+    throw new JsonSyntaxException("Expected " + name + " to be an object");
+  }
+
+  private static @NonNull JsonArray array(final @NonNull JsonElement element, final @NonNull String name) {
+    if(element.isJsonArray()) {
+      return element.getAsJsonArray();
+    }
+    Metrics.mismatch(name);
+    throw new JsonSyntaxException("Expected " + name + " to be an array");
+  }
+
+  private static @NonNull String expected(final @NonNull Class<?> type) {
+    if(type == boolean.class) {
+      return "a boolean";
+    } else if(type == byte.class) {
+      return "a byte";
+    } else if(type == double.class) {
+      return "a double";
+    } else if(type == float.class) {
+      return "a float";
+    } else if(type == int.class) {
+      return "an int";
+    } else if(type == long.class) {
+      return "a long";
+    } else if(type == String.class || type.isEnum()) {
+      return "a string";
+    } else if(type == JsonArray.class || type == List.class) {
+      return "an array";
+    } else if(type == JsonPrimitive.class) {
+      return "a primitive";
+    } else if(type == JsonElement.class) {
+      return "an element";
+    }
+    return "an object";
+  }
+
+  private static @NonNull Class<?> raw(final @NonNull Type type) {
+    if(type instanceof Class<?>) {
+      return (Class<?>) type;
+    } else if(type instanceof ParameterizedType) {
+      return (Class<?>) ((ParameterizedType) type).getRawType();
+    }
+    throw new IllegalArgumentException("Cannot bind " + type.getTypeName());
+  }
+
+  private static @NonNull Type argument(final @NonNull Type type) {
+    if(type instanceof ParameterizedType) {
+      return ((ParameterizedType) type).getActualTypeArguments()[0];
+    }
+    throw new IllegalArgumentException("Cannot bind raw " + type.getTypeName());
+  }
+
+  /**
+   * Reads a member of an object.
+   */
+  @FunctionalInterface
+  private interface Member {
+    @Nullable Object read(final @NonNull JsonObject json);
+  }
+
+  /**
+   * Converts a present element.
+   */
+  @FunctionalInterface
+  private interface Value {
+    @NonNull Object read(final @NonNull JsonElement element, final @NonNull String name);
+  }
+}
@@ -0,0 +1,206 @@
+/*
+ * This file is part of peppermint, licensed under the MIT License.
+ *
+ * Copyright (c) 2018 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.peppermint;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Computes the operations which transform one element into another.
+ *
+ * <p>The hash of each object and array is computed once and remembered, so that
+ * subtrees can be compared cheaply: elements with different hashes are unequal
+ * without being compared, and only elements with equal hashes are compared in full.</p>
+ */
+final class Differ {
+  private final JsonArray patch;
+  private final Map<JsonElement, Integer> hashes = new IdentityHashMap<>();
+
+  Differ(final @NonNull JsonArray patch) {
+    this.patch = patch;
+  }
+
+  void diff(final @NonNull JsonElement source, final @NonNull JsonElement target, final @NonNull String pointer) {
+    if(this.same(source, target)) {
+      return;
+    }
+    if(source.isJsonObject() && target.isJsonObject()) {
+      this.diff(source.getAsJsonObject(), target.getAsJsonObject(), pointer);
+    } else if(source.isJsonArray() && target.isJsonArray()) {
+      this.diff(source.getAsJsonArray(), target.getAsJsonArray(), pointer);
+    } else {
+      this.operation("replace", pointer, target);
+    }
+  }
+
+  private void diff(final @NonNull JsonObject source, final @NonNull JsonObject target, final @NonNull String pointer) {
+    for(final Map.Entry<String, JsonElement> entry : source.entrySet()) {
+      final String child = pointer + '/' + JsonDiff.escape(entry.getKey());
+      final JsonElement value = target.get(entry.getKey());
+      if(value == null) {
+        this.operation("remove", child, null);
+      } else {
+        this.diff(entry.getValue(), value, child);
+      }
+    }
+    for(final Map.Entry<String, JsonElement> entry : target.entrySet()) {
+      if(!source.has(entry.getKey())) {
+        this.operation("add", pointer + '/' + JsonDiff.escape(entry.getKey()), entry.getValue());
+      }
+    }
+  }
+
+  private void diff(final @NonNull JsonArray source, final @NonNull JsonArray target, final @NonNull String pointer) {
+    final int sourceSize = source.size();
+    final int targetSize = target.size();
+    // skip the common prefix and suffix, which is all that is needed to find a single change
+    int start = 0;
+    while(start < sourceSize && start < targetSize && this.same(source.get(start), target.get(start))) {
+      start++;
+    }
+    int sourceEnd = sourceSize;
+    int targetEnd = targetSize;
+    while(sourceEnd > start && targetEnd > start && this.same(source.get(sourceEnd - 1), target.get(targetEnd - 1))) {
+      sourceEnd--;
+      targetEnd--;
+    }
+    final int m = sourceEnd - start;
+    final int n = targetEnd - start;
+    if(m == 0 || n == 0 || (long) m * n > JsonDiff.MAXIMUM_ARRAY_PRODUCT) {
+      this.pairwise(source, target, pointer, start, start, m, n, start);
+      return;
+    }
+    // the length of the longest common subsequence of the remaining elements of each suffix
+    final int[] hashes = new int[n];
+    for(int j = 0; j < n; j++) {
+      hashes[j] = this.hash(target.get(start + j));
+    }
+    final int[][] lengths = new int[m + 1][n + 1];
+    for(int i = m - 1; i >= 0; i--) {
+      final JsonElement element = source.get(start + i);
+      final int hash = this.hash(element);
+      for(int j = n - 1; j >= 0; j--) {
+        if(hash == hashes[j] && element.equals(target.get(start + j))) {
+          lengths[i][j] = lengths[i + 1][j + 1] + 1;
+        } else {
+          lengths[i][j] = Math.max(lengths[i + 1][j], lengths[i][j + 1]);
+        }
+      }
+    }
+    // walk the table, diffing the unmatched runs of elements between matches
+    int index = start;
+    int i = 0;
+    int j = 0;
+    while(i < m || j < n) {
+      int removed = 0;
+      int added = 0;
+      while(i + removed < m || j + added < n) {
+        final int si = i + removed;
+        final int tj = j + added;
+        if(si < m && tj < n && lengths[si][tj] == lengths[si + 1][tj + 1] + 1 && hashes[tj] == this.hash(source.get(start + si)) && source.get(start + si).equals(target.get(start + tj))) {
+          break;
+        } else if(tj >= n || (si < m && lengths[si + 1][tj] >= lengths[si][tj + 1])) {
+          removed++;
+        } else {
+          added++;
+        }
+      }
+      index = this.pairwise(source, target, pointer, start + i, start + j, removed, added, index);
+      i += removed;
+      j += added;
+      if(i < m && j < n) {
+        // a matched element
+        i++;
+        j++;
+        index++;
+      }
+    }
+  }
+
+  // diffs a run of removed source elements against a run of added target elements, returning the next index
+  private int pairwise(final @NonNull JsonArray source, final @NonNull JsonArray target, final @NonNull String pointer, final int sourceStart, final int targetStart, final int removed, final int added, int index) {
+    final int paired = Math.min(removed, added);
+    for(int k = 0; k < paired; k++) {
+      this.diff(source.get(sourceStart + k), target.get(targetStart + k), pointer + '/' + index);
+      index++;
+    }
+    for(int k = paired; k < removed; k++) {
+      this.operation("remove", pointer + '/' + index, null);
+    }
+    for(int k = paired; k < added; k++) {
+      this.operation("add", pointer + '/' + index, target.get(targetStart + k));
+      index++;
+    }
+    return index;
+  }
+
+  private void operation(final @NonNull String op, final @NonNull String path, final JsonElement value) {
+    final JsonObject operation = new JsonObject();
+    operation.addProperty("op", op);
+    operation.addProperty("path", path);
+    if(value != null) {
+      operation.add("value", value.deepCopy());
+    }
+    this.patch.add(operation);
+  }
+
+  private boolean same(final @NonNull JsonElement a, final @NonNull JsonElement b) {
+    return a == b || (this.hash(a) == this.hash(b) && a.equals(b));
+  }
+
+  // a hash consistent with equals, unlike JsonPrimitive#hashCode for numbers of different types
+  private int hash(final @NonNull JsonElement element) {
+    if(element.isJsonPrimitive()) {
+      final JsonPrimitive primitive = element.getAsJsonPrimitive();
+      return primitive.isNumber() ? Double.hashCode(primitive.getAsDouble()) : primitive.hashCode();
+    } else if(element.isJsonNull()) {
+      return 0;
+    }
+    final Integer cached = this.hashes.get(element);
+    if(cached != null) {
+      return cached;
+    }
+    int hash;
+    if(element.isJsonObject()) {
+      // members are unordered
+      hash = 1;
+      for(final Map.Entry<String, JsonElement> entry : element.getAsJsonObject().entrySet()) {
+        hash += entry.getKey().hashCode() ^ this.hash(entry.getValue());
+      }
+    } else {
+      hash = 2;
+      for(final JsonElement child : element.getAsJsonArray()) {
+        hash = 31 * hash + this.hash(child);
+      }
+    }
+    this.hashes.put(element, hash);
+    return hash;
+  }
+}
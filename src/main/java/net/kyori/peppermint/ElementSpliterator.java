@@ -0,0 +1,102 @@
+/*
+ * This file is part of peppermint, licensed under the MIT License.
+ *
+ * Copyright (c) 2018 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.peppermint;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonIOException;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.MalformedJsonException;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A spliterator which parses the elements of a top-level JSON array one at a time.
+ */
+final class ElementSpliterator extends Spliterators.AbstractSpliterator<JsonElement> {
+  private final JsonReader reader;
+  private boolean started;
+  private boolean finished;
+
+  private ElementSpliterator(final @NonNull JsonReader reader) {
+    super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+    this.reader = reader;
+  }
+
+  /**
+   * Creates a sequential stream of the elements of the array read by {@code reader}.
+   *
+   * <p>Closing the stream closes {@code reader}.</p>
+   *
+   * @param reader the reader
+   * @return a stream of elements
+   */
+  static @NonNull Stream<JsonElement> stream(final @NonNull JsonReader reader) {
+    return StreamSupport.stream(new ElementSpliterator(reader), false).onClose(() -> {
+      try {
+        reader.close();
+      } catch(final IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    });
+  }
+
+  @Override
+  public boolean tryAdvance(final Consumer<? super JsonElement> action) {
+    if(this.finished) {
+      return false;
+    }
+    final JsonElement element;
+    try {
+      if(!this.started) {
+        this.reader.beginArray();
+        this.started = true;
+      }
+      if(this.reader.hasNext()) {
+        element = JsonIO.PARSER.parse(this.reader);
+      } else {
+        this.reader.endArray();
+        this.finished = true;
+        if(this.reader.peek() != JsonToken.END_DOCUMENT) {
+          throw new JsonSyntaxException("Did not consume the entire document.");
+        }
+        return false;
+      }
+    } catch(final MalformedJsonException | IllegalStateException e) {
+      throw new JsonSyntaxException(e);
+    } catch(final IOException e) {
+      throw new JsonIOException(e);
+    }
+    action.accept(element);
+    return true;
+  }
+}
@@ -0,0 +1,317 @@
+/*
+ * This file is part of peppermint, licensed under the MIT License.
+ *
+ * Copyright (c) 2018 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.peppermint;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds {@link FrozenJson} trees, either from elements or directly from a {@link JsonReader}.
+ *
+ * <p>A freezer shares names, and the shapes of objects with the same names, between all of the objects it builds.</p>
+ */
+final class Freezer {
+  private final Map<String, String> strings = new HashMap<>();
+  private final Map<List<String>, FrozenJson.Shape> shapes = new HashMap<>();
+
+  @NonNull FrozenJson freeze(final @NonNull JsonObject json) {
+    return this.freeze((JsonElement) json);
+  }
+
+  @NonNull FrozenJson freeze(final @NonNull JsonArray json) {
+    return this.freeze((JsonElement) json);
+  }
+
+  // trees are frozen iteratively, as TreeReader builds them, so their depth is not limited by the size of the stack
+  private @NonNull FrozenJson freeze(final @NonNull JsonElement json) {
+    final List<Frame> stack = new ArrayList<>();
+    stack.add(this.frame(null, json));
+    while(true) {
+      final Frame frame = stack.get(stack.size() - 1);
+      if(!frame.children.hasNext()) {
+        stack.remove(stack.size() - 1);
+        final FrozenJson frozen = frame.build(this);
+        if(stack.isEmpty()) {
+          return frozen;
+        }
+        stack.get(stack.size() - 1).add(frame, frozen);
+        continue;
+      }
+      final Object child = frame.children.next();
+      final String name;
+      final JsonElement element;
+      if(child instanceof Map.Entry) {
+        final Map.Entry<?, ?> entry = (Map.Entry<?, ?>) child;
+        name = this.name((String) entry.getKey());
+        element = (JsonElement) entry.getValue();
+      } else {
+        name = null;
+        element = (JsonElement) child;
+      }
+      if(element.isJsonObject() || element.isJsonArray()) {
+        stack.add(this.frame(name, element));
+      } else {
+        this.add(frame.members, name, element);
+      }
+    }
+  }
+
+  private @NonNull Frame frame(final String name, final @NonNull JsonElement json) {
+    if(json.isJsonObject()) {
+      final JsonObject object = json.getAsJsonObject();
+      return new Frame(name, true, new Members(object.size()), object.entrySet().iterator());
+    }
+    final JsonArray array = json.getAsJsonArray();
+    return new Frame(name, false, new Members(array.size()), array.iterator());
+  }
+
+  private void add(final @NonNull Members members, final String name, final @NonNull JsonElement element) {
+    if(element.isJsonPrimitive()) {
+      final JsonPrimitive primitive = element.getAsJsonPrimitive();
+      if(primitive.isBoolean()) {
+        members.add(name, primitive.getAsBoolean() ? FrozenJson.TRUE : FrozenJson.FALSE, 0, null);
+      } else if(primitive.isNumber()) {
+        members.number(name, primitive.getAsString());
+      } else {
+        members.add(name, FrozenJson.STRING, 0, primitive.getAsString());
+      }
+    } else {
+      members.add(name, FrozenJson.NULL, 0, null);
+    }
+  }
+
+  /**
+   * Reads an object or array from {@code reader}.
+   *
+   * <p>The tree is built iteratively, so its depth is not limited by the size of the stack.</p>
+   *
+   * @param reader the reader
+   * @return a frozen object or array
+   * @throws IOException if an exception occurred while reading
+   */
+  @NonNull FrozenJson read(final @NonNull JsonReader reader) throws IOException {
+    final JsonToken token = reader.peek();
+    if(token != JsonToken.BEGIN_OBJECT && token != JsonToken.BEGIN_ARRAY) {
+      throw new JsonSyntaxException("Expected an object or an array but was " + token);
+    }
+    final List<Frame> stack = new ArrayList<>();
+    stack.add(this.begin(reader, null, token));
+    while(true) {
+      final Frame frame = stack.get(stack.size() - 1);
+      if(!reader.hasNext()) {
+        if(frame.object) {
+          reader.endObject();
+        } else {
+          reader.endArray();
+        }
+        stack.remove(stack.size() - 1);
+        final FrozenJson frozen = frame.build(this);
+        if(stack.isEmpty()) {
+          return frozen;
+        }
+        stack.get(stack.size() - 1).add(frame, frozen);
+        continue;
+      }
+      final String name = frame.object ? this.name(reader.nextName()) : null;
+      final Members members = frame.members;
+      final JsonToken next = reader.peek();
+      switch(next) {
+        case BEGIN_OBJECT:
+        case BEGIN_ARRAY:
+          stack.add(this.begin(reader, name, next));
+          break;
+        case STRING:
+          members.add(name, FrozenJson.STRING, 0, reader.nextString());
+          break;
+        case NUMBER:
+          members.number(name, reader.nextString());
+          break;
+        case BOOLEAN:
+          members.add(name, reader.nextBoolean() ? FrozenJson.TRUE : FrozenJson.FALSE, 0, null);
+          break;
+        case NULL:
+          reader.nextNull();
+          members.add(name, FrozenJson.NULL, 0, null);
+          break;
+        default:
+          throw new IllegalArgumentException();
+      }
+    }
+  }
+
+  private @NonNull Frame begin(final @NonNull JsonReader reader, final String name, final @NonNull JsonToken token) throws IOException {
+    if(token == JsonToken.BEGIN_OBJECT) {
+      reader.beginObject();
+      return new Frame(name, true, new Members(8), null);
+    }
+    reader.beginArray();
+    return new Frame(name, false, new Members(8), null);
+  }
+
+  private @NonNull String name(final @NonNull String name) {
+    final String existing = this.strings.putIfAbsent(name, name);
+    return existing != null ? existing : name;
+  }
+
+  private FrozenJson.@NonNull Shape shape(final String @NonNull [] names) {
+    return this.shapes.computeIfAbsent(Arrays.asList(names), key -> new FrozenJson.Shape(names));
+  }
+
+  /**
+   * An object or array being built, and the name it is to be added to its parent with.
+   */
+  private static final class Frame {
+    final String name;
+    final boolean object;
+    final @NonNull Members members;
+    // the elements still to be frozen, when freezing an element rather than reading
+    final Iterator<?> children;
+
+    Frame(final String name, final boolean object, final @NonNull Members members, final Iterator<?> children) {
+      this.name = name;
+      this.object = object;
+      this.members = members;
+      this.children = children;
+    }
+
+    @NonNull FrozenJson build(final @NonNull Freezer freezer) {
+      return this.object ? this.members.object(freezer) : this.members.array();
+    }
+
+    void add(final @NonNull Frame child, final @NonNull FrozenJson frozen) {
+      this.members.add(child.name, child.object ? FrozenJson.OBJECT : FrozenJson.ARRAY, 0, frozen);
+    }
+  }
+
+  /**
+   * The members of an object or array being built.
+   */
+  private static final class Members {
+    private String[] names;
+    private byte[] kinds;
+    private long[] bits;
+    private Object[] values;
+    private int size;
+    private boolean hasBits;
+    private boolean hasValues;
+
+    Members(final int capacity) {
+      final int length = Math.max(capacity, 1);
+      this.names = new String[length];
+      this.kinds = new byte[length];
+      this.bits = new long[length];
+      this.values = new Object[length];
+    }
+
+    void number(final String name, final @NonNull String text) {
+      // only numbers whose text can be reproduced exactly are held as bits
+      if(Numbers.isInteger(text, Long.MIN_VALUE, Long.MAX_VALUE)) {
+        final long value = Long.parseLong(text);
+        if(Long.toString(value).equals(text)) {
+          this.add(name, FrozenJson.LONG, value, null);
+          return;
+        }
+      } else if(Numbers.isDecimal(text)) {
+        final double value = Double.parseDouble(text);
+        if(Double.toString(value).equals(text)) {
+          this.add(name, FrozenJson.DOUBLE, Double.doubleToRawLongBits(value), null);
+          return;
+        }
+      }
+      this.add(name, FrozenJson.NUMBER, 0, text);
+    }
+
+    void add(final String name, final byte kind, final long bits, final Object value) {
+      if(this.size == this.kinds.length) {
+        final int length = this.size * 2;
+        this.names = Arrays.copyOf(this.names, length);
+        this.kinds = Arrays.copyOf(this.kinds, length);
+        this.bits = Arrays.copyOf(this.bits, length);
+        this.values = Arrays.copyOf(this.values, length);
+      }
+      this.names[this.size] = name;
+      this.kinds[this.size] = kind;
+      this.bits[this.size] = bits;
+      this.values[this.size] = value;
+      this.hasBits |= kind == FrozenJson.LONG || kind == FrozenJson.DOUBLE;
+      this.hasValues |= value != null;
+      this.size++;
+    }
+
+    @NonNull FrozenJson array() {
+      return new FrozenJson(
+        null,
+        Arrays.copyOf(this.kinds, this.size),
+        this.hasBits ? Arrays.copyOf(this.bits, this.size) : null,
+        this.hasValues ? Arrays.copyOf(this.values, this.size) : null
+      );
+    }
+
+    @NonNull FrozenJson object(final @NonNull Freezer freezer) {
+      // a stable sort keeps duplicate names in order, so that the last one can win as it does in JsonObject
+      final Integer[] order = new Integer[this.size];
+      for(int i = 0; i < this.size; i++) {
+        order[i] = i;
+      }
+      Arrays.sort(order, (a, b) -> this.names[a].compareTo(this.names[b]));
+      int size = 0;
+      for(int i = 0; i < order.length; i++) {
+        if(i + 1 < order.length && this.names[order[i]].equals(this.names[order[i + 1]])) {
+          continue;
+        }
+        order[size++] = order[i];
+      }
+      final String[] names = new String[size];
+      final byte[] kinds = new byte[size];
+      final long[] bits = this.hasBits ? new long[size] : null;
+      final Object[] values = this.hasValues ? new Object[size] : null;
+      for(int i = 0; i < size; i++) {
+        final int index = order[i];
+        names[i] = this.names[index];
+        kinds[i] = this.kinds[index];
+        if(bits != null) {
+          bits[i] = this.bits[index];
+        }
+        if(values != null) {
+          values[i] = this.values[index];
+        }
+      }
+      return new FrozenJson(freezer.shape(names), kinds, bits, values);
+    }
+  }
+}
@@ -0,0 +1,804 @@
+/*
+ * This file is part of peppermint, licensed under the MIT License.
+ *
+ * Copyright (c) 2018 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.peppermint;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.internal.LazilyParsedNumber;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * An immutable, compact JSON object or array.
+ *
+ * <p>Members are held in parallel arrays rather than in a map of entries: booleans and
+ * nulls are held only by their kind, and numbers which can be represented exactly are
+ * held as the bits of a {@code long} or {@code double}. Names are sorted, and looked up
+ * through an open-addressed table of their hashes. Objects frozen together which have
+ * the same names share a single array of names and table.</p>
+ *
+ * <p>The accessors mirror those in {@link Json}, and convert values in the same way as
+ * an element parsed by {@link JsonIO#PARSER}.</p>
+ */
+public final class FrozenJson {
+  static final byte NULL = 0;
+  static final byte TRUE = 1;
+  static final byte FALSE = 2;
+  static final byte LONG = 3;
+  static final byte DOUBLE = 4;
+  static final byte NUMBER = 5;
+  static final byte STRING = 6;
+  static final byte OBJECT = 7;
+  static final byte ARRAY = 8;
+  private final @Nullable Shape shape;
+  private final byte[] kinds;
+  private final long @Nullable [] bits;
+  private final Object @Nullable [] values;
+
+  FrozenJson(final @Nullable Shape shape, final byte[] kinds, final long @Nullable [] bits, final Object @Nullable [] values) {
+    this.shape = shape;
+    this.kinds = kinds;
+    this.bits = bits;
+    this.values = values;
+  }
+
+  /**
+   * Freezes an object.
+   *
+   * @param json the json
+   * @return a frozen object
+   */
+  public static @NonNull FrozenJson of(final @NonNull JsonObject json) {
+    return new Freezer().freeze(json);
+  }
+
+  /**
+   * Freezes an array.
+   *
+   * @param json the json
+   * @return a frozen array
+   */
+  public static @NonNull FrozenJson of(final @NonNull JsonArray json) {
+    return new Freezer().freeze(json);
+  }
+
+  /**
+   * Tests if this is an object.
+   *
+   * @return {@code true} if this is an object, {@code false} if this is an array
+   */
+  public boolean isObject() {
+    return this.shape != null;
+  }
+
+  /**
+   * Tests if this is an array.
+   *
+   * @return {@code true} if this is an array, {@code false} if this is an object
+   */
+  public boolean isArray() {
+    return this.shape == null;
+  }
+
+  /**
+   * Gets the number of members in this object, or elements in this array.
+   *
+   * @return the size
+   */
+  public int size() {
+    return this.kinds.length;
+  }
+
+  /**
+   * Gets the names of the members in this object, in sorted order.
+   *
+   * <p>The member at index {@code i} can also be read using the index accessors.</p>
+   *
+   * @return the names, or an empty list if this is an array
+   */
+  public @NonNull List<String> names() {
+    return this.shape != null ? Collections.unmodifiableList(Arrays.asList(this.shape.names)) : Collections.emptyList();
+  }
+
+  /**
+   * Gets the name of the member at {@code index}.
+   *
+   * @param index the index
+   * @return the name
+   * @throws IllegalStateException if this is an array
+   */
+  public @NonNull String name(final int index) {
+    if(this.shape == null) {
+      throw new IllegalStateException("Not an object");
+    }
+    return this.shape.names[index];
+  }
+
+  /**
+   * Tests if the element {@code name} is present.
+   *
+   * @param name the name
+   * @return {@code true} if the element {@code name} is present, {@code false} otherwise
+   */
+  public boolean has(final @NonNull String name) {
+    return this.find(name) >= 0;
+  }
+
+  /**
+   * Tests if the element {@code name} is non-null.
+   *
+   * @param name the name
+   * @return {@code true} if the element {@code name} is non-null, {@code false} otherwise
+   */
+  public boolean hasNonNull(final @NonNull String name) {
+    final int index = this.find(name);
+    return index >= 0 && this.kinds[index] != NULL;
+  }
+
+  /**
+   * Tests if the element {@code name} is an array.
+   *
+   * @param name the name
+   * @return {@code true} if the element {@code name} is an array, {@code false} otherwise
+   */
+  public boolean isArray(final @NonNull String name) {
+    final int index = this.find(name);
+    return index >= 0 && this.kinds[index] == ARRAY;
+  }
+
+  /**
+   * Tests if the element {@code name} is an object.
+   *
+   * @param name the name
+   * @return {@code true} if the element {@code name} is an object, {@code false} otherwise
+   */
+  public boolean isObject(final @NonNull String name) {
+    final int index = this.find(name);
+    return index >= 0 && this.kinds[index] == OBJECT;
+  }
+
+  /**
+   * Tests if the element {@code name} is a primitive.
+   *
+   * @param name the name
+   * @return {@code true} if the element {@code name} is a primitive, {@code false} otherwise
+   */
+  public boolean isPrimitive(final @NonNull String name) {
+    final int index = this.find(name);
+    return index >= 0 && this.primitive(index);
+  }
+
+  /**
+   * Tests if the element {@code name} is a number.
+   *
+   * @param name the name
+   * @return {@code true} if the element {@code name} is a number, {@code false} otherwise
+   */
+  public boolean isNumber(final @NonNull String name) {
+    final int index = this.find(name);
+    return index >= 0 && this.number(index);
+  }
+
+  /**
+   * Tests if the element {@code name} is a boolean.
+   *
+   * @param name the name
+   * @return {@code true} if the element {@code name} is a boolean, {@code false} otherwise
+   */
+  public boolean isBoolean(final @NonNull String name) {
+    final int index = this.find(name);
+    return index >= 0 && (this.kinds[index] == TRUE || this.kinds[index] == FALSE);
+  }
+
+  /**
+   * Tests if the element {@code name} is a string.
+   *
+   * @param name the name
+   * @return {@code true} if the element {@code name} is a string, {@code false} otherwise
+   */
+  public boolean isString(final @NonNull String name) {
+    final int index = this.find(name);
+    return index >= 0 && this.kinds[index] == STRING;
+  }
+
+  /**
+   * Tests if the element at {@code index} is null.
+   *
+   * @param index the index
+   * @return {@code true} if the element at {@code index} is null, {@code false} otherwise
+   */
+  public boolean isNull(final int index) {
+    return this.kinds[index] == NULL;
+  }
+
+  /*
+   * booleans
+   */
+
+  /**
+   * Gets the element {@code name} as a boolean.
+   *
+   * @param name the name
+   * @return a boolean
+   */
+  public boolean needBoolean(final @NonNull String name) {
+    return this.needBoolean(this.need(name, "a boolean"), name);
+  }
+
+  /**
+   * Gets the element {@code name} as a boolean.
+   *
+   * @param name the name
+   * @param defaultValue the default value
+   * @return a boolean
+   */
+  public boolean getBoolean(final @NonNull String name, final boolean defaultValue) {
+    final int index = this.find(name);
+    return index >= 0 ? this.needBoolean(index, name) : defaultValue;
+  }
+
+  /**
+   * Gets the element at {@code index} as a boolean.
+   *
+   * @param index the index
+   * @return a boolean
+   */
+  public boolean needBoolean(final int index) {
+    return this.needBoolean(index, this.label(index));
+  }
+
+  private boolean needBoolean(final int index, final @NonNull String name) {
+    switch(this.kinds[index]) {
+      case TRUE: return true;
+      case FALSE: return false;
+      case STRING: return Boolean.parseBoolean((String) this.values[index]);
+      case LONG:
+      case DOUBLE:
+      case NUMBER: return false;
+      default: throw expected(name, "a boolean");
+    }
+  }
+
+  /*
+   * bytes
+   */
+
+  /**
+   * Gets the element {@code name} as a byte.
+   *
+   * @param name the name
+   * @return a byte
+   */
+  public byte needByte(final @NonNull String name) {
+    return this.needByte(this.need(name, "a byte"), name);
+  }
+
+  /**
+   * Gets the element {@code name} as a byte.
+   *
+   * @param name the name
+   * @param defaultValue the default value
+   * @return a byte
+   */
+  public byte getByte(final @NonNull String name, final byte defaultValue) {
+    final int index = this.find(name);
+    return index >= 0 ? this.needByte(index, name) : defaultValue;
+  }
+
+  /**
+   * Gets the element at {@code index} as a byte.
+   *
+   * @param index the index
+   * @return a byte
+   */
+  public byte needByte(final int index) {
+    return this.needByte(index, this.label(index));
+  }
+
+  private byte needByte(final int index, final @NonNull String name) {
+    try {
+      if(this.number(index)) {
+        return (byte) this.needInt(index, name);
+      } else if(this.primitive(index)) {
+        return Byte.parseByte(this.string(index));
+      }
+      throw expected(name, "a byte");
+    } catch(final NumberFormatException e) {
+      Metrics.mismatch(name);
+      throw e;
+    }
+  }
+
+  /*
+   * doubles
+   */
+
+  /**
+   * Gets the element {@code name} as a double.
+   *
+   * @param name the name
+   * @return a double
+   */
+  public double needDouble(final @NonNull String name) {
+    return this.needDouble(this.need(name, "a double"), name);
+  }
+
+  /**
+   * Gets the element {@code name} as a double.
+   *
+   * @param name the name
+   * @param defaultValue the default value
+   * @return a double
+   */
+  public double getDouble(final @NonNull String name, final double defaultValue) {
+    final int index = this.find(name);
+    return index >= 0 ? this.needDouble(index, name) : defaultValue;
+  }
+
+  /**
+   * Gets the element at {@code index} as a double.
+   *
+   * @param index the index
+   * @return a double
+   */
+  public double needDouble(final int index) {
+    return this.needDouble(index, this.label(index));
+  }
+
+  private double needDouble(final int index, final @NonNull String name) {
+    try {
+      switch(this.kinds[index]) {
+        case LONG: return (double) this.bits[index];
+        case DOUBLE: return Double.longBitsToDouble(this.bits[index]);
+        case NULL:
+        case OBJECT:
+        case ARRAY: throw expected(name, "a double");
+        default: return Double.parseDouble(this.string(index));
+      }
+    } catch(final NumberFormatException e) {
+      Metrics.mismatch(name);
+      throw e;
+    }
+  }
+
+  /*
+   * floats
+   */
+
+  /**
+   * Gets the element {@code name} as a float.
+   *
+   * @param name the name
+   * @return a float
+   */
+  public float needFloat(final @NonNull String name) {
+    return this.needFloat(this.need(name, "a float"), name);
+  }
+
+  /**
+   * Gets the element {@code name} as a float.
+   *
+   * @param name the name
+   * @param defaultValue the default value
+   * @return a float
+   */
+  public float getFloat(final @NonNull String name, final float defaultValue) {
+    final int index = this.find(name);
+    return index >= 0 ? this.needFloat(index, name) : defaultValue;
+  }
+
+  /**
+   * Gets the element at {@code index} as a float.
+   *
+   * @param index the index
+   * @return a float
+   */
+  public float needFloat(final int index) {
+    return this.needFloat(index, this.label(index));
+  }
+
+  private float needFloat(final int index, final @NonNull String name) {
+    try {
+      switch(this.kinds[index]) {
+        case LONG: return (float) this.bits[index];
+        case NULL:
+        case OBJECT:
+        case ARRAY: throw expected(name, "a float");
+        // a double cannot be narrowed directly, as rounding twice may differ from parsing the text
+        default: return Float.parseFloat(this.string(index));
+      }
+    } catch(final NumberFormatException e) {
+      Metrics.mismatch(name);
+      throw e;
+    }
+  }
+
+  /*
+   * ints
+   */
+
+  /**
+   * Gets the element {@code name} as an int.
+   *
+   * @param name the name
+   * @return an int
+   */
+  public int needInt(final @NonNull String name) {
+    return this.needInt(this.need(name, "an int"), name);
+  }
+
+  /**
+   * Gets the element {@code name} as an int.
+   *
+   * @param name the name
+   * @param defaultValue the default value
+   * @return an int
+   */
+  public int getInt(final @NonNull String name, final int defaultValue) {
+    final int index = this.find(name);
+    return index >= 0 ? this.needInt(index, name) : defaultValue;
+  }
+
+  /**
+   * Gets the element at {@code index} as an int.
+   *
+   * @param index the index
+   * @return an int
+   */
+  public int needInt(final int index) {
+    return this.needInt(index, this.label(index));
+  }
+
+  private int needInt(final int index, final @NonNull String name) {
+    try {
+      switch(this.kinds[index]) {
+        case LONG: return (int) this.bits[index];
+        case DOUBLE:
+          final double value = Double.longBitsToDouble(this.bits[index]);
+          return Math.abs(value) < 0x1p31 ? (int) value : new LazilyParsedNumber(this.string(index)).intValue();
+        case NUMBER: return new LazilyParsedNumber(this.string(index)).intValue();
+        case NULL:
+        case OBJECT:
+        case ARRAY: throw expected(name, "an int");
+        default: return Integer.parseInt(this.string(index));
+      }
+    } catch(final NumberFormatException e) {
+      Metrics.mismatch(name);
+      throw e;
+    }
+  }
+
+  /*
+   * longs
+   */
+
+  /**
+   * Gets the element {@code name} as a long.
+   *
+   * @param name the name
+   * @return a long
+   */
+  public long needLong(final @NonNull String name) {
+    return this.needLong(this.need(name, "a long"), name);
+  }
+
+  /**
+   * Gets the element {@code name} as a long.
+   *
+   * @param name the name
+   * @param defaultValue the default value
+   * @return a long
+   */
+  public long getLong(final @NonNull String name, final long defaultValue) {
+    final int index = this.find(name);
+    return index >= 0 ? this.needLong(index, name) : defaultValue;
+  }
+
+  /**
+   * Gets the element at {@code index} as a long.
+   *
+   * @param index the index
+   * @return a long
+   */
+  public long needLong(final int index) {
+    return this.needLong(index, this.label(index));
+  }
+
+  private long needLong(final int index, final @NonNull String name) {
+    try {
+      switch(this.kinds[index]) {
+        case LONG: return this.bits[index];
+        case DOUBLE:
+          final double value = Double.longBitsToDouble(this.bits[index]);
+          return Math.abs(value) < 0x1p63 ? (long) value : new LazilyParsedNumber(this.string(index)).longValue();
+        case NUMBER: return new LazilyParsedNumber(this.string(index)).longValue();
+        case NULL:
+        case OBJECT:
+        case ARRAY: throw expected(name, "a long");
+        default: return Long.parseLong(this.string(index));
+      }
+    } catch(final NumberFormatException e) {
+      Metrics.mismatch(name);
+      throw e;
+    }
+  }
+
+  /*
+   * strings
+   */
+
+  /**
+   * Gets the element {@code name} as a string.
+   *
+   * @param name the name
+   * @return a string
+   */
+  public @NonNull String needString(final @NonNull String name) {
+    return this.needString(this.need(name, "a string"), name);
+  }
+
+  /**
+   * Gets the element {@code name} as a string.
+   *
+   * @param name the name
+   * @param defaultValue the default value
+   * @return a string
+   */
+  public /* @Nullable */ String getString(final @NonNull String name, final @Nullable String defaultValue) {
+    final int index = this.find(name);
+    return index >= 0 && this.kinds[index] != NULL ? this.needString(index, name) : defaultValue;
+  }
+
+  /**
+   * Gets the element at {@code index} as a string.
+   *
+   * @param index the index
+   * @return a string
+   */
+  public @NonNull String needString(final int index) {
+    return this.needString(index, this.label(index));
+  }
+
+  private @NonNull String needString(final int index, final @NonNull String name) {
+    if(this.primitive(index)) {
+      return this.string(index);
+    }
+    throw expected(name, "a string");
+  }
+
+  /*
+   * objects and arrays
+   */
+
+  /**
+   * Gets the element {@code name} as an object.
+   *
+   * @param name the name
+   * @return an object
+   */
+  public @NonNull FrozenJson needObject(final @NonNull String name) {
+    return this.needObject(this.need(name, "an object"), name);
+  }
+
+  /**
+   * Gets the element at {@code index} as an object.
+   *
+   * @param index the index
+   * @return an object
+   */
+  public @NonNull FrozenJson needObject(final int index) {
+    return this.needObject(index, this.label(index));
+  }
+
+  private @NonNull FrozenJson needObject(final int index, final @NonNull String name) {
+    if(this.kinds[index] == OBJECT) {
+      return (FrozenJson) this.values[index];
+    }
+    throw expected(name, "an object");
+  }
+
+  /**
+   * Gets the element {@code name} as an array.
+   *
+   * @param name the name
+   * @return an array
+   */
+  public @NonNull FrozenJson needArray(final @NonNull String name) {
+    return this.needArray(this.need(name, "an array"), name);
+  }
+
+  /**
+   * Gets the element at {@code index} as an array.
+   *
+   * @param index the index
+   * @return an array
+   */
+  public @NonNull FrozenJson needArray(final int index) {
+    return this.needArray(index, this.label(index));
+  }
+
+  private @NonNull FrozenJson needArray(final int index, final @NonNull String name) {
+    if(this.kinds[index] == ARRAY) {
+      return (FrozenJson) this.values[index];
+    }
+    throw expected(name, "an array");
+  }
+
+  /**
+   * Creates a mutable copy of this object or array.
+   *
+   * @return the json
+   */
+  public @NonNull JsonElement toJson() {
+    if(this.shape != null) {
+      final JsonObject json = new JsonObject();
+      for(int i = 0, size = this.kinds.length; i < size; i++) {
+        json.add(this.shape.names[i], this.element(i));
+      }
+      return json;
+    }
+    final JsonArray json = new JsonArray(this.kinds.length);
+    for(int i = 0, size = this.kinds.length; i < size; i++) {
+      json.add(this.element(i));
+    }
+    return json;
+  }
+
+  private @NonNull JsonElement element(final int index) {
+    switch(this.kinds[index]) {
+      case NULL: return JsonNull.INSTANCE;
+      case TRUE: return new JsonPrimitive(true);
+      case FALSE: return new JsonPrimitive(false);
+      case STRING: return new JsonPrimitive((String) this.values[index]);
+      case OBJECT:
+      case ARRAY: return ((FrozenJson) this.values[index]).toJson();
+      default: return new JsonPrimitive(new LazilyParsedNumber(this.string(index)));
+    }
+  }
+
+  private int find(final @NonNull String name) {
+    return this.shape != null ? this.shape.find(name) : -1;
+  }
+
+  private int need(final @NonNull String name, final @NonNull String expected) {
+    final int index = this.find(name);
+    if(index < 0) {
+      Metrics.missing(name);
+      throw new JsonSyntaxException("Missing " + name + ", expected to find " + expected);
+    }
+    return index;
+  }
+
+  private static @NonNull JsonSyntaxException expected(final @NonNull String name, final @NonNull String expected) {
+    Metrics.mismatch(name);
+    return new JsonSyntaxException("Expected " + name + " to be " + expected);
+  }
+
+  private @NonNull String label(final int index) {
+    return this.shape != null ? this.shape.names[index] : "[" + index + ']';
+  }
+
+  private boolean primitive(final int index) {
+    final byte kind = this.kinds[index];
+    return kind != NULL && kind != OBJECT && kind != ARRAY;
+  }
+
+  private boolean number(final int index) {
+    final byte kind = this.kinds[index];
+    return kind == LONG || kind == DOUBLE || kind == NUMBER;
+  }
+
+  // the text of a primitive, as JsonPrimitive#getAsString would return it
+  private @NonNull String string(final int index) {
+    switch(this.kinds[index]) {
+      case TRUE: return "true";
+      case FALSE: return "false";
+      case LONG: return Long.toString(this.bits[index]);
+      case DOUBLE: return Double.toString(Double.longBitsToDouble(this.bits[index]));
+      default: return (String) this.values[index];
+    }
+  }
+
+  @Override
+  public boolean equals(final Object other) {
+    if(this == other) {
+      return true;
+    }
+    if(!(other instanceof FrozenJson)) {
+      return false;
+    }
+    final FrozenJson that = (FrozenJson) other;
+    return (this.shape == null ? that.shape == null : that.shape != null && Arrays.equals(this.shape.names, that.shape.names))
+      && Arrays.equals(this.kinds, that.kinds)
+      && Arrays.equals(this.bits, that.bits)
+      && Arrays.equals(this.values, that.values);
+  }
+
+  @Override
+  public int hashCode() {
+    int result = this.shape != null ? Arrays.hashCode(this.shape.names) : 0;
+    result = 31 * result + Arrays.hashCode(this.kinds);
+    result = 31 * result + Arrays.hashCode(this.bits);
+    result = 31 * result + Arrays.hashCode(this.values);
+    return result;
+  }
+
+  @Override
+  public String toString() {
+    return this.toJson().toString();
+  }
+
+  /**
+   * The sorted names of an object, and a table of their indices by hash.
+   */
+  static final class Shape {
+    final String[] names;
+    private final int[] table;
+
+    Shape(final String @NonNull [] names) {
+      this.names = names;
+      int capacity = 2;
+      while(capacity < names.length * 2) {
+        capacity <<= 1;
+      }
+      // entries hold the index of a name plus one, leaving zero for an empty slot
+      this.table = new int[capacity];
+      final int mask = capacity - 1;
+      for(int i = 0; i < names.length; i++) {
+        int slot = spread(names[i].hashCode()) & mask;
+        while(this.table[slot] != 0) {
+          slot = (slot + 1) & mask;
+        }
+        this.table[slot] = i + 1;
+      }
+    }
+
+    int find(final @NonNull String name) {
+      final int[] table = this.table;
+      final int mask = table.length - 1;
+      int slot = spread(name.hashCode()) & mask;
+      while(true) {
+        final int entry = table[slot];
+        if(entry == 0) {
+          return -1;
+        } else if(this.names[entry - 1].equals(name)) {
+          return entry - 1;
+        }
+        slot = (slot + 1) & mask;
+      }
+    }
+
+    private static int spread(final int hash) {
+      return hash ^ (hash >>> 16);
+    }
+  }
+}
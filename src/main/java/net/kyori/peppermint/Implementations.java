@@ -0,0 +1,410 @@
+/*
+ * This file is part of peppermint, licensed under the MIT License.
+ *
+ * Copyright (c) 2018 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.peppermint;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.security.ProtectionDomain;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Generates the classes which implement bound interfaces.
+ *
+ * <p>A generated class holds the value of each bound method in a final field of its return
+ * type, which it assigns from an array of values in its constructor. A bound method returns its
+ * field, so it costs no more than a hand-written getter, and default methods are inherited from
+ * the interface. {@code toString} lists the values in the order of the array; {@code equals} and
+ * {@code hashCode} are those of {@link Object}.</p>
+ *
+ * <p>Every method is straight-line code, so the class needs no stack map frames. It is defined in
+ * the package of the interface, so that package-private interfaces can be bound.</p>
+ */
+final class Implementations {
+  private static final AtomicInteger COUNT = new AtomicInteger();
+  private static final int VERSION = 52; // Java 8
+  private static final int ACC_PUBLIC = 0x0001;
+  private static final int ACC_PRIVATE = 0x0002;
+  private static final int ACC_FINAL = 0x0010;
+  private static final int ACC_SUPER = 0x0020;
+  private static final String OBJECT = "java/lang/Object";
+  private static final String BUILDER = "java/lang/StringBuilder";
+
+  private Implementations() {
+  }
+
+  /**
+   * Generates and defines a class implementing {@code type}.
+   *
+   * <p>The class has a public constructor which takes an {@code Object[]} of the values of
+   * {@code methods}, in order, with primitives boxed.</p>
+   *
+   * @param type the interface
+   * @param methods the bound methods, which take no parameters and have distinct names
+   * @param abstracts every abstract method of {@code type}, each of which returns the value of the bound method of the same name
+   * @return the class
+   * @throws IllegalArgumentException if the class could not be defined
+   */
+  static @NonNull Class<?> implement(final @NonNull Class<?> type, final @NonNull List<Method> methods, final @NonNull List<Method> abstracts) {
+    final String name = type.getName() + "$$Decoded" + COUNT.incrementAndGet();
+    final byte[] bytes;
+    try {
+      bytes = generate(name.replace('.', '/'), type, methods, abstracts);
+    } catch(final IOException e) {
+      throw new IllegalStateException(e);
+    }
+    try {
+      return define(type, name, bytes);
+    } catch(final ReflectiveOperationException | RuntimeException | LinkageError e) {
+      throw new IllegalArgumentException("Cannot implement " + type.getName(), e);
+    }
+  }
+
+  // defines the class alongside type - through a private lookup on Java 9 and later, or its class loader on Java 8
+  private static @NonNull Class<?> define(final @NonNull Class<?> type, final @NonNull String name, final byte @NonNull [] bytes) throws ReflectiveOperationException {
+    final Method privateLookupIn;
+    try {
+      privateLookupIn = MethodHandles.class.getMethod("privateLookupIn", Class.class, MethodHandles.Lookup.class);
+    } catch(final NoSuchMethodException e) {
+      final Method defineClass = ClassLoader.class.getDeclaredMethod("defineClass", String.class, byte[].class, int.class, int.class, ProtectionDomain.class);
+      defineClass.setAccessible(true);
+      return (Class<?>) unwrap(() -> defineClass.invoke(type.getClassLoader(), name, bytes, 0, bytes.length, type.getProtectionDomain()));
+    }
+    final Object lookup = unwrap(() -> privateLookupIn.invoke(null, type, MethodHandles.lookup()));
+    final Method defineClass = MethodHandles.Lookup.class.getMethod("defineClass", byte[].class);
+    return (Class<?>) unwrap(() -> defineClass.invoke(lookup, (Object) bytes));
+  }
+
+  private static Object unwrap(final @NonNull Invocation invocation) throws ReflectiveOperationException {
+    try {
+      return invocation.invoke();
+    } catch(final InvocationTargetException e) {
+      final Throwable cause = e.getCause();
+      if(cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      } else if(cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw e;
+    }
+  }
+
+  @FunctionalInterface
+  private interface Invocation {
+    Object invoke() throws ReflectiveOperationException;
+  }
+
+  private static byte @NonNull [] generate(final @NonNull String name, final @NonNull Class<?> type, final @NonNull List<Method> methods, final @NonNull List<Method> abstracts) throws IOException {
+    final Map<String, Class<?>> fields = new HashMap<>();
+    for(final Method method : methods) {
+      fields.put(method.getName(), method.getReturnType());
+    }
+    final ConstantPool pool = new ConstantPool();
+    final int thisClass = pool.type(name);
+    final int superClass = pool.type(OBJECT);
+    final int iface = pool.type(internalName(type));
+    final ByteArrayOutputStream members = new ByteArrayOutputStream();
+    final DataOutputStream out = new DataOutputStream(members);
+
+    // fields
+    out.writeShort(methods.size());
+    for(final Method method : methods) {
+      out.writeShort(ACC_PRIVATE | ACC_FINAL);
+      out.writeShort(pool.utf8(method.getName()));
+      out.writeShort(pool.utf8(descriptor(method.getReturnType())));
+      out.writeShort(0);
+    }
+
+    out.writeShort(abstracts.size() + 2);
+    // the constructor, which assigns each field from the array of values
+    final Code init = new Code(pool);
+    init.op(0x2a); // aload_0
+    init.op(0xb7).u2(pool.method(OBJECT, "<init>", "()V")); // invokespecial
+    for(int i = 0; i < methods.size(); i++) {
+      final Class<?> field = methods.get(i).getReturnType();
+      init.op(0x2a); // aload_0
+      init.op(0x2b); // aload_1
+      init.push(i);
+      init.op(0x32); // aaload
+      if(field.isPrimitive()) {
+        final String box = internalName(box(field));
+        init.op(0xc0).u2(pool.type(box)); // checkcast
+        init.op(0xb6).u2(pool.method(box, field.getName() + "Value", "()" + descriptor(field))); // invokevirtual
+      } else if(field != Object.class) {
+        init.op(0xc0).u2(pool.type(field.isArray() ? descriptor(field) : internalName(field))); // checkcast
+      }
+      init.op(0xb5).u2(pool.field(name, methods.get(i).getName(), descriptor(field))); // putfield
+    }
+    init.op(0xb1); // return
+    init.write(out, ACC_PUBLIC, "<init>", "([Ljava/lang/Object;)V", 4, 2);
+
+    // the abstract methods, which return their fields - a method which a subinterface overrides with a
+    // narrower return type returns the field of that type
+    for(final Method method : abstracts) {
+      final Class<?> field = fields.get(method.getName());
+      final Code getter = new Code(pool);
+      getter.op(0x2a); // aload_0
+      getter.op(0xb4).u2(pool.field(name, method.getName(), descriptor(field))); // getfield
+      getter.op(returnOp(field));
+      getter.write(out, ACC_PUBLIC | ACC_FINAL, method.getName(), "()" + descriptor(method.getReturnType()), 2, 1);
+    }
+
+    // toString, which appends each field in turn to a builder
+    final Code string = new Code(pool);
+    string.op(0xbb).u2(pool.type(BUILDER)); // new
+    string.op(0x59); // dup
+    string.ldc(pool.string(type.getSimpleName() + '{'));
+    string.op(0xb7).u2(pool.method(BUILDER, "<init>", "(Ljava/lang/String;)V")); // invokespecial
+    for(int i = 0; i < methods.size(); i++) {
+      final Method method = methods.get(i);
+      final Class<?> field = method.getReturnType();
+      string.ldc(pool.string((i == 0 ? "" : ", ") + method.getName() + '='));
+      string.op(0xb6).u2(pool.method(BUILDER, "append", "(Ljava/lang/String;)L" + BUILDER + ';')); // invokevirtual
+      string.op(0x2a); // aload_0
+      string.op(0xb4).u2(pool.field(name, method.getName(), descriptor(field))); // getfield
+      string.op(0xb6).u2(pool.method(BUILDER, "append", '(' + appended(field) + ")L" + BUILDER + ';')); // invokevirtual
+    }
+    string.ldc(pool.string("}"));
+    string.op(0xb6).u2(pool.method(BUILDER, "append", "(Ljava/lang/String;)L" + BUILDER + ';')); // invokevirtual
+    string.op(0xb6).u2(pool.method(BUILDER, "toString", "()Ljava/lang/String;")); // invokevirtual
+    string.op(0xb0); // areturn
+    string.write(out, ACC_PUBLIC, "toString", "()Ljava/lang/String;", 4, 1);
+
+    out.writeShort(0); // attributes
+
+    final ByteArrayOutputStream bytes = new ByteArrayOutputStream(256 + members.size());
+    final DataOutputStream file = new DataOutputStream(bytes);
+    file.writeInt(0xCAFEBABE);
+    file.writeShort(0);
+    file.writeShort(VERSION);
+    pool.write(file);
+    file.writeShort(ACC_PUBLIC | ACC_FINAL | ACC_SUPER);
+    file.writeShort(thisClass);
+    file.writeShort(superClass);
+    file.writeShort(1);
+    file.writeShort(iface);
+    members.writeTo(file);
+    file.flush();
+    return bytes.toByteArray();
+  }
+
+  private static @NonNull String internalName(final @NonNull Class<?> type) {
+    return type.getName().replace('.', '/');
+  }
+
+  private static @NonNull String descriptor(final @NonNull Class<?> type) {
+    if(type == boolean.class) {
+      return "Z";
+    } else if(type == byte.class) {
+      return "B";
+    } else if(type == char.class) {
+      return "C";
+    } else if(type == short.class) {
+      return "S";
+    } else if(type == int.class) {
+      return "I";
+    } else if(type == long.class) {
+      return "J";
+    } else if(type == float.class) {
+      return "F";
+    } else if(type == double.class) {
+      return "D";
+    } else if(type.isArray()) {
+      return internalName(type);
+    }
+    return 'L' + internalName(type) + ';';
+  }
+
+  private static @NonNull Class<?> box(final @NonNull Class<?> type) {
+    if(type == boolean.class) {
+      return Boolean.class;
+    } else if(type == byte.class) {
+      return Byte.class;
+    } else if(type == char.class) {
+      return Character.class;
+    } else if(type == short.class) {
+      return Short.class;
+    } else if(type == int.class) {
+      return Integer.class;
+    } else if(type == long.class) {
+      return Long.class;
+    } else if(type == float.class) {
+      return Float.class;
+    }
+    return Double.class;
+  }
+
+  // the descriptor of the StringBuilder#append overload for a field
+  private static @NonNull String appended(final @NonNull Class<?> type) {
+    if(type == byte.class || type == short.class) {
+      return "I";
+    } else if(type.isPrimitive()) {
+      return descriptor(type);
+    }
+    return "Ljava/lang/Object;";
+  }
+
+  private static int returnOp(final @NonNull Class<?> type) {
+    if(type == long.class) {
+      return 0xad; // lreturn
+    } else if(type == float.class) {
+      return 0xae; // freturn
+    } else if(type == double.class) {
+      return 0xaf; // dreturn
+    } else if(type.isPrimitive()) {
+      return 0xac; // ireturn
+    }
+    return 0xb0; // areturn
+  }
+
+  /**
+   * The constant pool of a class file, which deduplicates its entries.
+   */
+  private static final class ConstantPool {
+    private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    private final DataOutputStream out = new DataOutputStream(this.bytes);
+    private final Map<String, Integer> indices = new HashMap<>();
+    private int count = 1;
+
+    int utf8(final @NonNull String value) throws IOException {
+      final Integer index = this.indices.get("U" + value);
+      if(index != null) {
+        return index;
+      }
+      this.out.writeByte(1);
+      this.out.writeUTF(value);
+      return this.add("U" + value);
+    }
+
+    int type(final @NonNull String name) throws IOException {
+      return this.reference("C" + name, 7, this.utf8(name));
+    }
+
+    int string(final @NonNull String value) throws IOException {
+      return this.reference("S" + value, 8, this.utf8(value));
+    }
+
+    int field(final @NonNull String owner, final @NonNull String name, final @NonNull String descriptor) throws IOException {
+      return this.reference("F" + owner + '.' + name + ':' + descriptor, 9, this.type(owner), this.nameAndType(name, descriptor));
+    }
+
+    int method(final @NonNull String owner, final @NonNull String name, final @NonNull String descriptor) throws IOException {
+      return this.reference("M" + owner + '.' + name + descriptor, 10, this.type(owner), this.nameAndType(name, descriptor));
+    }
+
+    private int nameAndType(final @NonNull String name, final @NonNull String descriptor) throws IOException {
+      return this.reference("N" + name + ':' + descriptor, 12, this.utf8(name), this.utf8(descriptor));
+    }
+
+    private int reference(final @NonNull String key, final int tag, final int... references) throws IOException {
+      final Integer index = this.indices.get(key);
+      if(index != null) {
+        return index;
+      }
+      this.out.writeByte(tag);
+      for(final int reference : references) {
+        this.out.writeShort(reference);
+      }
+      return this.add(key);
+    }
+
+    private int add(final @NonNull String key) {
+      final int index = this.count++;
+      if(index > 0xffff) {
+        throw new IllegalArgumentException("Too many constants");
+      }
+      this.indices.put(key, index);
+      return index;
+    }
+
+    void write(final @NonNull DataOutputStream file) throws IOException {
+      file.writeShort(this.count);
+      this.bytes.writeTo(file);
+    }
+  }
+
+  /**
+   * The code of a method.
+   */
+  private static final class Code {
+    private final ConstantPool pool;
+    private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+    Code(final @NonNull ConstantPool pool) {
+      this.pool = pool;
+    }
+
+    @NonNull Code op(final int opcode) {
+      this.bytes.write(opcode);
+      return this;
+    }
+
+    @NonNull Code u2(final int value) {
+      this.bytes.write(value >>> 8);
+      this.bytes.write(value);
+      return this;
+    }
+
+    void push(final int value) {
+      if(value <= 5) {
+        this.op(0x03 + value); // iconst_<n>
+      } else if(value <= Byte.MAX_VALUE) {
+        this.op(0x10).op(value); // bipush
+      } else {
+        this.op(0x11).u2(value); // sipush
+      }
+    }
+
+    void ldc(final int index) {
+      if(index <= 0xff) {
+        this.op(0x12).op(index); // ldc
+      } else {
+        this.op(0x13).u2(index); // ldc_w
+      }
+    }
+
+    void write(final @NonNull DataOutputStream out, final int access, final @NonNull String name, final @NonNull String descriptor, final int maxStack, final int maxLocals) throws IOException {
+      out.writeShort(access);
+      out.writeShort(this.pool.utf8(name));
+      out.writeShort(this.pool.utf8(descriptor));
+      out.writeShort(1);
+      out.writeShort(this.pool.utf8("Code"));
+      out.writeInt(12 + this.bytes.size());
+      out.writeShort(maxStack);
+      out.writeShort(maxLocals);
+      out.writeInt(this.bytes.size());
+      this.bytes.writeTo(out);
+      out.writeShort(0); // exception table
+      out.writeShort(0); // attributes
+    }
+  }
+}
@@ -23,8 +23,10 @@
  */
 package net.kyori.peppermint;
 
+import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
 import com.google.gson.JsonSyntaxException;
 import org.checkerframework.checker.nullness.qual.NonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
@@ -41,7 +43,8 @@ public interface Json {
    * @return {@code true} if the element {@code name} in {@code json} is non-null, {@code false} otherwise
    */
   static boolean hasNonNull(final @NonNull JsonObject json, final @NonNull String name) {
-    return json.has(name) && !json.get(name).isJsonNull();
+    final JsonElement element = json.get(name);
+    return element != null && !element.isJsonNull();
   }
 
   /**
@@ -52,7 +55,8 @@ public interface Json {
    * @return {@code true} if the element {@code name} in {@code json} is an array, {@code false} otherwise
    */
   static boolean isArray(final @NonNull JsonObject json, final @NonNull String name) {
-    return json.has(name) && json.get(name).isJsonArray();
+    final JsonElement element = json.get(name);
+    return element != null && element.isJsonArray();
   }
 
   /**
@@ -63,7 +67,8 @@ public interface Json {
    * @return {@code true} if the element {@code name} in {@code json} is an object, {@code false} otherwise
    */
   static boolean isObject(final @NonNull JsonObject json, final @NonNull String name) {
-    return json.has(name) && json.get(name).isJsonObject();
+    final JsonElement element = json.get(name);
+    return element != null && element.isJsonObject();
   }
 
   /**
@@ -84,7 +89,8 @@ public interface Json {
    * @return {@code true} if the element {@code name} in {@code json} is a primitive, {@code false} otherwise
    */
   static boolean isPrimitive(final @NonNull JsonObject json, final @NonNull String name) {
-    return json.has(name) && json.get(name).isJsonPrimitive();
+    final JsonElement element = json.get(name);
+    return element != null && element.isJsonPrimitive();
   }
 
   /**
@@ -105,7 +111,8 @@ public interface Json {
    * @return {@code true} if the element {@code name} in {@code json} is a number, {@code false} otherwise
    */
   static boolean isNumber(final @NonNull JsonObject json, final @NonNull String name) {
-    return isPrimitive(json, name) && json.getAsJsonPrimitive(name).isNumber();
+    final JsonElement element = json.get(name);
+    return element != null && isNumber(element);
   }
 
   /*
@@ -120,7 +127,8 @@ public interface Json {
    * @return {@code true} if the element {@code name} in {@code json} is a boolean, {@code false} otherwise
    */
   static boolean isBoolean(final @NonNull JsonObject json, final @NonNull String name) {
-    return isPrimitive(json, name) && json.getAsJsonPrimitive(name).isBoolean();
+    final JsonElement element = json.get(name);
+    return element != null && element.isJsonPrimitive() && element.getAsJsonPrimitive().isBoolean();
   }
 
   /**
@@ -134,6 +142,7 @@ public interface Json {
     if(json.isJsonPrimitive()) {
       return json.getAsBoolean();
     }
+    Metrics.mismatch(name);
     throw new JsonSyntaxException("Expected " + name + " to be a boolean");
   }
 
@@ -145,9 +154,11 @@ public interface Json {
    * @return a boolean
    */
   static boolean needBoolean(final @NonNull JsonObject json, final @NonNull String name) {
-    if(json.has(name)) {
-      return needBoolean(json.get(name), name);
+    final JsonElement element = json.get(name);
+    if(element != null) {
+      return needBoolean(element, name);
     }
+    Metrics.missing(name);
     throw new JsonSyntaxException("Missing " + name + ", expected to find a boolean");
   }
 
@@ -160,7 +171,68 @@ public interface Json {
    * @return a boolean
    */
   static boolean getBoolean(final @NonNull JsonObject json, final @NonNull String name, final boolean defaultValue) {
-    return json.has(name) ? needBoolean(json.get(name), name) : defaultValue;
+    final JsonElement element = json.get(name);
+    return element != null ? needBoolean(element, name) : defaultValue;
+  }
+
+  /**
+   * Tries to get the element {@code name} in {@code json} as a boolean, without throwing
+   * an exception if it is missing or cannot be converted.
+   *
+   * @param json the json
+   * @param name the name
+   * @param result an array whose first element is set to the boolean, if present
+   * @return {@code true} if the element {@code name} in {@code json} is a boolean, {@code false} otherwise
+   */
+  static boolean tryBoolean(final @NonNull JsonObject json, final @NonNull String name, final boolean @NonNull [] result) {
+    final JsonElement element = json.get(name);
+    if(element != null && element.isJsonPrimitive()) {
+      result[0] = element.getAsBoolean();
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * Gets the element {@code name} in {@code json} as a boolean, recording an error in {@code errors} instead of throwing an exception.
+   *
+   * @param json the json
+   * @param name the name
+   * @param errors the errors
+   * @return a boolean, or {@code false} if an error was recorded
+   */
+  static boolean needBoolean(final @NonNull JsonObject json, final @NonNull String name, final @NonNull JsonErrors errors) {
+    final JsonElement element = json.get(name);
+    if(element == null) {
+      errors.missing(name, "a boolean");
+      return false;
+    }
+    if(element.isJsonPrimitive()) {
+      return element.getAsBoolean();
+    }
+    errors.expected(name, "a boolean");
+    return false;
+  }
+
+  /**
+   * Gets the element {@code name} in {@code json} as a boolean, recording an error in {@code errors} instead of throwing an exception.
+   *
+   * @param json the json
+   * @param name the name
+   * @param defaultValue the default value
+   * @param errors the errors
+   * @return a boolean, or {@code defaultValue} if the element is missing or an error was recorded
+   */
+  static boolean getBoolean(final @NonNull JsonObject json, final @NonNull String name, final boolean defaultValue, final @NonNull JsonErrors errors) {
+    final JsonElement element = json.get(name);
+    if(element == null) {
+      return defaultValue;
+    }
+    if(element.isJsonPrimitive()) {
+      return element.getAsBoolean();
+    }
+    errors.expected(name, "a boolean");
+    return defaultValue;
   }
 
   /*
@@ -176,8 +248,15 @@ public interface Json {
    */
   static byte needByte(final @NonNull JsonElement json, final @NonNull String name) {
     if(isPrimitive(json)) {
-      return json.getAsByte();
+      try {
+        return json.getAsByte();
+      } catch(final NumberFormatException e) {
+        // a string which is not a number is as much a mismatch as an element which is not a primitive
+        Metrics.mismatch(name);
+        throw e;
+      }
     }
+    Metrics.mismatch(name);
     throw new JsonSyntaxException("Expected " + name + " to be a byte");
   }
 
@@ -189,9 +268,11 @@ public interface Json {
    * @return a byte
    */
   static byte needByte(final @NonNull JsonObject json, final @NonNull String name) {
-    if(json.has(name)) {
-      return needByte(json.get(name), name);
+    final JsonElement element = json.get(name);
+    if(element != null) {
+      return needByte(element, name);
     }
+    Metrics.missing(name);
     throw new JsonSyntaxException("Missing " + name + ", expected to find a byte");
   }
 
@@ -204,7 +285,78 @@ public interface Json {
    * @return a byte
    */
   static byte getByte(final @NonNull JsonObject json, final @NonNull String name, final byte defaultValue) {
-    return json.has(name) ? needByte(json.get(name), name) : defaultValue;
+    final JsonElement element = json.get(name);
+    return element != null ? needByte(element, name) : defaultValue;
+  }
+
+  /**
+   * Tries to get the element {@code name} in {@code json} as a byte, without throwing
+   * an exception if it is missing or cannot be converted.
+   *
+   * @param json the json
+   * @param name the name
+   * @param result an array whose first element is set to the byte, if present
+   * @return {@code true} if the element {@code name} in {@code json} is a byte, {@code false} otherwise
+   */
+  static boolean tryByte(final @NonNull JsonObject json, final @NonNull String name, final byte @NonNull [] result) {
+    final JsonElement element = json.get(name);
+    if(element == null || !element.isJsonPrimitive()) {
+      return false;
+    }
+    final JsonPrimitive primitive = element.getAsJsonPrimitive();
+    if(primitive.isNumber() || (primitive.isString() && Numbers.isInteger(primitive.getAsString(), Byte.MIN_VALUE, Byte.MAX_VALUE))) {
+      result[0] = primitive.getAsByte();
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * Gets the element {@code name} in {@code json} as a byte, recording an error in {@code errors} instead of throwing an exception.
+   *
+   * @param json the json
+   * @param name the name
+   * @param errors the errors
+   * @return a byte, or {@code 0} if an error was recorded
+   */
+  static byte needByte(final @NonNull JsonObject json, final @NonNull String name, final @NonNull JsonErrors errors) {
+    final JsonElement element = json.get(name);
+    if(element == null) {
+      errors.missing(name, "a byte");
+      return 0;
+    }
+    if(element.isJsonPrimitive()) {
+      final JsonPrimitive primitive = element.getAsJsonPrimitive();
+      if(primitive.isNumber() || (primitive.isString() && Numbers.isInteger(primitive.getAsString(), Byte.MIN_VALUE, Byte.MAX_VALUE))) {
+        return primitive.getAsByte();
+      }
+    }
+    errors.expected(name, "a byte");
+    return 0;
+  }
+
+  /**
+   * Gets the element {@code name} in {@code json} as a byte, recording an error in {@code errors} instead of throwing an exception.
+   *
+   * @param json the json
+   * @param name the name
+   * @param defaultValue the default value
+   * @param errors the errors
+   * @return a byte, or {@code defaultValue} if the element is missing or an error was recorded
+   */
+  static byte getByte(final @NonNull JsonObject json, final @NonNull String name, final byte defaultValue, final @NonNull JsonErrors errors) {
+    final JsonElement element = json.get(name);
+    if(element == null) {
+      return defaultValue;
+    }
+    if(element.isJsonPrimitive()) {
+      final JsonPrimitive primitive = element.getAsJsonPrimitive();
+      if(primitive.isNumber() || (primitive.isString() && Numbers.isInteger(primitive.getAsString(), Byte.MIN_VALUE, Byte.MAX_VALUE))) {
+        return primitive.getAsByte();
+      }
+    }
+    errors.expected(name, "a byte");
+    return defaultValue;
   }
 
   /*
@@ -220,8 +372,14 @@ public interface Json {
    */
   static double needDouble(final @NonNull JsonElement json, final @NonNull String name) {
     if(isPrimitive(json)) {
-      return json.getAsDouble();
+      try {
+        return json.getAsDouble();
+      } catch(final NumberFormatException e) {
+        Metrics.mismatch(name);
+        throw e;
+      }
     }
+    Metrics.mismatch(name);
     throw new JsonSyntaxException("Expected " + name + " to be a double");
   }
 
@@ -233,9 +391,11 @@ public interface Json {
    * @return a double
    */
   static double needDouble(final @NonNull JsonObject json, final @NonNull String name) {
-    if(json.has(name)) {
-      return needDouble(json.get(name), name);
+    final JsonElement element = json.get(name);
+    if(element != null) {
+      return needDouble(element, name);
     }
+    Metrics.missing(name);
     throw new JsonSyntaxException("Missing " + name + ", expected to find a double");
   }
 
@@ -248,7 +408,78 @@ public interface Json {
    * @return a double
    */
   static double getDouble(final @NonNull JsonObject json, final @NonNull String name, final double defaultValue) {
-    return json.has(name) ? needDouble(json.get(name), name) : defaultValue;
+    final JsonElement element = json.get(name);
+    return element != null ? needDouble(element, name) : defaultValue;
+  }
+
+  /**
+   * Tries to get the element {@code name} in {@code json} as a double, without throwing
+   * an exception if it is missing or cannot be converted.
+   *
+   * @param json the json
+   * @param name the name
+   * @param result an array whose first element is set to the double, if present
+   * @return {@code true} if the element {@code name} in {@code json} is a double, {@code false} otherwise
+   */
+  static boolean tryDouble(final @NonNull JsonObject json, final @NonNull String name, final double @NonNull [] result) {
+    final JsonElement element = json.get(name);
+    if(element == null || !element.isJsonPrimitive()) {
+      return false;
+    }
+    final JsonPrimitive primitive = element.getAsJsonPrimitive();
+    if(primitive.isNumber() || (primitive.isString() && Numbers.isDecimal(primitive.getAsString()))) {
+      result[0] = primitive.getAsDouble();
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * Gets the element {@code name} in {@code json} as a double, recording an error in {@code errors} instead of throwing an exception.
+   *
+   * @param json the json
+   * @param name the name
+   * @param errors the errors
+   * @return a double, or {@code 0} if an error was recorded
+   */
+  static double needDouble(final @NonNull JsonObject json, final @NonNull String name, final @NonNull JsonErrors errors) {
+    final JsonElement element = json.get(name);
+    if(element == null) {
+      errors.missing(name, "a double");
+      return 0;
+    }
+    if(element.isJsonPrimitive()) {
+      final JsonPrimitive primitive = element.getAsJsonPrimitive();
+      if(primitive.isNumber() || (primitive.isString() && Numbers.isDecimal(primitive.getAsString()))) {
+        return primitive.getAsDouble();
+      }
+    }
+    errors.expected(name, "a double");
+    return 0;
+  }
+
+  /**
+   * Gets the element {@code name} in {@code json} as a double, recording an error in {@code errors} instead of throwing an exception.
+   *
+   * @param json the json
+   * @param name the name
+   * @param defaultValue the default value
+   * @param errors the errors
+   * @return a double, or {@code defaultValue} if the element is missing or an error was recorded
+   */
+  static double getDouble(final @NonNull JsonObject json, final @NonNull String name, final double defaultValue, final @NonNull JsonErrors errors) {
+    final JsonElement element = json.get(name);
+    if(element == null) {
+      return defaultValue;
+    }
+    if(element.isJsonPrimitive()) {
+      final JsonPrimitive primitive = element.getAsJsonPrimitive();
+      if(primitive.isNumber() || (primitive.isString() && Numbers.isDecimal(primitive.getAsString()))) {
+        return primitive.getAsDouble();
+      }
+    }
+    errors.expected(name, "a double");
+    return defaultValue;
   }
 
   /*
@@ -264,8 +495,14 @@ public interface Json {
    */
   static float needFloat(final @NonNull JsonElement json, final @NonNull String name) {
     if(isPrimitive(json)) {
-      return json.getAsFloat();
+      try {
+        return json.getAsFloat();
+      } catch(final NumberFormatException e) {
+        Metrics.mismatch(name);
+        throw e;
+      }
     }
+    Metrics.mismatch(name);
     throw new JsonSyntaxException("Expected " + name + " to be a float");
   }
 
@@ -277,9 +514,11 @@ public interface Json {
    * @return a float
    */
   static float needFloat(final @NonNull JsonObject json, final @NonNull String name) {
-    if(json.has(name)) {
-      return needFloat(json.get(name), name);
+    final JsonElement element = json.get(name);
+    if(element != null) {
+      return needFloat(element, name);
     }
+    Metrics.missing(name);
     throw new JsonSyntaxException("Missing " + name + ", expected to find a float");
   }
 
@@ -292,7 +531,78 @@ public interface Json {
    * @return a float
    */
   static float getFloat(final @NonNull JsonObject json, final @NonNull String name, final float defaultValue) {
-    return json.has(name) ? needFloat(json.get(name), name) : defaultValue;
+    final JsonElement element = json.get(name);
+    return element != null ? needFloat(element, name) : defaultValue;
+  }
+
+  /**
+   * Tries to get the element {@code name} in {@code json} as a float, without throwing
+   * an exception if it is missing or cannot be converted.
+   *
+   * @param json the json
+   * @param name the name
+   * @param result an array whose first element is set to the float, if present
+   * @return {@code true} if the element {@code name} in {@code json} is a float, {@code false} otherwise
+   */
+  static boolean tryFloat(final @NonNull JsonObject json, final @NonNull String name, final float @NonNull [] result) {
+    final JsonElement element = json.get(name);
+    if(element == null || !element.isJsonPrimitive()) {
+      return false;
+    }
+    final JsonPrimitive primitive = element.getAsJsonPrimitive();
+    if(primitive.isNumber() || (primitive.isString() && Numbers.isDecimal(primitive.getAsString()))) {
+      result[0] = primitive.getAsFloat();
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * Gets the element {@code name} in {@code json} as a float, recording an error in {@code errors} instead of throwing an exception.
+   *
+   * @param json the json
+   * @param name the name
+   * @param errors the errors
+   * @return a float, or {@code 0} if an error was recorded
+   */
+  static float needFloat(final @NonNull JsonObject json, final @NonNull String name, final @NonNull JsonErrors errors) {
+    final JsonElement element = json.get(name);
+    if(element == null) {
+      errors.missing(name, "a float");
+      return 0;
+    }
+    if(element.isJsonPrimitive()) {
+      final JsonPrimitive primitive = element.getAsJsonPrimitive();
+      if(primitive.isNumber() || (primitive.isString() && Numbers.isDecimal(primitive.getAsString()))) {
+        return primitive.getAsFloat();
+      }
+    }
+    errors.expected(name, "a float");
+    return 0;
+  }
+
+  /**
+   * Gets the element {@code name} in {@code json} as a float, recording an error in {@code errors} instead of throwing an exception.
+   *
+   * @param json the json
+   * @param name the name
+   * @param defaultValue the default value
+   * @param errors the errors
+   * @return a float, or {@code defaultValue} if the element is missing or an error was recorded
+   */
+  static float getFloat(final @NonNull JsonObject json, final @NonNull String name, final float defaultValue, final @NonNull JsonErrors errors) {
+    final JsonElement element = json.get(name);
+    if(element == null) {
+      return defaultValue;
+    }
+    if(element.isJsonPrimitive()) {
+      final JsonPrimitive primitive = element.getAsJsonPrimitive();
+      if(primitive.isNumber() || (primitive.isString() && Numbers.isDecimal(primitive.getAsString()))) {
+        return primitive.getAsFloat();
+      }
+    }
+    errors.expected(name, "a float");
+    return defaultValue;
   }
 
   /*
@@ -308,8 +618,14 @@ public interface Json {
    */
   static int needInt(final @NonNull JsonElement json, final @NonNull String name) {
     if(isPrimitive(json)) {
-      return json.getAsInt();
+      try {
+        return json.getAsInt();
+      } catch(final NumberFormatException e) {
+        Metrics.mismatch(name);
+        throw e;
+      }
     }
+    Metrics.mismatch(name);
     throw new JsonSyntaxException("Expected " + name + " to be an int");
   }
 
@@ -321,9 +637,11 @@ public interface Json {
    * @return an int
    */
   static int needInt(final @NonNull JsonObject json, final @NonNull String name) {
-    if(json.has(name)) {
-      return needInt(json.get(name), name);
+    final JsonElement element = json.get(name);
+    if(element != null) {
+      return needInt(element, name);
     }
+    Metrics.missing(name);
     throw new JsonSyntaxException("Missing " + name + ", expected to find an int");
   }
 
@@ -336,7 +654,78 @@ public interface Json {
    * @return an int
    */
   static int getInt(final @NonNull JsonObject json, final @NonNull String name, final int defaultValue) {
-    return json.has(name) ? needInt(json.get(name), name) : defaultValue;
+    final JsonElement element = json.get(name);
+    return element != null ? needInt(element, name) : defaultValue;
+  }
+
+  /**
+   * Tries to get the element {@code name} in {@code json} as an int, without throwing
+   * an exception if it is missing or cannot be converted.
+   *
+   * @param json the json
+   * @param name the name
+   * @param result an array whose first element is set to the int, if present
+   * @return {@code true} if the element {@code name} in {@code json} is an int, {@code false} otherwise
+   */
+  static boolean tryInt(final @NonNull JsonObject json, final @NonNull String name, final int @NonNull [] result) {
+    final JsonElement element = json.get(name);
+    if(element == null || !element.isJsonPrimitive()) {
+      return false;
+    }
+    final JsonPrimitive primitive = element.getAsJsonPrimitive();
+    if(primitive.isNumber() || (primitive.isString() && Numbers.isInteger(primitive.getAsString(), Integer.MIN_VALUE, Integer.MAX_VALUE))) {
+      result[0] = primitive.getAsInt();
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * Gets the element {@code name} in {@code json} as an int, recording an error in {@code errors} instead of throwing an exception.
+   *
+   * @param json the json
+   * @param name the name
+   * @param errors the errors
+   * @return an int, or {@code 0} if an error was recorded
+   */
+  static int needInt(final @NonNull JsonObject json, final @NonNull String name, final @NonNull JsonErrors errors) {
+    final JsonElement element = json.get(name);
+    if(element == null) {
+      errors.missing(name, "an int");
+      return 0;
+    }
+    if(element.isJsonPrimitive()) {
+      final JsonPrimitive primitive = element.getAsJsonPrimitive();
+      if(primitive.isNumber() || (primitive.isString() && Numbers.isInteger(primitive.getAsString(), Integer.MIN_VALUE, Integer.MAX_VALUE))) {
+        return primitive.getAsInt();
+      }
+    }
+    errors.expected(name, "an int");
+    return 0;
+  }
+
+  /**
+   * Gets the element {@code name} in {@code json} as an int, recording an error in {@code errors} instead of throwing an exception.
+   *
+   * @param json the json
+   * @param name the name
+   * @param defaultValue the default value
+   * @param errors the errors
+   * @return an int, or {@code defaultValue} if the element is missing or an error was recorded
+   */
+  static int getInt(final @NonNull JsonObject json, final @NonNull String name, final int defaultValue, final @NonNull JsonErrors errors) {
+    final JsonElement element = json.get(name);
+    if(element == null) {
+      return defaultValue;
+    }
+    if(element.isJsonPrimitive()) {
+      final JsonPrimitive primitive = element.getAsJsonPrimitive();
+      if(primitive.isNumber() || (primitive.isString() && Numbers.isInteger(primitive.getAsString(), Integer.MIN_VALUE, Integer.MAX_VALUE))) {
+        return primitive.getAsInt();
+      }
+    }
+    errors.expected(name, "an int");
+    return defaultValue;
   }
 
   /*
@@ -352,8 +741,14 @@ public interface Json {
    */
   static long needLong(final @NonNull JsonElement json, final @NonNull String name) {
     if(isPrimitive(json)) {
-      return json.getAsLong();
+      try {
+        return json.getAsLong();
+      } catch(final NumberFormatException e) {
+        Metrics.mismatch(name);
+        throw e;
+      }
     }
+    Metrics.mismatch(name);
     throw new JsonSyntaxException("Expected " + name + " to be a long");
   }
 
@@ -365,9 +760,11 @@ public interface Json {
    * @return a long
    */
   static long needLong(final @NonNull JsonObject json, final @NonNull String name) {
-    if(json.has(name)) {
-      return needLong(json.get(name), name);
+    final JsonElement element = json.get(name);
+    if(element != null) {
+      return needLong(element, name);
     }
+    Metrics.missing(name);
     throw new JsonSyntaxException("Missing " + name + ", expected to find a long");
   }
 
@@ -380,7 +777,78 @@ public interface Json {
    * @return a long
    */
   static long getLong(final @NonNull JsonObject json, final @NonNull String name, final long defaultValue) {
-    return json.has(name) ? needLong(json.get(name), name) : defaultValue;
+    final JsonElement element = json.get(name);
+    return element != null ? needLong(element, name) : defaultValue;
+  }
+
+  /**
+   * Tries to get the element {@code name} in {@code json} as a long, without throwing
+   * an exception if it is missing or cannot be converted.
+   *
+   * @param json the json
+   * @param name the name
+   * @param result an array whose first element is set to the long, if present
+   * @return {@code true} if the element {@code name} in {@code json} is a long, {@code false} otherwise
+   */
+  static boolean tryLong(final @NonNull JsonObject json, final @NonNull String name, final long @NonNull [] result) {
+    final JsonElement element = json.get(name);
+    if(element == null || !element.isJsonPrimitive()) {
+      return false;
+    }
+    final JsonPrimitive primitive = element.getAsJsonPrimitive();
+    if(primitive.isNumber() || (primitive.isString() && Numbers.isInteger(primitive.getAsString(), Long.MIN_VALUE, Long.MAX_VALUE))) {
+      result[0] = primitive.getAsLong();
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * Gets the element {@code name} in {@code json} as a long, recording an error in {@code errors} instead of throwing an exception.
+   *
+   * @param json the json
+   * @param name the name
+   * @param errors the errors
+   * @return a long, or {@code 0} if an error was recorded
+   */
+  static long needLong(final @NonNull JsonObject json, final @NonNull String name, final @NonNull JsonErrors errors) {
+    final JsonElement element = json.get(name);
+    if(element == null) {
+      errors.missing(name, "a long");
+      return 0;
+    }
+    if(element.isJsonPrimitive()) {
+      final JsonPrimitive primitive = element.getAsJsonPrimitive();
+      if(primitive.isNumber() || (primitive.isString() && Numbers.isInteger(primitive.getAsString(), Long.MIN_VALUE, Long.MAX_VALUE))) {
+        return primitive.getAsLong();
+      }
+    }
+    errors.expected(name, "a long");
+    return 0;
+  }
+
+  /**
+   * Gets the element {@code name} in {@code json} as a long, recording an error in {@code errors} instead of throwing an exception.
+   *
+   * @param json the json
+   * @param name the name
+   * @param defaultValue the default value
+   * @param errors the errors
+   * @return a long, or {@code defaultValue} if the element is missing or an error was recorded
+   */
+  static long getLong(final @NonNull JsonObject json, final @NonNull String name, final long defaultValue, final @NonNull JsonErrors errors) {
+    final JsonElement element = json.get(name);
+    if(element == null) {
+      return defaultValue;
+    }
+    if(element.isJsonPrimitive()) {
+      final JsonPrimitive primitive = element.getAsJsonPrimitive();
+      if(primitive.isNumber() || (primitive.isString() && Numbers.isInteger(primitive.getAsString(), Long.MIN_VALUE, Long.MAX_VALUE))) {
+        return primitive.getAsLong();
+      }
+    }
+    errors.expected(name, "a long");
+    return defaultValue;
   }
 
   /*
@@ -395,7 +863,8 @@ public interface Json {
    * @return {@code true} if the element {@code name} in {@code json} is a string, {@code false} otherwise
    */
   static boolean isString(final @NonNull JsonObject json, final @NonNull String name) {
-    return isPrimitive(json, name) && json.getAsJsonPrimitive(name).isString();
+    final JsonElement element = json.get(name);
+    return element != null && element.isJsonPrimitive() && element.getAsJsonPrimitive().isString();
   }
 
   /**
@@ -409,6 +878,7 @@ public interface Json {
     if(json.isJsonPrimitive()) {
       return json.getAsString();
     }
+    Metrics.mismatch(name);
     throw new JsonSyntaxException("Expected " + name + " to be a string");
   }
 
@@ -420,9 +890,11 @@ public interface Json {
    * @return a string
    */
   static @NonNull String needString(final @NonNull JsonObject json, final @NonNull String name) {
-    if(json.has(name)) {
-      return needString(json.get(name), name);
+    final JsonElement element = json.get(name);
+    if(element != null) {
+      return needString(element, name);
     }
+    Metrics.missing(name);
     throw new JsonSyntaxException("Missing " + name + ", expected to find a string");
   }
 
@@ -435,6 +907,255 @@ public interface Json {
    * @return a string
    */
   static /* @Nullable */ String getString(final @NonNull JsonObject json, final @NonNull String name, final @Nullable String defaultValue) {
-    return hasNonNull(json, name) ? needString(json.get(name), name) : defaultValue;
+    final JsonElement element = json.get(name);
+    return element != null && !element.isJsonNull() ? needString(element, name) : defaultValue;
+  }
+
+  /**
+   * Tries to get the element {@code name} in {@code json} as a string, without throwing
+   * an exception if it is missing or cannot be converted.
+   *
+   * @param json the json
+   * @param name the name
+   * @param result an array whose first element is set to the string, if present
+   * @return {@code true} if the element {@code name} in {@code json} is a string, {@code false} otherwise
+   */
+  static boolean tryString(final @NonNull JsonObject json, final @NonNull String name, final @NonNull String @NonNull [] result) {
+    final JsonElement element = json.get(name);
+    if(element != null && element.isJsonPrimitive()) {
+      result[0] = element.getAsString();
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * Gets the element {@code name} in {@code json} as a string, recording an error in {@code errors} instead of throwing an exception.
+   *
+   * @param json the json
+   * @param name the name
+   * @param errors the errors
+   * @return a string, or {@code null} if an error was recorded
+   */
+  static /* @Nullable */ String needString(final @NonNull JsonObject json, final @NonNull String name, final @NonNull JsonErrors errors) {
+    final JsonElement element = json.get(name);
+    if(element == null) {
+      errors.missing(name, "a string");
+      return null;
+    }
+    if(element.isJsonPrimitive()) {
+      return element.getAsString();
+    }
+    errors.expected(name, "a string");
+    return null;
+  }
+
+  /**
+   * Gets the element {@code name} in {@code json} as a string, recording an error in {@code errors} instead of throwing an exception.
+   *
+   * @param json the json
+   * @param name the name
+   * @param defaultValue the default value
+   * @param errors the errors
+   * @return a string, or {@code defaultValue} if the element is missing or an error was recorded
+   */
+  static /* @Nullable */ String getString(final @NonNull JsonObject json, final @NonNull String name, final @Nullable String defaultValue, final @NonNull JsonErrors errors) {
+    final JsonElement element = json.get(name);
+    if(element == null || element.isJsonNull()) {
+      return defaultValue;
+    }
+    if(element.isJsonPrimitive()) {
+      return element.getAsString();
+    }
+    errors.expected(name, "a string");
+    return defaultValue;
+  }
+
+  /*
+   * arrays
+   */
+
+  /**
+   * Gets {@code json} as a double array.
+   *
+   * @param json the json
+   * @param name the name
+   * @return a double array
+   */
+  static double @NonNull [] needDoubleArray(final @NonNull JsonElement json, final @NonNull String name) {
+    if(json.isJsonArray()) {
+      final JsonArray array = json.getAsJsonArray();
+      final double[] result = new double[array.size()];
+      for(int i = 0; i < result.length; i++) {
+        final JsonElement element = array.get(i);
+        if(!element.isJsonPrimitive()) {
+          Metrics.mismatch(name);
+          throw new JsonSyntaxException("Expected " + name + "[" + i + "] to be a double");
+        }
+        try {
+          result[i] = element.getAsDouble();
+        } catch(final NumberFormatException e) {
+          Metrics.mismatch(name);
+          throw new JsonSyntaxException("Expected " + name + "[" + i + "] to be a double", e);
+        }
+      }
+      return result;
+    }
+    Metrics.mismatch(name);
+    throw new JsonSyntaxException("Expected " + name + " to be an array");
+  }
+
+  /**
+   * Gets the element {@code name} in {@code json} as a double array.
+   *
+   * @param json the json
+   * @param name the name
+   * @return a double array
+   */
+  static double @NonNull [] needDoubleArray(final @NonNull JsonObject json, final @NonNull String name) {
+    final JsonElement element = json.get(name);
+    if(element != null) {
+      return needDoubleArray(element, name);
+    }
+    Metrics.missing(name);
+    throw new JsonSyntaxException("Missing " + name + ", expected to find an array");
+  }
+
+  /**
+   * Gets {@code json} as a float array.
+   *
+   * @param json the json
+   * @param name the name
+   * @return a float array
+   */
+  static float @NonNull [] needFloatArray(final @NonNull JsonElement json, final @NonNull String name) {
+    if(json.isJsonArray()) {
+      final JsonArray array = json.getAsJsonArray();
+      final float[] result = new float[array.size()];
+      for(int i = 0; i < result.length; i++) {
+        final JsonElement element = array.get(i);
+        if(!element.isJsonPrimitive()) {
+          Metrics.mismatch(name);
+          throw new JsonSyntaxException("Expected " + name + "[" + i + "] to be a float");
+        }
+        try {
+          result[i] = element.getAsFloat();
+        } catch(final NumberFormatException e) {
+          Metrics.mismatch(name);
+          throw new JsonSyntaxException("Expected " + name + "[" + i + "] to be a float", e);
+        }
+      }
+      return result;
+    }
+    Metrics.mismatch(name);
+    throw new JsonSyntaxException("Expected " + name + " to be an array");
+  }
+
+  /**
+   * Gets the element {@code name} in {@code json} as a float array.
+   *
+   * @param json the json
+   * @param name the name
+   * @return a float array
+   */
+  static float @NonNull [] needFloatArray(final @NonNull JsonObject json, final @NonNull String name) {
+    final JsonElement element = json.get(name);
+    if(element != null) {
+      return needFloatArray(element, name);
+    }
+    Metrics.missing(name);
+    throw new JsonSyntaxException("Missing " + name + ", expected to find an array");
+  }
+
+  /**
+   * Gets {@code json} as an int array.
+   *
+   * @param json the json
+   * @param name the name
+   * @return an int array
+   */
+  static int @NonNull [] needIntArray(final @NonNull JsonElement json, final @NonNull String name) {
+    if(json.isJsonArray()) {
+      final JsonArray array = json.getAsJsonArray();
+      final int[] result = new int[array.size()];
+      for(int i = 0; i < result.length; i++) {
+        final JsonElement element = array.get(i);
+        if(!element.isJsonPrimitive()) {
+          Metrics.mismatch(name);
+          throw new JsonSyntaxException("Expected " + name + "[" + i + "] to be an int");
+        }
+        try {
+          result[i] = element.getAsInt();
+        } catch(final NumberFormatException e) {
+          Metrics.mismatch(name);
+          throw new JsonSyntaxException("Expected " + name + "[" + i + "] to be an int", e);
+        }
+      }
+      return result;
+    }
+    Metrics.mismatch(name);
+    throw new JsonSyntaxException("Expected " + name + " to be an array");
+  }
+
+  /**
+   * Gets the element {@code name} in {@code json} as an int array.
+   *
+   * @param json the json
+   * @param name the name
+   * @return an int array
+   */
+  static int @NonNull [] needIntArray(final @NonNull JsonObject json, final @NonNull String name) {
+    final JsonElement element = json.get(name);
+    if(element != null) {
+      return needIntArray(element, name);
+    }
+    Metrics.missing(name);
+    throw new JsonSyntaxException("Missing " + name + ", expected to find an array");
+  }
+
+  /**
+   * Gets {@code json} as a long array.
+   *
+   * @param json the json
+   * @param name the name
+   * @return a long array
+   */
+  static long @NonNull [] needLongArray(final @NonNull JsonElement json, final @NonNull String name) {
+    if(json.isJsonArray()) {
+      final JsonArray array = json.getAsJsonArray();
+      final long[] result = new long[array.size()];
+      for(int i = 0; i < result.length; i++) {
+        final JsonElement element = array.get(i);
+        if(!element.isJsonPrimitive()) {
+          Metrics.mismatch(name);
+          throw new JsonSyntaxException("Expected " + name + "[" + i + "] to be a long");
+        }
+        try {
+          result[i] = element.getAsLong();
+        } catch(final NumberFormatException e) {
+          Metrics.mismatch(name);
+          throw new JsonSyntaxException("Expected " + name + "[" + i + "] to be a long", e);
+        }
+      }
+      return result;
+    }
+    Metrics.mismatch(name);
+    throw new JsonSyntaxException("Expected " + name + " to be an array");
+  }
+
+  /**
+   * Gets the element {@code name} in {@code json} as a long array.
+   *
+   * @param json the json
+   * @param name the name
+   * @return a long array
+   */
+  static long @NonNull [] needLongArray(final @NonNull JsonObject json, final @NonNull String name) {
+    final JsonElement element = json.get(name);
+    if(element != null) {
+      return needLongArray(element, name);
+    }
+    Metrics.missing(name);
+    throw new JsonSyntaxException("Missing " + name + ", expected to find an array");
   }
 }
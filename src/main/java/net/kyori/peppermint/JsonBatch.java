@@ -0,0 +1,106 @@
+/*
+ * This file is part of peppermint, licensed under the MIT License.
+ *
+ * Copyright (c) 2018 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.peppermint;
+
+import com.google.gson.JsonObject;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * The result of reading a batch of JSON files.
+ *
+ * <p>A file which could not be read does not prevent the rest of the batch from being read.</p>
+ *
+ * @see JsonIO#readAll(Collection, Executor)
+ */
+public final class JsonBatch {
+  private final Map<Path, JsonObject> objects;
+  private final Map<Path, Exception> failures;
+
+  private JsonBatch(final @NonNull Map<Path, JsonObject> objects, final @NonNull Map<Path, Exception> failures) {
+    this.objects = Collections.unmodifiableMap(objects);
+    this.failures = Collections.unmodifiableMap(failures);
+  }
+
+  static @NonNull JsonBatch read(final @NonNull Collection<Path> paths, final @NonNull Executor executor) {
+    final Path[] files = paths.toArray(new Path[0]);
+    final Object[] results = new Object[files.length];
+    final CompletableFuture<?>[] futures = new CompletableFuture<?>[files.length];
+    for(int i = 0; i < files.length; i++) {
+      final int index = i;
+      futures[i] = CompletableFuture.runAsync(() -> {
+        try {
+          results[index] = JsonIO.readObject(files[index]);
+        } catch(final Exception e) {
+          results[index] = e;
+        }
+      }, executor);
+    }
+    CompletableFuture.allOf(futures).join();
+    final Map<Path, JsonObject> objects = new LinkedHashMap<>(files.length);
+    final Map<Path, Exception> failures = new LinkedHashMap<>();
+    for(int i = 0; i < files.length; i++) {
+      if(results[i] instanceof JsonObject) {
+        objects.put(files[i], (JsonObject) results[i]);
+      } else {
+        failures.put(files[i], (Exception) results[i]);
+      }
+    }
+    return new JsonBatch(objects, failures);
+  }
+
+  /**
+   * Gets the objects which were read successfully, in the order their paths were provided.
+   *
+   * @return the objects
+   */
+  public @NonNull Map<Path, JsonObject> objects() {
+    return this.objects;
+  }
+
+  /**
+   * Gets the exceptions for the files which could not be read, in the order their paths were provided.
+   *
+   * @return the failures
+   */
+  public @NonNull Map<Path, Exception> failures() {
+    return this.failures;
+  }
+
+  /**
+   * Tests if every file in the batch was read successfully.
+   *
+   * @return {@code true} if every file was read successfully, {@code false} otherwise
+   */
+  public boolean successful() {
+    return this.failures.isEmpty();
+  }
+}
@@ -0,0 +1,256 @@
+/*
+ * This file is part of peppermint, licensed under the MIT License.
+ *
+ * Copyright (c) 2018 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.peppermint;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * A cache of JSON elements read from files.
+ *
+ * <p>An entry is reused for as long as the last modified time and size of its file
+ * are unchanged, so a hit costs a single {@code stat} rather than a parse. Entries are
+ * weighed by the size of their file, and the least recently used entries are evicted
+ * once the total weight exceeds the maximum weight.</p>
+ *
+ * <p>A file rewritten with the same size within the resolution of its file system's
+ * timestamps - a second or more on some file systems - cannot be told apart from the
+ * cached version. A file which may be rewritten so quickly should be
+ * {@link #invalidate(Path) invalidated} by whoever rewrites it.</p>
+ *
+ * <p>Concurrent lookups of a file which is not cached read it once: the first lookup
+ * reads the file, and the others wait for it rather than reading the file again.</p>
+ *
+ * <p>By default, a defensive copy of the cached element is returned from every
+ * lookup. A cache which does not copy is cheaper, but the elements it returns are
+ * shared and must not be modified. Copies are made outside the cache's lock, so
+ * concurrent hits do not wait for each other.</p>
+ */
+public final class JsonCache {
+  private final Map<Path, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+  private final long maximumWeight;
+  private final boolean copy;
+  private long weight;
+  private long hits;
+  private long misses;
+
+  /**
+   * Creates a cache which returns defensive copies.
+   *
+   * @param maximumWeight the maximum total size, in bytes, of the files held by the cache
+   */
+  public JsonCache(final long maximumWeight) {
+    this(maximumWeight, true);
+  }
+
+  /**
+   * Creates a cache.
+   *
+   * @param maximumWeight the maximum total size, in bytes, of the files held by the cache
+   * @param copy {@code true} to return defensive copies, {@code false} to return the cached elements
+   */
+  public JsonCache(final long maximumWeight, final boolean copy) {
+    if(maximumWeight < 0) {
+      throw new IllegalArgumentException("maximumWeight cannot be negative");
+    }
+    this.maximumWeight = maximumWeight;
+    this.copy = copy;
+  }
+
+  /**
+   * Gets the JSON element in {@code path}, reading it if it is not cached or has changed.
+   *
+   * @param path the path
+   * @return the json
+   * @throws IOException if an exception occurred while parsing
+   */
+  public @NonNull JsonElement get(final @NonNull Path path) throws IOException {
+    final Path key = path.toAbsolutePath().normalize();
+    final BasicFileAttributes attributes = Files.readAttributes(key, BasicFileAttributes.class);
+    final FileTime modified = attributes.lastModifiedTime();
+    final long size = attributes.size();
+    final Entry entry;
+    final boolean read;
+    synchronized(this) {
+      final Entry existing = this.entries.get(key);
+      if(existing != null && existing.size == size && existing.modified.equals(modified)) {
+        this.hits++;
+        entry = existing;
+        read = false;
+      } else {
+        this.misses++;
+        entry = new Entry(modified, size);
+        read = true;
+        this.remove(key);
+        // the entry is added before its file is read, so that concurrent lookups wait for this read instead of repeating it
+        if(size <= this.maximumWeight) {
+          this.entries.put(key, entry);
+          this.weight += size;
+          this.evict();
+        }
+      }
+    }
+    if(!read) {
+      return this.result(await(entry.json));
+    }
+    final JsonElement json;
+    try {
+      json = JsonIO.read(key);
+    } catch(final IOException | RuntimeException | Error e) {
+      entry.json.completeExceptionally(e);
+      synchronized(this) {
+        if(this.entries.get(key) == entry) {
+          this.remove(key);
+        }
+      }
+      throw e;
+    }
+    entry.json.complete(json);
+    return this.result(json);
+  }
+
+  // waits for the lookup which is reading a file, rethrowing what it threw
+  private static @NonNull JsonElement await(final @NonNull CompletableFuture<JsonElement> future) throws IOException {
+    try {
+      return future.join();
+    } catch(final CompletionException e) {
+      final Throwable cause = e.getCause();
+      if(cause instanceof IOException) {
+        throw new IOException(cause.getMessage(), cause);
+      } else if(cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      } else if(cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw e;
+    }
+  }
+
+  /**
+   * Gets the JSON object in {@code path}, reading it if it is not cached or has changed.
+   *
+   * @param path the path
+   * @return the json
+   * @throws IOException if an exception occurred while parsing
+   */
+  public @NonNull JsonObject getObject(final @NonNull Path path) throws IOException {
+    return this.get(path).getAsJsonObject();
+  }
+
+  /**
+   * Discards the cached element for {@code path}, if any.
+   *
+   * @param path the path
+   */
+  public synchronized void invalidate(final @NonNull Path path) {
+    this.remove(path.toAbsolutePath().normalize());
+  }
+
+  /**
+   * Discards all cached elements.
+   */
+  public synchronized void invalidateAll() {
+    this.entries.clear();
+    this.weight = 0;
+  }
+
+  /**
+   * Gets the number of cached elements.
+   *
+   * @return the number of cached elements
+   */
+  public synchronized int size() {
+    return this.entries.size();
+  }
+
+  /**
+   * Gets the total size, in bytes, of the files held by the cache.
+   *
+   * @return the total weight
+   */
+  public synchronized long weight() {
+    return this.weight;
+  }
+
+  /**
+   * Gets the number of lookups which were served from the cache.
+   *
+   * @return the number of hits
+   */
+  public synchronized long hits() {
+    return this.hits;
+  }
+
+  /**
+   * Gets the number of lookups which required the file to be read.
+   *
+   * @return the number of misses
+   */
+  public synchronized long misses() {
+    return this.misses;
+  }
+
+  private void remove(final @NonNull Path key) {
+    final Entry entry = this.entries.remove(key);
+    if(entry != null) {
+      this.weight -= entry.size;
+    }
+  }
+
+  private void evict() {
+    final Iterator<Entry> it = this.entries.values().iterator();
+    while(this.weight > this.maximumWeight && it.hasNext()) {
+      this.weight -= it.next().size;
+      it.remove();
+    }
+  }
+
+  private @NonNull JsonElement result(final @NonNull JsonElement json) {
+    return this.copy ? json.deepCopy() : json;
+  }
+
+  private static final class Entry {
+    // completed once the file has been read
+    final CompletableFuture<JsonElement> json = new CompletableFuture<>();
+    final FileTime modified;
+    final long size;
+
+    Entry(final @NonNull FileTime modified, final long size) {
+      this.modified = modified;
+      this.size = size;
+    }
+  }
+}
@@ -0,0 +1,208 @@
+/*
+ * This file is part of peppermint, licensed under the MIT License.
+ *
+ * Copyright (c) 2018 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.peppermint;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * A compression format for JSON files.
+ *
+ * <p>Compressed files are decompressed in a single streaming pass as they are parsed.
+ * Neither format can be confused with JSON text, as neither magic number is a valid
+ * first byte of a JSON document.</p>
+ */
+public enum JsonCompression {
+  /**
+   * No compression.
+   */
+  NONE {
+    @Override
+    @NonNull InputStream decompress(final @NonNull InputStream in) {
+      return in;
+    }
+
+    @Override
+    @NonNull OutputStream compress(final @NonNull OutputStream out) {
+      return out;
+    }
+  },
+  /**
+   * The gzip format, as described by RFC 1952.
+   */
+  GZIP {
+    @Override
+    @NonNull InputStream decompress(final @NonNull InputStream in) throws IOException {
+      return new GZIPInputStream(in, BUFFER_SIZE);
+    }
+
+    @Override
+    @NonNull OutputStream compress(final @NonNull OutputStream out) throws IOException {
+      return new GZIPOutputStream(out, BUFFER_SIZE);
+    }
+  },
+  /**
+   * The zlib format, as described by RFC 1950, which is what HTTP calls {@code deflate}.
+   */
+  DEFLATE {
+    @Override
+    @NonNull InputStream decompress(final @NonNull InputStream in) {
+      final Inflater inflater = new Inflater();
+      return new InflaterInputStream(in, inflater, BUFFER_SIZE) {
+        @Override
+        public void close() throws IOException {
+          // a stream does not end an inflater it was given
+          try {
+            super.close();
+          } finally {
+            inflater.end();
+          }
+        }
+      };
+    }
+
+    @Override
+    @NonNull OutputStream compress(final @NonNull OutputStream out) {
+      final Deflater deflater = new Deflater();
+      return new DeflaterOutputStream(out, deflater, BUFFER_SIZE) {
+        @Override
+        public void close() throws IOException {
+          try {
+            super.close();
+          } finally {
+            deflater.end();
+          }
+        }
+      };
+    }
+  };
+
+  /**
+   * The size of the buffers used when reading and writing files.
+   */
+  static final int BUFFER_SIZE = 64 * 1024;
+
+  /**
+   * Wraps {@code in} to decompress it.
+   *
+   * @param in the compressed stream
+   * @return the decompressed stream
+   * @throws IOException if an exception occurred while reading the header
+   */
+  abstract @NonNull InputStream decompress(final @NonNull InputStream in) throws IOException;
+
+  /**
+   * Wraps {@code out} to compress it.
+   *
+   * @param out the stream to write compressed data to
+   * @return the stream to write uncompressed data to
+   * @throws IOException if an exception occurred while writing the header
+   */
+  abstract @NonNull OutputStream compress(final @NonNull OutputStream out) throws IOException;
+
+  /**
+   * Detects the compression of {@code path} from its first bytes.
+   *
+   * @param path the path
+   * @return the compression
+   * @throws IOException if an exception occurred while reading the file
+   */
+  public static @NonNull JsonCompression detect(final @NonNull Path path) throws IOException {
+    try(final InputStream in = Files.newInputStream(path)) {
+      return detect(in.read(), in.read());
+    }
+  }
+
+  /**
+   * Detects the compression of {@code in} from its first bytes, without consuming them.
+   *
+   * @param in the stream, which must support {@link InputStream#mark(int)}
+   * @return the compression
+   * @throws IOException if an exception occurred while reading
+   */
+  static @NonNull JsonCompression detect(final @NonNull InputStream in) throws IOException {
+    in.mark(2);
+    final JsonCompression compression = detect(in.read(), in.read());
+    in.reset();
+    return compression;
+  }
+
+  /**
+   * Detects the compression of a stream from its first two bytes.
+   *
+   * @param first the first byte, or {@code -1}
+   * @param second the second byte, or {@code -1}
+   * @return the compression
+   */
+  static @NonNull JsonCompression detect(final int first, final int second) {
+    if(first == 0x1f && second == 0x8b) {
+      return GZIP;
+    }
+    // the deflate method with a 32K window, no preset dictionary, and a header check which is a multiple of 31 - other
+    // window sizes are not detected, as their first bytes include digits which may begin a JSON document
+    if(first == 0x78 && second != -1 && (second & 0x20) == 0 && ((first << 8) | second) % 31 == 0) {
+      return DEFLATE;
+    }
+    return NONE;
+  }
+
+  /**
+   * Opens {@code path} for reading, decompressing it if its compression is detected.
+   *
+   * @param path the path
+   * @return a buffered, decompressed stream
+   * @throws IOException if an exception occurred while opening the file
+   */
+  static @NonNull InputStream open(final @NonNull Path path) throws IOException {
+    return open(new BufferedInputStream(Files.newInputStream(path), BUFFER_SIZE));
+  }
+
+  /**
+   * Opens {@code in} for reading, decompressing it if its compression is detected.
+   *
+   * @param in the stream, which must support {@link InputStream#mark(int)}
+   * @return the decompressed stream
+   * @throws IOException if an exception occurred while reading
+   */
+  static @NonNull InputStream open(final @NonNull InputStream in) throws IOException {
+    try {
+      return detect(in).decompress(in);
+    } catch(final IOException e) {
+      in.close();
+      throw e;
+    }
+  }
+}
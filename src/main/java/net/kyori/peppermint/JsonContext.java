@@ -0,0 +1,367 @@
+/*
+ * This file is part of peppermint, licensed under the MIT License.
+ *
+ * Copyright (c) 2018 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.peppermint;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * A configured parser of JSON trees.
+ *
+ * <p>A context is immutable, and may be shared between threads. Each thread which parses
+ * with a context keeps its own UTF-8 decoder, with its byte buffer, and its own tree building
+ * stack, which are reused by every parse on that thread - a parse allocates little more than
+ * the tree it returns and the {@link com.google.gson.stream.JsonReader} it reads with.</p>
+ *
+ * <p>Trees are the same as those parsed by {@link JsonIO#PARSER}.</p>
+ *
+ * <p>A context which parses untrusted input should be strict, and limit the length and nesting
+ * of documents, the length of their strings, the size of their arrays and objects, and the time
+ * taken to parse them. A document which exceeds a limit is rejected with a {@link JsonLimitException}.
+ * Every limit but the string length is enforced as soon as it is exceeded, without reading the
+ * rest of the document. The string length is only checked once the whole string has been read,
+ * so the memory used by a single huge string is bounded only by the maximum length of the document.</p>
+ */
+public final class JsonContext {
+  // Long.MAX_VALUE nanoseconds, which is treated as no limit - initialized before DEFAULT is built
+  private static final Duration UNLIMITED = Duration.ofNanos(Long.MAX_VALUE);
+  /**
+   * A lenient context without limits, which parses as {@link JsonIO#PARSER} does.
+   */
+  public static final JsonContext DEFAULT = builder().build();
+  private final boolean lenient;
+  private final int maximumDepth;
+  private final int maximumStringLength;
+  private final int maximumElements;
+  private final long maximumLength;
+  private final Duration maximumTime;
+  private final @Nullable JsonStringPool strings;
+  private final ThreadLocal<State> state = ThreadLocal.withInitial(() -> new State(this));
+
+  private JsonContext(final @NonNull Builder builder) {
+    this.lenient = builder.lenient;
+    this.maximumDepth = builder.maximumDepth;
+    this.maximumStringLength = builder.maximumStringLength;
+    this.maximumElements = builder.maximumElements;
+    this.maximumLength = builder.maximumLength;
+    this.maximumTime = builder.maximumTime;
+    this.strings = builder.strings;
+  }
+
+  /**
+   * Creates a builder.
+   *
+   * @return a builder
+   */
+  public static @NonNull Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * Parses a JSON element from {@code json}.
+   *
+   * @param json the json
+   * @return the json element
+   * @throws com.google.gson.JsonSyntaxException if the json is malformed
+   * @throws JsonLimitException if the json exceeds a limit
+   */
+  public @NonNull JsonElement parse(final @NonNull String json) {
+    return this.parse(new StringReader(json));
+  }
+
+  /**
+   * Parses a JSON element from {@code reader}.
+   *
+   * @param reader the reader, which is not closed
+   * @return the json element
+   * @throws com.google.gson.JsonIOException if an exception occurred while reading
+   * @throws com.google.gson.JsonSyntaxException if the json is malformed
+   * @throws JsonLimitException if the json exceeds a limit
+   */
+  public @NonNull JsonElement parse(final @NonNull Reader reader) {
+    return this.state.get().tree.parse(reader);
+  }
+
+  /**
+   * Reads a JSON element from {@code in}.
+   *
+   * <p>The compression and encoding of the stream are detected as they are by {@link JsonIO#read(Path)}.</p>
+   *
+   * @param in the stream, which is closed
+   * @return the json element
+   * @throws IOException if an exception occurred while reading the first bytes of the stream
+   * @throws com.google.gson.JsonIOException if an exception occurred while reading
+   * @throws com.google.gson.JsonSyntaxException if the json is malformed
+   * @throws JsonLimitException if the json exceeds a limit
+   */
+  public @NonNull JsonElement parse(final @NonNull InputStream in) throws IOException {
+    final State state = this.state.get();
+    try(final Reader reader = Readers.open(in, state.reader)) {
+      return state.tree.parse(reader);
+    }
+  }
+
+  /**
+   * Reads a JSON element from {@code path}.
+   *
+   * <p>The compression and encoding of the file are detected as they are by {@link JsonIO#read(Path)}.</p>
+   *
+   * @param path the path
+   * @return the json element
+   * @throws IOException if an exception occurred while opening the file
+   * @throws com.google.gson.JsonIOException if an exception occurred while reading
+   * @throws com.google.gson.JsonSyntaxException if the json is malformed
+   * @throws JsonLimitException if the json exceeds a limit
+   */
+  public @NonNull JsonElement read(final @NonNull Path path) throws IOException {
+    final State state = this.state.get();
+    return Metrics.read(path, in -> {
+      try(final Reader reader = Readers.open(in, state.reader)) {
+        return state.tree.parse(reader);
+      }
+    });
+  }
+
+  /**
+   * Reads a JSON object from {@code path}.
+   *
+   * @param path the path
+   * @return the json object
+   * @throws IOException if an exception occurred while opening the file
+   * @throws com.google.gson.JsonIOException if an exception occurred while reading
+   * @throws com.google.gson.JsonSyntaxException if the json is malformed
+   * @throws JsonLimitException if the json exceeds a limit
+   * @throws IllegalStateException if the json is not an object
+   */
+  public @NonNull JsonObject readObject(final @NonNull Path path) throws IOException {
+    return this.read(path).getAsJsonObject();
+  }
+
+  /**
+   * Checks if malformed JSON is accepted, as it is by {@link JsonIO#PARSER}.
+   *
+   * @return {@code true} if malformed JSON is accepted
+   */
+  public boolean lenient() {
+    return this.lenient;
+  }
+
+  /**
+   * Gets the maximum nesting depth of arrays and objects.
+   *
+   * @return the maximum depth
+   */
+  public int maximumDepth() {
+    return this.maximumDepth;
+  }
+
+  /**
+   * Gets the maximum length of a string or member name.
+   *
+   * @return the maximum length
+   */
+  public int maximumStringLength() {
+    return this.maximumStringLength;
+  }
+
+  /**
+   * Gets the maximum number of elements in an array, or members in an object.
+   *
+   * @return the maximum number of elements
+   */
+  public int maximumElements() {
+    return this.maximumElements;
+  }
+
+  /**
+   * Gets the maximum length of a document, in characters.
+   *
+   * @return the maximum length
+   */
+  public long maximumLength() {
+    return this.maximumLength;
+  }
+
+  /**
+   * Gets the maximum time taken to parse a document.
+   *
+   * @return the maximum time
+   */
+  public @NonNull Duration maximumTime() {
+    return this.maximumTime;
+  }
+
+  @Nullable JsonStringPool strings() {
+    return this.strings;
+  }
+
+  // the objects reused by the parses of a single thread
+  private static final class State {
+    final TreeReader tree;
+    final Utf8Reader reader = new Utf8Reader();
+
+    State(final @NonNull JsonContext context) {
+      this.tree = new TreeReader(context);
+    }
+  }
+
+  /**
+   * A builder of {@link JsonContext}s.
+   */
+  public static final class Builder {
+    private boolean lenient = true;
+    private int maximumDepth = Integer.MAX_VALUE;
+    private int maximumStringLength = Integer.MAX_VALUE;
+    private int maximumElements = Integer.MAX_VALUE;
+    private long maximumLength = Long.MAX_VALUE;
+    private Duration maximumTime = UNLIMITED;
+    private @Nullable JsonStringPool strings;
+
+    private Builder() {
+    }
+
+    /**
+     * Sets if malformed JSON is accepted, as it is by {@link JsonIO#PARSER}. Defaults to {@code true}.
+     *
+     * <p>A strict context rejects anything which is not valid according to RFC 8259,
+     * including an empty document.</p>
+     *
+     * @param lenient if malformed JSON is accepted
+     * @return this builder
+     */
+    public @NonNull Builder lenient(final boolean lenient) {
+      this.lenient = lenient;
+      return this;
+    }
+
+    /**
+     * Sets the maximum nesting depth of arrays and objects. Unlimited by default.
+     *
+     * @param maximumDepth the maximum depth
+     * @return this builder
+     */
+    public @NonNull Builder maximumDepth(final int maximumDepth) {
+      if(maximumDepth < 1) {
+        throw new IllegalArgumentException("maximumDepth must be at least 1");
+      }
+      this.maximumDepth = maximumDepth;
+      return this;
+    }
+
+    /**
+     * Sets the maximum length of a string or member name. Unlimited by default.
+     *
+     * <p>The limit is checked once a string has been read, so it bounds the size of the
+     * parsed tree rather than the memory used while reading.</p>
+     *
+     * @param maximumStringLength the maximum length
+     * @return this builder
+     */
+    public @NonNull Builder maximumStringLength(final int maximumStringLength) {
+      if(maximumStringLength < 0) {
+        throw new IllegalArgumentException("maximumStringLength must not be negative");
+      }
+      this.maximumStringLength = maximumStringLength;
+      return this;
+    }
+
+    /**
+     * Sets the maximum number of elements in an array, or members in an object. Unlimited by default.
+     *
+     * @param maximumElements the maximum number of elements
+     * @return this builder
+     */
+    public @NonNull Builder maximumElements(final int maximumElements) {
+      if(maximumElements < 0) {
+        throw new IllegalArgumentException("maximumElements must not be negative");
+      }
+      this.maximumElements = maximumElements;
+      return this;
+    }
+
+    /**
+     * Sets the maximum length of a document, in characters. Unlimited by default.
+     *
+     * <p>The length is that of the decoded and decompressed text, so the limit also bounds the memory
+     * used while reading a single huge string, and the output of a compressed file. A document is
+     * rejected as soon as it is read past the limit, without reading the rest of it.</p>
+     *
+     * @param maximumLength the maximum length
+     * @return this builder
+     */
+    public @NonNull Builder maximumLength(final long maximumLength) {
+      if(maximumLength < 0) {
+        throw new IllegalArgumentException("maximumLength must not be negative");
+      }
+      this.maximumLength = maximumLength;
+      return this;
+    }
+
+    /**
+     * Sets the maximum time taken to parse a document, including the time spent reading it. Unlimited by default.
+     *
+     * <p>The time is checked each time more of the document is read, which is at least once
+     * per kilobyte of text, so a parse stops shortly after exceeding it.</p>
+     *
+     * @param maximumTime the maximum time
+     * @return this builder
+     */
+    public @NonNull Builder maximumTime(final @NonNull Duration maximumTime) {
+      if(maximumTime.isNegative()) {
+        throw new IllegalArgumentException("maximumTime must not be negative");
+      }
+      this.maximumTime = maximumTime.compareTo(UNLIMITED) < 0 ? maximumTime : UNLIMITED;
+      return this;
+    }
+
+    /**
+     * Sets the pool to deduplicate member names and short string values through. None by default.
+     *
+     * @param strings the pool, or {@code null}
+     * @return this builder
+     */
+    public @NonNull Builder strings(final @Nullable JsonStringPool strings) {
+      this.strings = strings;
+      return this;
+    }
+
+    /**
+     * Builds a context.
+     *
+     * @return a context
+     */
+    public @NonNull JsonContext build() {
+      return new JsonContext(this);
+    }
+  }
+}
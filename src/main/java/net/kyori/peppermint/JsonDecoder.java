@@ -0,0 +1,73 @@
+/*
+ * This file is part of peppermint, licensed under the MIT License.
+ *
+ * Copyright (c) 2018 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.peppermint;
+
+import com.google.gson.JsonObject;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+/**
+ * A decoder of values from JSON objects.
+ *
+ * @param <T> the value type
+ */
+@FunctionalInterface
+public interface JsonDecoder<T> {
+  /**
+   * Gets a decoder for {@code type}.
+   *
+   * <p>{@code type} is either an interface, whose abstract no-argument methods are
+   * bound to the members of the same name, or a class with a single constructor (or a
+   * single public constructor), whose parameters are bound to the members of the same name. Parameter names are
+   * only available if the class was compiled with {@code -parameters}.</p>
+   *
+   * <p>Members are read with the same semantics and error messages as the accessors in {@link Json}:</p>
+   * <ul>
+   *   <li>primitives and {@link String} are required, as if by {@code Json.need*}</li>
+   *   <li>boxed primitives and {@link java.util.Optional} are optional, and are {@code null} or empty if the member is missing or null</li>
+   *   <li>{@link com.google.gson.JsonElement}, {@link JsonObject}, {@link com.google.gson.JsonArray} and {@link com.google.gson.JsonPrimitive} are passed through</li>
+   *   <li>enums are read from their constant names</li>
+   *   <li>{@link java.util.List}s are read from arrays of any supported type</li>
+   *   <li>any other interface or class is read from a nested object with its own decoder</li>
+   * </ul>
+   *
+   * <p>The binding is resolved once, and decoders are cached per type.</p>
+   *
+   * @param type the type
+   * @param <T> the value type
+   * @return a decoder
+   * @throws IllegalArgumentException if {@code type} cannot be bound
+   */
+  static <T> @NonNull JsonDecoder<T> of(final @NonNull Class<T> type) {
+    return Decoders.of(type);
+  }
+
+  /**
+   * Decodes a value from {@code json}.
+   *
+   * @param json the json
+   * @return the value
+   * @throws com.google.gson.JsonSyntaxException if a member is missing or of the wrong type
+   */
+  @NonNull T decode(final @NonNull JsonObject json);
+}
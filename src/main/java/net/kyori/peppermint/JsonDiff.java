@@ -0,0 +1,89 @@
+/*
+ * This file is part of peppermint, licensed under the MIT License.
+ *
+ * Copyright (c) 2018 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.peppermint;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+/**
+ * A collection of utilities for computing and applying differences between JSON elements.
+ *
+ * <p>A patch is a JSON array of operations, as described by
+ * <a href="https://tools.ietf.org/html/rfc6902">RFC 6902</a>. Each operation names the
+ * location it affects with a JSON pointer, so a patch can also be used to find which
+ * parts of a document have changed.</p>
+ */
+public interface JsonDiff {
+  /**
+   * The maximum number of elements in the changed region of two arrays, multiplied
+   * together, for which the longest common subsequence of the elements is found.
+   *
+   * <p>Larger arrays are compared index by index.</p>
+   */
+  int MAXIMUM_ARRAY_PRODUCT = 1 << 18;
+
+  /**
+   * Computes a patch which transforms {@code source} into {@code target}.
+   *
+   * <p>The patch contains {@code add}, {@code remove} and {@code replace} operations only.
+   * Subtrees which are equal are skipped without producing operations.</p>
+   *
+   * @param source the source
+   * @param target the target
+   * @return the patch
+   */
+  static @NonNull JsonArray diff(final @NonNull JsonElement source, final @NonNull JsonElement target) {
+    final JsonArray patch = new JsonArray();
+    new Differ(patch).diff(source, target, "");
+    return patch;
+  }
+
+  /**
+   * Applies {@code patch} to a copy of {@code json}.
+   *
+   * <p>All of the operations in RFC 6902 are supported. {@code json} is not modified.</p>
+   *
+   * @param json the json
+   * @param patch the patch
+   * @return the patched json
+   * @throws com.google.gson.JsonSyntaxException if an operation is malformed, refers to a missing location, or fails a test
+   */
+  static @NonNull JsonElement apply(final @NonNull JsonElement json, final @NonNull JsonArray patch) {
+    return Patcher.apply(json.deepCopy(), patch);
+  }
+
+  /**
+   * Escapes {@code name} for use as a segment of a JSON pointer.
+   *
+   * @param name the name
+   * @return the escaped name
+   */
+  static @NonNull String escape(final @NonNull String name) {
+    if(name.indexOf('~') == -1 && name.indexOf('/') == -1) {
+      return name;
+    }
+    return name.replace("~", "~0").replace("/", "~1");
+  }
+}
@@ -0,0 +1,176 @@
+/*
+ * This file is part of peppermint, licensed under the MIT License.
+ *
+ * Copyright (c) 2018 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.peppermint;
+
+import com.google.gson.JsonSyntaxException;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A reusable collector of errors reported by the validating {@link Json} accessors.
+ *
+ * <p>Recording an error stores only the name and the expected type; messages are
+ * built when they are asked for, so rejecting a malformed value costs about as much
+ * as accepting a valid one.</p>
+ *
+ * <pre>
+ * final JsonErrors errors = new JsonErrors();
+ * for(final JsonObject record : records) {
+ *   errors.clear();
+ *   final int id = Json.needInt(record, "id", errors);
+ *   final String name = Json.needString(record, "name", errors);
+ *   if(errors.isEmpty()) {
+ *     accept(id, name);
+ *   }
+ * }
+ * </pre>
+ *
+ * <p>A collector is not thread-safe.</p>
+ */
+public final class JsonErrors {
+  private String[] names = new String[4];
+  private String[] expected = new String[4];
+  private boolean[] missing = new boolean[4];
+  private int size;
+
+  /**
+   * Tests if no errors have been recorded.
+   *
+   * @return {@code true} if no errors have been recorded, {@code false} otherwise
+   */
+  public boolean isEmpty() {
+    return this.size == 0;
+  }
+
+  /**
+   * Gets the number of errors which have been recorded.
+   *
+   * @return the number of errors
+   */
+  public int size() {
+    return this.size;
+  }
+
+  /**
+   * Removes all recorded errors.
+   */
+  public void clear() {
+    Arrays.fill(this.names, 0, this.size, null);
+    this.size = 0;
+  }
+
+  /**
+   * Gets the name of the element an error was recorded for.
+   *
+   * @param index the index of the error
+   * @return the name
+   */
+  public @NonNull String name(final int index) {
+    this.check(index);
+    return this.names[index];
+  }
+
+  /**
+   * Gets the message of an error.
+   *
+   * <p>The message is the same as that of the exception the non-validating accessor would have thrown.</p>
+   *
+   * @param index the index of the error
+   * @return the message
+   */
+  public @NonNull String message(final int index) {
+    this.check(index);
+    if(this.missing[index]) {
+      return "Missing " + this.names[index] + ", expected to find " + this.expected[index];
+    }
+    return "Expected " + this.names[index] + " to be " + this.expected[index];
+  }
+
+  /**
+   * Gets a view of the messages of all recorded errors.
+   *
+   * @return the messages
+   */
+  public @NonNull List<String> messages() {
+    return new AbstractList<String>() {
+      @Override
+      public String get(final int index) {
+        return JsonErrors.this.message(index);
+      }
+
+      @Override
+      public int size() {
+        return JsonErrors.this.size;
+      }
+    };
+  }
+
+  /**
+   * Throws an exception for the first recorded error, if any.
+   *
+   * @throws JsonSyntaxException if an error has been recorded
+   */
+  public void throwIfAny() throws JsonSyntaxException {
+    if(this.size > 0) {
+      throw new JsonSyntaxException(this.message(0));
+    }
+  }
+
+  void missing(final @NonNull String name, final @NonNull String expected) {
+    Metrics.missing(name);
+    this.add(name, expected, true);
+  }
+
+  void expected(final @NonNull String name, final @NonNull String expected) {
+    Metrics.mismatch(name);
+    this.add(name, expected, false);
+  }
+
+  private void add(final @NonNull String name, final @NonNull String expected, final boolean missing) {
+    if(this.size == this.names.length) {
+      final int capacity = this.size * 2;
+      this.names = Arrays.copyOf(this.names, capacity);
+      this.expected = Arrays.copyOf(this.expected, capacity);
+      this.missing = Arrays.copyOf(this.missing, capacity);
+    }
+    this.names[this.size] = name;
+    this.expected[this.size] = expected;
+    this.missing[this.size] = missing;
+    this.size++;
+  }
+
+  private void check(final int index) {
+    if(index < 0 || index >= this.size) {
+      throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + this.size);
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "JsonErrors" + this.messages();
+  }
+}
@@ -23,16 +23,36 @@
  */
 package net.kyori.peppermint;
 
+import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
+import com.google.gson.JsonIOException;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
 import org.checkerframework.checker.nullness.qual.NonNull;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.charset.Charset;
+import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
 
 /**
  * A collection of utilities for reading and writing JSON.
@@ -40,23 +60,69 @@ import java.nio.file.Path;
 public interface JsonIO {
   /**
    * A shared parser.
+   *
+   * @see JsonContext for a configurable parser which reuses its buffers
    */
   JsonParser PARSER = new JsonParser();
 
+  /**
+   * The size, in bytes, at which {@link #readMapped(Path)} memory-maps a file instead of reading it through a buffer.
+   */
+  long MAPPED_THRESHOLD = 256 * 1024;
+
   /**
    * Reads a JSON element from {@code path}.
    *
+   * <p>A gzip or deflate compressed file is detected and decompressed.</p>
+   *
+   * <p>The file is read as UTF-8, as RFC 8259 requires, unless a byte order mark or the pattern
+   * of null bytes at its start shows it to be UTF-16 or UTF-32.</p>
+   *
+   * <p>The document is not limited in size or depth - untrusted files should be read by a
+   * {@link JsonContext} with limits.</p>
+   *
    * @param path the path
    * @return the json
    * @throws IOException if an exception occurred while parsing
    */
   static @NonNull JsonElement read(final @NonNull Path path) throws IOException {
-    try(
-      final InputStream is = Files.newInputStream(path);
-      final InputStreamReader isr = new InputStreamReader(is)
-    ) {
-      return PARSER.parse(isr);
-    }
+    return JsonContext.DEFAULT.read(path);
+  }
+
+  /**
+   * Reads a JSON element encoded with {@code charset} from {@code path}.
+   *
+   * <p>A gzip or deflate compressed file is detected and decompressed.</p>
+   *
+   * @param path the path
+   * @param charset the charset
+   * @return the json
+   * @throws IOException if an exception occurred while parsing
+   */
+  static @NonNull JsonElement read(final @NonNull Path path, final @NonNull Charset charset) throws IOException {
+    return Metrics.read(path, in -> {
+      try(final Reader reader = Readers.open(in, charset)) {
+        return JsonContext.DEFAULT.parse(reader);
+      }
+    });
+  }
+
+  /**
+   * Reads a JSON element from {@code path}, decompressing it with {@code compression}.
+   *
+   * <p>The encoding is detected as it is by {@link #read(Path)}.</p>
+   *
+   * @param path the path
+   * @param compression the compression
+   * @return the json
+   * @throws IOException if an exception occurred while parsing
+   */
+  static @NonNull JsonElement read(final @NonNull Path path, final @NonNull JsonCompression compression) throws IOException {
+    return Metrics.read(path, in -> {
+      try(final Reader reader = Readers.open(in, compression)) {
+        return JsonContext.DEFAULT.parse(reader);
+      }
+    });
   }
 
   /**
@@ -69,4 +135,676 @@ public interface JsonIO {
   static @NonNull JsonObject readObject(final @NonNull Path path) throws IOException {
     return read(path).getAsJsonObject();
   }
+
+  /**
+   * Reads a JSON element from {@code path}, deduplicating its member
+   * names and short string values through {@code strings}.
+   *
+   * <p>Sharing a pool between files with a common schema lets the trees read from them
+   * share a single instance of each name, which can greatly reduce their retained size.</p>
+   *
+   * @param path the path
+   * @param strings the string pool
+   * @return the json
+   * @throws IOException if an exception occurred while parsing
+   */
+  static @NonNull JsonElement read(final @NonNull Path path, final @NonNull JsonStringPool strings) throws IOException {
+    return Metrics.read(path, in -> {
+      try(final Reader reader = Readers.open(in)) {
+        return new TreeReader(strings).parse(reader);
+      }
+    });
+  }
+
+  /**
+   * Reads a JSON object from {@code path}, deduplicating its member
+   * names and short string values through {@code strings}.
+   *
+   * @param path the path
+   * @param strings the string pool
+   * @return the json
+   * @throws IOException if an exception occurred while parsing
+   */
+  static @NonNull JsonObject readObject(final @NonNull Path path, final @NonNull JsonStringPool strings) throws IOException {
+    return read(path, strings).getAsJsonObject();
+  }
+
+  /**
+   * Reads a JSON object or array from {@code path} into a compact, immutable tree.
+   *
+   * <p>The tree is built directly from the file, without first building a {@link JsonElement}.</p>
+   *
+   * @param path the path
+   * @return the json
+   * @throws IOException if an exception occurred while parsing
+   */
+  static @NonNull FrozenJson readFrozen(final @NonNull Path path) throws IOException {
+    return Readers.read(path, new Freezer()::read);
+  }
+
+  /**
+   * Reads a UTF-8 encoded JSON element from {@code path}, memory-mapping the file if
+   * it is at least {@link #MAPPED_THRESHOLD} bytes in size.
+   *
+   * @param path the path
+   * @return the json
+   * @throws IOException if an exception occurred while parsing
+   */
+  static @NonNull JsonElement readMapped(final @NonNull Path path) throws IOException {
+    return readMapped(path, MAPPED_THRESHOLD);
+  }
+
+  /**
+   * Reads a UTF-8 encoded JSON element from {@code path}, memory-mapping the file if
+   * it is at least {@code threshold} bytes in size.
+   *
+   * <p>A mapped file is decoded directly from the mapping, without copying it onto the heap.
+   * The mapping itself is released once it is garbage collected.</p>
+   *
+   * <p>Malformed UTF-8 is replaced with {@code U+FFFD}, as it is by {@link #read(Path)}.</p>
+   *
+   * @param path the path
+   * @param threshold the size, in bytes, at which the file is memory-mapped
+   * @return the json
+   * @throws IOException if an exception occurred while parsing
+   */
+  static @NonNull JsonElement readMapped(final @NonNull Path path, final long threshold) throws IOException {
+    final long start = Metrics.start();
+    try(final Reader reader = MappedReader.open(path, threshold)) {
+      final JsonElement json = JsonContext.DEFAULT.parse(reader);
+      // a mapped file is read whole and uncompressed, so its size is the number of bytes read
+      Metrics.read(path, start != 0 ? Files.size(path) : -1, start);
+      return json;
+    } catch(final IOException | RuntimeException e) {
+      Metrics.failed(path, e);
+      throw e;
+    }
+  }
+
+  /**
+   * Reads a UTF-8 encoded JSON object from {@code path}, memory-mapping the file if
+   * it is at least {@link #MAPPED_THRESHOLD} bytes in size.
+   *
+   * @param path the path
+   * @return the json
+   * @throws IOException if an exception occurred while parsing
+   */
+  static @NonNull JsonObject readObjectMapped(final @NonNull Path path) throws IOException {
+    return readMapped(path).getAsJsonObject();
+  }
+
+  /**
+   * Lazily reads the elements of a top-level JSON array from {@code path}.
+   *
+   * <p>Elements are parsed one at a time as the stream is consumed, so only the
+   * current element is held in memory. The returned stream must be closed.</p>
+   *
+   * @param path the path
+   * @return a stream of elements
+   * @throws IOException if an exception occurred while opening the file
+   */
+  static @NonNull Stream<JsonElement> stream(final @NonNull Path path) throws IOException {
+    return ElementSpliterator.stream(new JsonReader(Readers.open(path)));
+  }
+
+  /**
+   * Lazily reads newline-delimited JSON from {@code path}, one element per line.
+   *
+   * <p>The format is also known as JSON Lines or NDJSON. Blank lines are skipped, and a
+   * malformed line is reported with its line number. The compression and encoding of the
+   * file are detected as they are by {@link #read(Path)}. The returned stream must be closed.</p>
+   *
+   * @param path the path
+   * @return a stream of elements
+   * @throws IOException if an exception occurred while opening the file
+   */
+  static @NonNull Stream<JsonElement> readLines(final @NonNull Path path) throws IOException {
+    return readLines(path, false);
+  }
+
+  /**
+   * Lazily reads newline-delimited JSON from {@code path}, one element per line.
+   *
+   * <p>A parallel stream of an uncompressed file memory-maps the file, and splits it between
+   * threads at newlines, so each thread decodes and parses its own part of the file. Such a
+   * file must be UTF-8, as the format requires, and a malformed line is reported with the
+   * byte at which it starts. A compressed file is decompressed by a single thread, and its
+   * lines are parsed in parallel.</p>
+   *
+   * <p>The returned stream must be closed.</p>
+   *
+   * @param path the path
+   * @param parallel {@code true} to parse the lines in parallel
+   * @return a stream of elements
+   * @throws IOException if an exception occurred while opening the file
+   * @see #readLines(Path)
+   */
+  static @NonNull Stream<JsonElement> readLines(final @NonNull Path path, final boolean parallel) throws IOException {
+    if(parallel && JsonCompression.detect(path) == JsonCompression.NONE) {
+      return MappedLineSpliterator.stream(path);
+    }
+    return LineSpliterator.stream(Readers.open(path), parallel);
+  }
+
+  /**
+   * Writes {@code elements} to {@code path} as newline-delimited JSON, one compact element per line.
+   *
+   * <p>The output is written as UTF-8 to a temporary file which replaces {@code path}
+   * once every element has been written. The permissions of an existing file are not preserved.</p>
+   *
+   * @param path the path
+   * @param elements the elements
+   * @throws IOException if an exception occurred while writing
+   */
+  static void writeLines(final @NonNull Path path, final @NonNull Iterable<? extends JsonElement> elements) throws IOException {
+    writeLines(path, elements, JsonCompression.NONE);
+  }
+
+  /**
+   * Writes {@code elements} to {@code path} as newline-delimited JSON, compressed with {@code compression}.
+   *
+   * <p>The output is written as UTF-8 to a temporary file which replaces {@code path}
+   * once every element has been written. The permissions of an existing file are not preserved.</p>
+   *
+   * @param path the path
+   * @param elements the elements
+   * @param compression the compression
+   * @throws IOException if an exception occurred while writing
+   */
+  static void writeLines(final @NonNull Path path, final @NonNull Iterable<? extends JsonElement> elements, final @NonNull JsonCompression compression) throws IOException {
+    AtomicJsonWriter.writeLines(path, elements, compression);
+  }
+
+  /**
+   * Reads the JSON objects in {@code directory} whose file names match {@code glob}, in parallel.
+   *
+   * @param directory the directory
+   * @param glob the glob pattern
+   * @return the batch
+   * @throws IOException if an exception occurred while listing the directory
+   * @see java.nio.file.FileSystem#getPathMatcher(String)
+   */
+  static @NonNull JsonBatch readAll(final @NonNull Path directory, final @NonNull String glob) throws IOException {
+    return readAll(directory, glob, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Reads the JSON objects in {@code directory} whose file names match {@code glob}, in parallel on {@code executor}.
+   *
+   * @param directory the directory
+   * @param glob the glob pattern
+   * @param executor the executor
+   * @return the batch
+   * @throws IOException if an exception occurred while listing the directory
+   * @see java.nio.file.FileSystem#getPathMatcher(String)
+   */
+  static @NonNull JsonBatch readAll(final @NonNull Path directory, final @NonNull String glob, final @NonNull Executor executor) throws IOException {
+    final List<Path> paths = new ArrayList<>();
+    try(final DirectoryStream<Path> stream = Files.newDirectoryStream(directory, glob)) {
+      for(final Path path : stream) {
+        if(Files.isRegularFile(path)) {
+          paths.add(path);
+        }
+      }
+    }
+    return readAll(paths, executor);
+  }
+
+  /**
+   * Reads the JSON objects at {@code paths}, in parallel.
+   *
+   * @param paths the paths
+   * @return the batch
+   */
+  static @NonNull JsonBatch readAll(final @NonNull Collection<Path> paths) {
+    return readAll(paths, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Reads the JSON objects at {@code paths}, in parallel on {@code executor}.
+   *
+   * <p>A file which could not be read is reported in {@link JsonBatch#failures()}
+   * without affecting the rest of the batch.</p>
+   *
+   * @param paths the paths
+   * @param executor the executor
+   * @return the batch
+   */
+  static @NonNull JsonBatch readAll(final @NonNull Collection<Path> paths, final @NonNull Executor executor) {
+    return JsonBatch.read(paths, executor);
+  }
+
+  /**
+   * Asynchronously reads a JSON element from {@code path}.
+   *
+   * @param path the path
+   * @return a future completed with the json
+   */
+  static @NonNull CompletableFuture<JsonElement> readAsync(final @NonNull Path path) {
+    return readAsync(path, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Asynchronously reads a JSON element from {@code path}.
+   *
+   * <p>The file is read through an {@link java.nio.channels.AsynchronousFileChannel}
+   * and parsed on {@code executor}; no work is performed on the calling thread.</p>
+   *
+   * @param path the path
+   * @param executor the executor to parse on
+   * @return a future completed with the json
+   */
+  static @NonNull CompletableFuture<JsonElement> readAsync(final @NonNull Path path, final @NonNull Executor executor) {
+    final long start = Metrics.start();
+    return AsyncFileReader.read(path, executor).thenApplyAsync(buffer -> {
+      try(final Reader reader = Readers.open(new ByteArrayInputStream(buffer.array(), buffer.arrayOffset(), buffer.limit()))) {
+        final JsonElement json = JsonContext.DEFAULT.parse(reader);
+        Metrics.read(path, buffer.limit(), start);
+        return json;
+      } catch(final IOException e) {
+        final JsonIOException exception = new JsonIOException(e);
+        Metrics.failed(path, exception);
+        throw exception;
+      } catch(final RuntimeException e) {
+        Metrics.failed(path, e);
+        throw e;
+      }
+    }, executor);
+  }
+
+  /**
+   * Asynchronously reads a JSON object from {@code path}.
+   *
+   * @param path the path
+   * @return a future completed with the json
+   */
+  static @NonNull CompletableFuture<JsonObject> readObjectAsync(final @NonNull Path path) {
+    return readObjectAsync(path, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Asynchronously reads a JSON object from {@code path}.
+   *
+   * @param path the path
+   * @param executor the executor to parse on
+   * @return a future completed with the json
+   */
+  static @NonNull CompletableFuture<JsonObject> readObjectAsync(final @NonNull Path path, final @NonNull Executor executor) {
+    return readAsync(path, executor).thenApply(JsonElement::getAsJsonObject);
+  }
+
+  /**
+   * Reads a JSON element from {@code path} in the binary encoding written by {@link #writeBinary(Path, JsonElement)}.
+   *
+   * @param path the path
+   * @return the json
+   * @throws IOException if an exception occurred while reading
+   * @throws com.google.gson.JsonSyntaxException if the file is not a valid encoding
+   */
+  static @NonNull JsonElement readBinary(final @NonNull Path path) throws IOException {
+    final long start = Metrics.start();
+    try {
+      final byte[] bytes = Files.readAllBytes(path);
+      final JsonElement json = BinaryJson.decode(bytes);
+      Metrics.read(path, bytes.length, start);
+      return json;
+    } catch(final IOException | RuntimeException e) {
+      Metrics.failed(path, e);
+      throw e;
+    }
+  }
+
+  /**
+   * Writes a JSON element to {@code path} in a compact binary encoding, with a dictionary of names.
+   *
+   * @param path the path
+   * @param json the json
+   * @throws IOException if an exception occurred while writing
+   * @see #writeBinary(Path, JsonElement, boolean)
+   */
+  static void writeBinary(final @NonNull Path path, final @NonNull JsonElement json) throws IOException {
+    writeBinary(path, json, true);
+  }
+
+  /**
+   * Writes a JSON element to {@code path} in a compact binary encoding.
+   *
+   * <p>Strings are length-prefixed and integers are written as varints, so the element can be
+   * read back without scanning text. Numbers keep their exact text, so the element read back
+   * is equal to, and serializes identically to, the element written.</p>
+   *
+   * <p>A dictionary writes each distinct member name once, which shrinks documents with
+   * many objects of the same shape and lets them share name instances once read.</p>
+   *
+   * <p>The element is written to a temporary file which then replaces {@code path},
+   * so {@code path} is never left partially written, even by a crash. The permissions
+   * of an existing file are not preserved.</p>
+   *
+   * @param path the path
+   * @param json the json
+   * @param dictionary {@code true} to write each distinct name once, {@code false} to write names in full
+   * @throws IOException if an exception occurred while writing
+   */
+  static void writeBinary(final @NonNull Path path, final @NonNull JsonElement json, final boolean dictionary) throws IOException {
+    final BinaryJson encoder = BinaryJson.encode(json, dictionary);
+    AtomicJsonWriter.write(path, encoder.buffer(), encoder.position());
+  }
+
+  /**
+   * Writes a JSON element to {@code path}.
+   *
+   * @param path the path
+   * @param json the json
+   * @throws IOException if an exception occurred while writing
+   * @see #write(Path, JsonElement, boolean)
+   */
+  static void write(final @NonNull Path path, final @NonNull JsonElement json) throws IOException {
+    write(path, json, false);
+  }
+
+  /**
+   * Writes a JSON element to {@code path}.
+   *
+   * <p>The element is written to a temporary file which then replaces {@code path},
+   * so {@code path} is never left partially written, even by a crash. The permissions
+   * of an existing file are not preserved.</p>
+   *
+   * @param path the path
+   * @param json the json
+   * @param pretty {@code true} to indent the output, {@code false} to write it compactly
+   * @throws IOException if an exception occurred while writing
+   */
+  static void write(final @NonNull Path path, final @NonNull JsonElement json, final boolean pretty) throws IOException {
+    write(path, json, pretty, JsonCompression.NONE);
+  }
+
+  /**
+   * Writes a JSON element to {@code path}, compressed with {@code compression}.
+   *
+   * <p>The element is written to a temporary file which then replaces {@code path},
+   * so {@code path} is never left partially written, even by a crash. The permissions
+   * of an existing file are not preserved.</p>
+   *
+   * @param path the path
+   * @param json the json
+   * @param pretty {@code true} to indent the output, {@code false} to write it compactly
+   * @param compression the compression
+   * @throws IOException if an exception occurred while writing
+   */
+  static void write(final @NonNull Path path, final @NonNull JsonElement json, final boolean pretty, final @NonNull JsonCompression compression) throws IOException {
+    try(final JsonWriter writer = writer(path, pretty, compression)) {
+      write(writer, json);
+    }
+  }
+
+  /**
+   * Opens a streaming writer for {@code path}.
+   *
+   * @param path the path
+   * @return a writer
+   * @throws IOException if an exception occurred while opening the file
+   * @see #writer(Path, boolean)
+   */
+  static @NonNull JsonWriter writer(final @NonNull Path path) throws IOException {
+    return writer(path, false);
+  }
+
+  /**
+   * Opens a streaming writer for {@code path}.
+   *
+   * <p>The output is written as UTF-8 to a temporary file which replaces {@code path}
+   * once the writer is closed. If the document is incomplete when the writer is closed,
+   * the temporary file is discarded and {@code path} is left untouched. The permissions
+   * of an existing file are not preserved.</p>
+   *
+   * @param path the path
+   * @param pretty {@code true} to indent the output, {@code false} to write it compactly
+   * @return a writer
+   * @throws IOException if an exception occurred while opening the file
+   */
+  static @NonNull JsonWriter writer(final @NonNull Path path, final boolean pretty) throws IOException {
+    return writer(path, pretty, JsonCompression.NONE);
+  }
+
+  /**
+   * Opens a streaming writer for {@code path}, compressed with {@code compression}.
+   *
+   * <p>The output is written as UTF-8 to a temporary file which replaces {@code path}
+   * once the writer is closed. If the document is incomplete when the writer is closed,
+   * the temporary file is discarded and {@code path} is left untouched. The permissions
+   * of an existing file are not preserved.</p>
+   *
+   * @param path the path
+   * @param pretty {@code true} to indent the output, {@code false} to write it compactly
+   * @param compression the compression
+   * @return a writer
+   * @throws IOException if an exception occurred while opening the file
+   */
+  static @NonNull JsonWriter writer(final @NonNull Path path, final boolean pretty, final @NonNull JsonCompression compression) throws IOException {
+    return AtomicJsonWriter.open(path, pretty, compression);
+  }
+
+  /**
+   * Writes a JSON element to {@code writer}.
+   *
+   * @param writer the writer
+   * @param json the json
+   * @throws IOException if an exception occurred while writing
+   */
+  static void write(final @NonNull JsonWriter writer, final @NonNull JsonElement json) throws IOException {
+    if(json.isJsonObject()) {
+      writer.beginObject();
+      for(final Map.Entry<String, JsonElement> entry : json.getAsJsonObject().entrySet()) {
+        writer.name(entry.getKey());
+        write(writer, entry.getValue());
+      }
+      writer.endObject();
+    } else if(json.isJsonArray()) {
+      writer.beginArray();
+      final JsonArray array = json.getAsJsonArray();
+      for(int i = 0, size = array.size(); i < size; i++) {
+        write(writer, array.get(i));
+      }
+      writer.endArray();
+    } else if(json.isJsonPrimitive()) {
+      final JsonPrimitive primitive = json.getAsJsonPrimitive();
+      if(primitive.isBoolean()) {
+        writer.value(primitive.getAsBoolean());
+      } else if(primitive.isNumber()) {
+        writer.value(primitive.getAsNumber());
+      } else {
+        writer.value(primitive.getAsString());
+      }
+    } else {
+      writer.nullValue();
+    }
+  }
+
+  /**
+   * Reads only the members at {@code paths} of a JSON object from {@code path}.
+   *
+   * <p>Paths are {@link JsonPath}s made up of member names only, such as {@code a.b.c}.
+   * Members which are not selected are skipped over by the reader without being
+   * materialized, and the selected members are returned in an object with the same
+   * structure as the source, so they can be read with the accessors in {@link Json}
+   * or with a {@link JsonPath}. The empty path selects the whole object.</p>
+   *
+   * @param path the path
+   * @param paths the paths of the members to read
+   * @return an object containing only the selected members
+   * @throws IOException if an exception occurred while parsing
+   * @throws IllegalArgumentException if a path is malformed or contains an array index
+   */
+  static @NonNull JsonObject project(final @NonNull Path path, final @NonNull Set<String> paths) throws IOException {
+    final Projection projection = Projection.compile(paths);
+    return Readers.read(path, projection::read);
+  }
+
+  /**
+   * Reads a top-level JSON array of numbers from {@code path} as an int array.
+   *
+   * @param path the path
+   * @return an int array
+   * @throws IOException if an exception occurred while parsing
+   */
+  static int @NonNull [] readIntArray(final @NonNull Path path) throws IOException {
+    return Readers.read(path, JsonIO::readIntArray);
+  }
+
+  /**
+   * Reads a JSON array of numbers at the current position of {@code reader} as an int array.
+   *
+   * <p>Numbers are decoded directly from the token stream, without creating any {@link JsonElement}s.</p>
+   *
+   * @param reader the reader
+   * @return an int array
+   * @throws IOException if an exception occurred while parsing
+   */
+  static int @NonNull [] readIntArray(final @NonNull JsonReader reader) throws IOException {
+    int[] array = new int[16];
+    int size = 0;
+    reader.beginArray();
+    while(reader.hasNext()) {
+      if(size == array.length) {
+        array = Arrays.copyOf(array, size * 2);
+      }
+      array[size++] = reader.nextInt();
+    }
+    reader.endArray();
+    return size == array.length ? array : Arrays.copyOf(array, size);
+  }
+
+  /**
+   * Reads a JSON array of numbers at the current position of {@code reader} into {@code buffer}.
+   *
+   * <p>Numbers are decoded directly from the token stream, without creating any {@link JsonElement}s.</p>
+   *
+   * @param reader the reader
+   * @param buffer the buffer
+   * @return the number of values read
+   * @throws IOException if an exception occurred while parsing
+   * @throws java.nio.BufferOverflowException if {@code buffer} does not have enough space remaining
+   */
+  static int readInts(final @NonNull JsonReader reader, final @NonNull IntBuffer buffer) throws IOException {
+    int size = 0;
+    reader.beginArray();
+    while(reader.hasNext()) {
+      buffer.put(reader.nextInt());
+      size++;
+    }
+    reader.endArray();
+    return size;
+  }
+
+  /**
+   * Reads a top-level JSON array of numbers from {@code path} as a long array.
+   *
+   * @param path the path
+   * @return a long array
+   * @throws IOException if an exception occurred while parsing
+   */
+  static long @NonNull [] readLongArray(final @NonNull Path path) throws IOException {
+    return Readers.read(path, JsonIO::readLongArray);
+  }
+
+  /**
+   * Reads a JSON array of numbers at the current position of {@code reader} as a long array.
+   *
+   * <p>Numbers are decoded directly from the token stream, without creating any {@link JsonElement}s.</p>
+   *
+   * @param reader the reader
+   * @return a long array
+   * @throws IOException if an exception occurred while parsing
+   */
+  static long @NonNull [] readLongArray(final @NonNull JsonReader reader) throws IOException {
+    long[] array = new long[16];
+    int size = 0;
+    reader.beginArray();
+    while(reader.hasNext()) {
+      if(size == array.length) {
+        array = Arrays.copyOf(array, size * 2);
+      }
+      array[size++] = reader.nextLong();
+    }
+    reader.endArray();
+    return size == array.length ? array : Arrays.copyOf(array, size);
+  }
+
+  /**
+   * Reads a JSON array of numbers at the current position of {@code reader} into {@code buffer}.
+   *
+   * <p>Numbers are decoded directly from the token stream, without creating any {@link JsonElement}s.</p>
+   *
+   * @param reader the reader
+   * @param buffer the buffer
+   * @return the number of values read
+   * @throws IOException if an exception occurred while parsing
+   * @throws java.nio.BufferOverflowException if {@code buffer} does not have enough space remaining
+   */
+  static int readLongs(final @NonNull JsonReader reader, final @NonNull LongBuffer buffer) throws IOException {
+    int size = 0;
+    reader.beginArray();
+    while(reader.hasNext()) {
+      buffer.put(reader.nextLong());
+      size++;
+    }
+    reader.endArray();
+    return size;
+  }
+
+  /**
+   * Reads a top-level JSON array of numbers from {@code path} as a double array.
+   *
+   * @param path the path
+   * @return a double array
+   * @throws IOException if an exception occurred while parsing
+   */
+  static double @NonNull [] readDoubleArray(final @NonNull Path path) throws IOException {
+    return Readers.read(path, JsonIO::readDoubleArray);
+  }
+
+  /**
+   * Reads a JSON array of numbers at the current position of {@code reader} as a double array.
+   *
+   * <p>Numbers are decoded directly from the token stream, without creating any {@link JsonElement}s.</p>
+   *
+   * @param reader the reader
+   * @return a double array
+   * @throws IOException if an exception occurred while parsing
+   */
+  static double @NonNull [] readDoubleArray(final @NonNull JsonReader reader) throws IOException {
+    double[] array = new double[16];
+    int size = 0;
+    reader.beginArray();
+    while(reader.hasNext()) {
+      if(size == array.length) {
+        array = Arrays.copyOf(array, size * 2);
+      }
+      array[size++] = reader.nextDouble();
+    }
+    reader.endArray();
+    return size == array.length ? array : Arrays.copyOf(array, size);
+  }
+
+  /**
+   * Reads a JSON array of numbers at the current position of {@code reader} into {@code buffer}.
+   *
+   * <p>Numbers are decoded directly from the token stream, without creating any {@link JsonElement}s.</p>
+   *
+   * @param reader the reader
+   * @param buffer the buffer
+   * @return the number of values read
+   * @throws IOException if an exception occurred while parsing
+   * @throws java.nio.BufferOverflowException if {@code buffer} does not have enough space remaining
+   */
+  static int readDoubles(final @NonNull JsonReader reader, final @NonNull DoubleBuffer buffer) throws IOException {
+    int size = 0;
+    reader.beginArray();
+    while(reader.hasNext()) {
+      buffer.put(reader.nextDouble());
+      size++;
+    }
+    reader.endArray();
+    return size;
+  }
 }
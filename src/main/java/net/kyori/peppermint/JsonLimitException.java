@@ -0,0 +1,98 @@
+/*
+ * This file is part of peppermint, licensed under the MIT License.
+ *
+ * Copyright (c) 2018 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.peppermint;
+
+import com.google.gson.JsonParseException;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+/**
+ * Thrown when a document exceeds a limit of the {@link JsonContext} parsing it.
+ *
+ * <p>Parsing stops as soon as a limit is exceeded, before the rest of the document is read.</p>
+ */
+public final class JsonLimitException extends JsonParseException {
+  private static final long serialVersionUID = 1L;
+  private final Limit limit;
+  private final long maximum;
+
+  JsonLimitException(final @NonNull Limit limit, final long maximum, final @NonNull String message) {
+    super(message);
+    this.limit = limit;
+    this.maximum = maximum;
+  }
+
+  /**
+   * Gets the limit which was exceeded.
+   *
+   * @return the limit
+   */
+  public @NonNull Limit limit() {
+    return this.limit;
+  }
+
+  /**
+   * Gets the value of the limit which was exceeded.
+   *
+   * @return the maximum, in the unit of the limit
+   */
+  public long maximum() {
+    return this.maximum;
+  }
+
+  /**
+   * A limit of a {@link JsonContext}.
+   */
+  public enum Limit {
+    /**
+     * The length of a document, in characters.
+     *
+     * @see JsonContext.Builder#maximumLength(long)
+     */
+    LENGTH,
+    /**
+     * The nesting depth of arrays and objects.
+     *
+     * @see JsonContext.Builder#maximumDepth(int)
+     */
+    DEPTH,
+    /**
+     * The length of a string or member name, in characters.
+     *
+     * @see JsonContext.Builder#maximumStringLength(int)
+     */
+    STRING_LENGTH,
+    /**
+     * The number of elements in an array, or members in an object.
+     *
+     * @see JsonContext.Builder#maximumElements(int)
+     */
+    ELEMENTS,
+    /**
+     * The time taken to parse a document, in nanoseconds.
+     *
+     * @see JsonContext.Builder#maximumTime(java.time.Duration)
+     */
+    TIME
+  }
+}
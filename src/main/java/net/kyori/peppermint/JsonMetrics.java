@@ -0,0 +1,96 @@
+/*
+ * This file is part of peppermint, licensed under the MIT License.
+ *
+ * Copyright (c) 2018 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.peppermint;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.nio.file.Path;
+
+/**
+ * A listener for the work performed by {@link JsonIO} and {@link Json}.
+ *
+ * <p>No listener is installed by default, in which case each instrumented operation costs a
+ * single read of a field - no clock is read, and nothing is allocated. Once {@link #install(JsonMetrics) installed},
+ * a listener is called on the thread performing the operation, so it should be cheap and thread-safe,
+ * and must not throw. {@link JsonMetricsRecorder} is such a listener.</p>
+ *
+ * <p>Whole files read through {@link JsonIO} and {@link JsonContext} are recorded; streams, which
+ * may never be consumed, are not. Accessor failures are recorded whether the accessor throws or
+ * records the failure in {@link JsonErrors}.</p>
+ */
+public interface JsonMetrics {
+  /**
+   * Installs {@code metrics}, replacing any installed listener.
+   *
+   * @param metrics the listener, or {@code null} to uninstall the installed listener
+   */
+  static void install(final @Nullable JsonMetrics metrics) {
+    Metrics.metrics = metrics;
+  }
+
+  /**
+   * Gets the installed listener.
+   *
+   * @return the listener, or {@code null} if none is installed
+   */
+  static @Nullable JsonMetrics installed() {
+    return Metrics.metrics;
+  }
+
+  /**
+   * Called when a file has been read.
+   *
+   * @param path the path
+   * @param bytes the size of the file, in bytes, or {@code -1} if it is unknown
+   * @param nanos the time taken to read and parse the file, in nanoseconds
+   */
+  default void read(final @NonNull Path path, final long bytes, final long nanos) {
+  }
+
+  /**
+   * Called when a file could not be read or parsed.
+   *
+   * @param path the path
+   * @param exception the exception which will be thrown
+   */
+  default void failed(final @NonNull Path path, final @NonNull Exception exception) {
+  }
+
+  /**
+   * Called when an accessor does not find the element {@code name}.
+   *
+   * @param name the name
+   */
+  default void missing(final @NonNull String name) {
+  }
+
+  /**
+   * Called when an accessor finds the element {@code name}, but it is not of the expected type.
+   *
+   * @param name the name, which for an element of an array is the name of the array
+   */
+  default void mismatch(final @NonNull String name) {
+  }
+}
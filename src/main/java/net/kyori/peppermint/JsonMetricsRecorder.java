@@ -0,0 +1,217 @@
+/*
+ * This file is part of peppermint, licensed under the MIT License.
+ *
+ * Copyright (c) 2018 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.peppermint;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A {@link JsonMetrics} which counts what it is told.
+ *
+ * <p>Every count is a {@link LongAdder}, so recording is cheap even when many threads read at
+ * once, and the counts may be read at any time. Read latencies are counted in a histogram of
+ * power-of-two buckets: bucket {@code i} counts reads which took less than <code>2<sup>i</sup></code>
+ * nanoseconds, and at least half as long.</p>
+ *
+ * <p>Accessor failures are counted per name. Names are expected to come from code rather than
+ * from the documents being read, as each distinct name is retained.</p>
+ */
+public final class JsonMetricsRecorder implements JsonMetrics {
+  /**
+   * The number of buckets in the latency histogram.
+   */
+  public static final int BUCKETS = 64;
+  private final LongAdder files = new LongAdder();
+  private final LongAdder bytes = new LongAdder();
+  private final LongAdder nanos = new LongAdder();
+  private final LongAdder failures = new LongAdder();
+  private final LongAdder[] latencies = new LongAdder[BUCKETS];
+  private final ConcurrentMap<String, LongAdder> missing = new ConcurrentHashMap<>();
+  private final ConcurrentMap<String, LongAdder> mismatches = new ConcurrentHashMap<>();
+
+  /**
+   * Creates a recorder with every count at zero.
+   */
+  public JsonMetricsRecorder() {
+    for(int i = 0; i < BUCKETS; i++) {
+      this.latencies[i] = new LongAdder();
+    }
+  }
+
+  @Override
+  public void read(final @NonNull Path path, final long bytes, final long nanos) {
+    this.files.increment();
+    if(bytes > 0) {
+      this.bytes.add(bytes);
+    }
+    this.nanos.add(nanos);
+    this.latencies[bucket(nanos)].increment();
+  }
+
+  @Override
+  public void failed(final @NonNull Path path, final @NonNull Exception exception) {
+    this.failures.increment();
+  }
+
+  @Override
+  public void missing(final @NonNull String name) {
+    this.missing.computeIfAbsent(name, key -> new LongAdder()).increment();
+  }
+
+  @Override
+  public void mismatch(final @NonNull String name) {
+    this.mismatches.computeIfAbsent(name, key -> new LongAdder()).increment();
+  }
+
+  /**
+   * Gets the histogram bucket which counts a read taking {@code nanos} nanoseconds.
+   *
+   * @param nanos the time taken, in nanoseconds
+   * @return the bucket
+   */
+  static int bucket(final long nanos) {
+    return nanos <= 0 ? 0 : Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(nanos));
+  }
+
+  /**
+   * Gets the number of files which have been read.
+   *
+   * @return the number of files
+   */
+  public long files() {
+    return this.files.sum();
+  }
+
+  /**
+   * Gets the total size of the files which have been read.
+   *
+   * @return the number of bytes
+   */
+  public long bytes() {
+    return this.bytes.sum();
+  }
+
+  /**
+   * Gets the total time taken to read files.
+   *
+   * @return the time, in nanoseconds
+   */
+  public long nanos() {
+    return this.nanos.sum();
+  }
+
+  /**
+   * Gets the number of files which could not be read or parsed.
+   *
+   * @return the number of failures
+   */
+  public long failures() {
+    return this.failures.sum();
+  }
+
+  /**
+   * Gets a snapshot of the latency histogram.
+   *
+   * @return an array of {@link #BUCKETS} counts
+   */
+  public long @NonNull [] latencies() {
+    final long[] latencies = new long[BUCKETS];
+    for(int i = 0; i < BUCKETS; i++) {
+      latencies[i] = this.latencies[i].sum();
+    }
+    return latencies;
+  }
+
+  /**
+   * Gets an upper bound on the time taken by a fraction of reads, from the latency histogram.
+   *
+   * @param fraction the fraction of reads, between {@code 0} and {@code 1}
+   * @return the time, in nanoseconds, within a factor of two, or {@code 0} if no files have been read
+   */
+  public long percentile(final double fraction) {
+    if(fraction < 0 || fraction > 1) {
+      throw new IllegalArgumentException("fraction must be between 0 and 1: " + fraction);
+    }
+    final long[] latencies = this.latencies();
+    long total = 0;
+    for(final long count : latencies) {
+      total += count;
+    }
+    final long target = (long) Math.ceil(total * fraction);
+    long seen = 0;
+    for(int i = 0; i < BUCKETS; i++) {
+      seen += latencies[i];
+      if(seen > 0 && seen >= target) {
+        return i == BUCKETS - 1 ? Long.MAX_VALUE : 1L << i;
+      }
+    }
+    return 0;
+  }
+
+  /**
+   * Gets a snapshot of the number of times each element was missing.
+   *
+   * @return a map of names to counts
+   */
+  public @NonNull Map<String, Long> missing() {
+    return snapshot(this.missing);
+  }
+
+  /**
+   * Gets a snapshot of the number of times each element was not of the expected type.
+   *
+   * @return a map of names to counts
+   */
+  public @NonNull Map<String, Long> mismatches() {
+    return snapshot(this.mismatches);
+  }
+
+  private static @NonNull Map<String, Long> snapshot(final @NonNull Map<String, LongAdder> counts) {
+    final Map<String, Long> snapshot = new HashMap<>(counts.size());
+    counts.forEach((name, count) -> snapshot.put(name, count.sum()));
+    return Collections.unmodifiableMap(snapshot);
+  }
+
+  /**
+   * Resets every count to zero.
+   */
+  public void reset() {
+    this.files.reset();
+    this.bytes.reset();
+    this.nanos.reset();
+    this.failures.reset();
+    for(final LongAdder latency : this.latencies) {
+      latency.reset();
+    }
+    this.missing.clear();
+    this.mismatches.clear();
+  }
+}
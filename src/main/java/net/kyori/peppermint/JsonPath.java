@@ -0,0 +1,435 @@
+/*
+ * This file is part of peppermint, licensed under the MIT License.
+ *
+ * Copyright (c) 2018 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.peppermint;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonSyntaxException;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A compiled path to an element nested within a JSON element.
+ *
+ * <p>A path is a sequence of segments. A name segment selects a member of an object, and
+ * an index segment selects an element of an array:</p>
+ * <ul>
+ *   <li>{@code a.b} - the member {@code b} of the member {@code a}</li>
+ *   <li>{@code a[3]} - the fourth element of the member {@code a}</li>
+ *   <li>{@code a["b.c"]} - the member {@code b.c} of the member {@code a}</li>
+ * </ul>
+ *
+ * <p>A path is parsed once, and can then be evaluated against any number of
+ * elements without allocating. The accessors mirror those in {@link Json},
+ * and report errors using the full path as the name.</p>
+ */
+public final class JsonPath {
+  private final String path;
+  private final @Nullable String[] names;
+  private final int[] indices;
+
+  private JsonPath(final @NonNull String path, final @Nullable String[] names, final int[] indices) {
+    this.path = path;
+    this.names = names;
+    this.indices = indices;
+  }
+
+  /**
+   * Compiles a path.
+   *
+   * @param path the path
+   * @return a path
+   * @throws IllegalArgumentException if {@code path} is malformed
+   */
+  public static @NonNull JsonPath compile(final @NonNull String path) {
+    final List<String> names = new ArrayList<>();
+    final List<Integer> indices = new ArrayList<>();
+    final int length = path.length();
+    int i = 0;
+    while(i < length) {
+      final char c = path.charAt(i);
+      if(c == '[') {
+        i++;
+        if(i < length && (path.charAt(i) == '"' || path.charAt(i) == '\'')) {
+          final char quote = path.charAt(i++);
+          final StringBuilder name = new StringBuilder();
+          while(true) {
+            if(i >= length) {
+              throw new IllegalArgumentException("Unterminated name in path " + path);
+            }
+            final char n = path.charAt(i++);
+            if(n == quote) {
+              break;
+            } else if(n == '\\' && i < length) {
+              name.append(path.charAt(i++));
+            } else {
+              name.append(n);
+            }
+          }
+          names.add(name.toString());
+          indices.add(-1);
+        } else {
+          final int start = i;
+          while(i < length && path.charAt(i) >= '0' && path.charAt(i) <= '9') {
+            i++;
+          }
+          if(i == start || i - start > 9) {
+            throw new IllegalArgumentException("Invalid index at " + start + " in path " + path);
+          }
+          names.add(null);
+          indices.add(Integer.parseInt(path.substring(start, i)));
+        }
+        if(i >= length || path.charAt(i) != ']') {
+          throw new IllegalArgumentException("Expected ']' at " + i + " in path " + path);
+        }
+        i++;
+        if(i < length && path.charAt(i) != '.' && path.charAt(i) != '[') {
+          throw new IllegalArgumentException("Expected '.' or '[' at " + i + " in path " + path);
+        }
+        if(i < length && path.charAt(i) == '.') {
+          i++;
+          if(i == length) {
+            throw new IllegalArgumentException("Path " + path + " cannot end with '.'");
+          }
+        }
+      } else {
+        final int start = i;
+        while(i < length && path.charAt(i) != '.' && path.charAt(i) != '[') {
+          i++;
+        }
+        if(i == start) {
+          throw new IllegalArgumentException("Empty name at " + start + " in path " + path);
+        }
+        names.add(path.substring(start, i));
+        indices.add(-1);
+        if(i < length && path.charAt(i) == '.') {
+          i++;
+          if(i == length) {
+            throw new IllegalArgumentException("Path " + path + " cannot end with '.'");
+          }
+        }
+      }
+    }
+    final int[] indexArray = new int[indices.size()];
+    for(int j = 0; j < indexArray.length; j++) {
+      indexArray[j] = indices.get(j);
+    }
+    return new JsonPath(path, names.toArray(new String[0]), indexArray);
+  }
+
+  /**
+   * Gets the number of segments in this path.
+   *
+   * @return the number of segments
+   */
+  public int size() {
+    return this.indices.length;
+  }
+
+  /**
+   * Gets the name selected by a segment.
+   *
+   * @param index the index of the segment
+   * @return the name, or {@code null} if the segment selects an array element
+   */
+  public @Nullable String name(final int index) {
+    return this.names[index];
+  }
+
+  /**
+   * Gets the array index selected by a segment.
+   *
+   * @param index the index of the segment
+   * @return the array index, or {@code -1} if the segment selects an object member
+   */
+  public int index(final int index) {
+    return this.indices[index];
+  }
+
+  /**
+   * Finds the element this path points to within {@code json}.
+   *
+   * @param json the json
+   * @return the element, or {@code null} if there is no such element
+   */
+  public @Nullable JsonElement find(final @NonNull JsonElement json) {
+    JsonElement element = json;
+    for(int i = 0, size = this.indices.length; i < size; i++) {
+      final String name = this.names[i];
+      if(name != null) {
+        if(!element.isJsonObject()) {
+          return null;
+        }
+        element = element.getAsJsonObject().get(name);
+        if(element == null) {
+          return null;
+        }
+      } else {
+        if(!element.isJsonArray()) {
+          return null;
+        }
+        final JsonArray array = element.getAsJsonArray();
+        final int index = this.indices[i];
+        if(index >= array.size()) {
+          return null;
+        }
+        element = array.get(index);
+      }
+    }
+    return element;
+  }
+
+  /**
+   * Tests if the element this path points to within {@code json} exists.
+   *
+   * @param json the json
+   * @return {@code true} if the element exists, {@code false} otherwise
+   */
+  public boolean has(final @NonNull JsonElement json) {
+    return this.find(json) != null;
+  }
+
+  /**
+   * Tests if the element this path points to within {@code json} is non-null.
+   *
+   * @param json the json
+   * @return {@code true} if the element is non-null, {@code false} otherwise
+   */
+  public boolean hasNonNull(final @NonNull JsonElement json) {
+    final JsonElement element = this.find(json);
+    return element != null && !element.isJsonNull();
+  }
+
+  private @NonNull JsonElement need(final @NonNull JsonElement json, final @NonNull String expected) {
+    final JsonElement element = this.find(json);
+    if(element == null) {
+      Metrics.missing(this.path);
+      throw new JsonSyntaxException("Missing " + this.path + ", expected to find " + expected);
+    }
+    return element;
+  }
+
+  /**
+   * Gets the element this path points to within {@code json} as an array.
+   *
+   * @param json the json
+   * @return an array
+   */
+  public @NonNull JsonArray needArray(final @NonNull JsonElement json) {
+    final JsonElement element = this.need(json, "an array");
+    if(element.isJsonArray()) {
+      return element.getAsJsonArray();
+    }
+    Metrics.mismatch(this.path);
+    throw new JsonSyntaxException("Expected " + this.path + " to be an array");
+  }
+
+  /**
+   * Gets the element this path points to within {@code json} as an object.
+   *
+   * @param json the json
+   * @return an object
+   */
+  public @NonNull JsonObject needObject(final @NonNull JsonElement json) {
+    final JsonElement element = this.need(json, "an object");
+    if(element.isJsonObject()) {
+      return element.getAsJsonObject();
+    }
+    Metrics.mismatch(this.path);
+    throw new JsonSyntaxException("Expected " + this.path + " to be an object");
+  }
+
+  /**
+   * Gets the element this path points to within {@code json} as a boolean.
+   *
+   * @param json the json
+   * @return a boolean
+   */
+  public boolean needBoolean(final @NonNull JsonElement json) {
+    return Json.needBoolean(this.need(json, "a boolean"), this.path);
+  }
+
+  /**
+   * Gets the element this path points to within {@code json} as a boolean.
+   *
+   * @param json the json
+   * @param defaultValue the default value
+   * @return a boolean
+   */
+  public boolean getBoolean(final @NonNull JsonElement json, final boolean defaultValue) {
+    final JsonElement element = this.find(json);
+    return element != null ? Json.needBoolean(element, this.path) : defaultValue;
+  }
+
+  /**
+   * Gets the element this path points to within {@code json} as a byte.
+   *
+   * @param json the json
+   * @return a byte
+   */
+  public byte needByte(final @NonNull JsonElement json) {
+    return Json.needByte(this.need(json, "a byte"), this.path);
+  }
+
+  /**
+   * Gets the element this path points to within {@code json} as a byte.
+   *
+   * @param json the json
+   * @param defaultValue the default value
+   * @return a byte
+   */
+  public byte getByte(final @NonNull JsonElement json, final byte defaultValue) {
+    final JsonElement element = this.find(json);
+    return element != null ? Json.needByte(element, this.path) : defaultValue;
+  }
+
+  /**
+   * Gets the element this path points to within {@code json} as a double.
+   *
+   * @param json the json
+   * @return a double
+   */
+  public double needDouble(final @NonNull JsonElement json) {
+    return Json.needDouble(this.need(json, "a double"), this.path);
+  }
+
+  /**
+   * Gets the element this path points to within {@code json} as a double.
+   *
+   * @param json the json
+   * @param defaultValue the default value
+   * @return a double
+   */
+  public double getDouble(final @NonNull JsonElement json, final double defaultValue) {
+    final JsonElement element = this.find(json);
+    return element != null ? Json.needDouble(element, this.path) : defaultValue;
+  }
+
+  /**
+   * Gets the element this path points to within {@code json} as a float.
+   *
+   * @param json the json
+   * @return a float
+   */
+  public float needFloat(final @NonNull JsonElement json) {
+    return Json.needFloat(this.need(json, "a float"), this.path);
+  }
+
+  /**
+   * Gets the element this path points to within {@code json} as a float.
+   *
+   * @param json the json
+   * @param defaultValue the default value
+   * @return a float
+   */
+  public float getFloat(final @NonNull JsonElement json, final float defaultValue) {
+    final JsonElement element = this.find(json);
+    return element != null ? Json.needFloat(element, this.path) : defaultValue;
+  }
+
+  /**
+   * Gets the element this path points to within {@code json} as an int.
+   *
+   * @param json the json
+   * @return an int
+   */
+  public int needInt(final @NonNull JsonElement json) {
+    return Json.needInt(this.need(json, "an int"), this.path);
+  }
+
+  /**
+   * Gets the element this path points to within {@code json} as an int.
+   *
+   * @param json the json
+   * @param defaultValue the default value
+   * @return an int
+   */
+  public int getInt(final @NonNull JsonElement json, final int defaultValue) {
+    final JsonElement element = this.find(json);
+    return element != null ? Json.needInt(element, this.path) : defaultValue;
+  }
+
+  /**
+   * Gets the element this path points to within {@code json} as a long.
+   *
+   * @param json the json
+   * @return a long
+   */
+  public long needLong(final @NonNull JsonElement json) {
+    return Json.needLong(this.need(json, "a long"), this.path);
+  }
+
+  /**
+   * Gets the element this path points to within {@code json} as a long.
+   *
+   * @param json the json
+   * @param defaultValue the default value
+   * @return a long
+   */
+  public long getLong(final @NonNull JsonElement json, final long defaultValue) {
+    final JsonElement element = this.find(json);
+    return element != null ? Json.needLong(element, this.path) : defaultValue;
+  }
+
+  /**
+   * Gets the element this path points to within {@code json} as a string.
+   *
+   * @param json the json
+   * @return a string
+   */
+  public @NonNull String needString(final @NonNull JsonElement json) {
+    return Json.needString(this.need(json, "a string"), this.path);
+  }
+
+  /**
+   * Gets the element this path points to within {@code json} as a string.
+   *
+   * @param json the json
+   * @param defaultValue the default value
+   * @return a string
+   */
+  public /* @Nullable */ String getString(final @NonNull JsonElement json, final @Nullable String defaultValue) {
+    final JsonElement element = this.find(json);
+    return element != null && !element.isJsonNull() ? Json.needString(element, this.path) : defaultValue;
+  }
+
+  @Override
+  public boolean equals(final Object other) {
+    return this == other || (other instanceof JsonPath && this.path.equals(((JsonPath) other).path));
+  }
+
+  @Override
+  public int hashCode() {
+    return this.path.hashCode();
+  }
+
+  @Override
+  public String toString() {
+    return this.path;
+  }
+}
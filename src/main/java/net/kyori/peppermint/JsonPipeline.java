@@ -0,0 +1,404 @@
+/*
+ * This file is part of peppermint, licensed under the MIT License.
+ *
+ * Copyright (c) 2018 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.peppermint;
+
+import com.google.gson.JsonElement;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Parses and decodes JSON documents concurrently, handing the decoded values to a sink in batches.
+ *
+ * <p>Sources are submitted to a bounded queue, which a fixed number of workers take from.
+ * A submission blocks while the queue is full, so a producer cannot outrun the workers: at
+ * most the capacity of the queue plus a batch per worker is held in memory at once.</p>
+ *
+ * <p>Workers only block on the queue, and run on the executor they are given - a fixed pool
+ * of platform threads, or an executor which starts a virtual thread per task. Each worker
+ * parses with the buffers its thread keeps in the {@link JsonContext}.</p>
+ *
+ * <p>The sink is called by one worker at a time. A worker hands over its batch once it is
+ * full, or once the queue is empty, so values do not wait for a batch to fill while the
+ * pipeline is idle.</p>
+ *
+ * <p>A worker which fails with an {@link Error} stops, and the error is thrown from
+ * {@link #close()}. Once no workers remain, a submission fails rather than waiting for
+ * space in the queue forever.</p>
+ *
+ * @param <T> the value type
+ */
+public final class JsonPipeline<T> implements AutoCloseable {
+  // tells a worker to stop once the sources before it have been taken
+  private static final Object STOP = new Object();
+  // how often a blocked submission checks that there are still workers to take from the queue
+  private static final long WAIT_MILLIS = 100;
+  private final JsonContext context;
+  private final JsonDecoder<T> decoder;
+  private final Consumer<List<T>> sink;
+  private final @Nullable BiConsumer<Object, Exception> failures;
+  private final int batchSize;
+  private final BlockingQueue<Object> queue;
+  private final CountDownLatch stopped;
+  // a lock rather than a monitor, so a virtual thread waiting for the sink does not pin its carrier
+  private final Lock sinkLock = new ReentrantLock();
+  private final LongAdder completed = new LongAdder();
+  private final LongAdder failed = new LongAdder();
+  private final AtomicReference<Throwable> failure = new AtomicReference<>();
+  private volatile boolean closed;
+
+  private JsonPipeline(final @NonNull Builder<T> builder) {
+    this.context = builder.context;
+    this.decoder = builder.decoder;
+    this.sink = builder.sink;
+    this.failures = builder.failures;
+    this.batchSize = builder.batchSize;
+    this.queue = new ArrayBlockingQueue<>(builder.capacity);
+    this.stopped = new CountDownLatch(builder.workers);
+    for(int i = 0; i < builder.workers; i++) {
+      try {
+        builder.executor.execute(this::work);
+      } catch(final RuntimeException e) {
+        // stop the workers which did start
+        for(int j = 0; j < i; j++) {
+          this.queue.offer(STOP);
+        }
+        throw e;
+      }
+    }
+  }
+
+  /**
+   * Creates a builder.
+   *
+   * @param executor the executor to run the workers on, which must be able to run all of them at once
+   * @param decoder the decoder to decode each document with
+   * @param sink the sink to hand batches of decoded values to
+   * @param <T> the value type
+   * @return a builder
+   */
+  public static <T> @NonNull Builder<T> builder(final @NonNull Executor executor, final @NonNull JsonDecoder<T> decoder, final @NonNull Consumer<List<T>> sink) {
+    return new Builder<>(executor, decoder, sink);
+  }
+
+  /**
+   * Submits a file, blocking while the queue is full.
+   *
+   * @param path the path
+   * @throws InterruptedException if interrupted while waiting
+   * @throws IllegalStateException if this pipeline has been closed, or has no workers left
+   */
+  public void submit(final @NonNull Path path) throws InterruptedException {
+    this.put(path);
+  }
+
+  /**
+   * Submits a document, blocking while the queue is full.
+   *
+   * @param bytes the bytes of the document, which must not be modified until it has been parsed
+   * @throws InterruptedException if interrupted while waiting
+   * @throws IllegalStateException if this pipeline has been closed, or has no workers left
+   */
+  public void submit(final byte @NonNull [] bytes) throws InterruptedException {
+    this.put(bytes);
+  }
+
+  /**
+   * Submits a stream, blocking while the queue is full.
+   *
+   * @param in the stream, which is closed once it has been parsed
+   * @throws InterruptedException if interrupted while waiting
+   * @throws IllegalStateException if this pipeline has been closed, or has no workers left
+   */
+  public void submit(final @NonNull InputStream in) throws InterruptedException {
+    this.put(in);
+  }
+
+  private void put(final @NonNull Object source) throws InterruptedException {
+    if(this.closed) {
+      throw new IllegalStateException("The pipeline has been closed");
+    }
+    while(!this.queue.offer(source, WAIT_MILLIS, TimeUnit.MILLISECONDS)) {
+      if(this.stopped.getCount() == 0) {
+        throw new IllegalStateException("The pipeline has no workers left", this.failure.get());
+      }
+    }
+  }
+
+  /**
+   * Gets the number of documents which have been decoded.
+   *
+   * @return the number of documents
+   */
+  public long completed() {
+    return this.completed.sum();
+  }
+
+  /**
+   * Gets the number of documents which could not be parsed or decoded, and batches which the sink failed to accept.
+   *
+   * @return the number of failures
+   */
+  public long failed() {
+    return this.failed.sum();
+  }
+
+  /**
+   * Stops accepting sources, and waits for the workers to finish the sources already submitted.
+   *
+   * <p>Sources must not be submitted while the pipeline is being closed. An interrupt does not
+   * stop the wait, but is restored once it is over.</p>
+   *
+   * @throws CompletionException if there was a failure which no failure handler was set for, or a worker failed with an error, caused by the first failure
+   */
+  @Override
+  public void close() {
+    boolean interrupted = false;
+    try {
+      if(!this.closed) {
+        this.closed = true;
+        // workers which have failed do not need to be stopped, and will not make space in the queue
+        for(long i = this.stopped.getCount(); i > 0 && this.stopped.getCount() > 0; ) {
+          try {
+            if(this.queue.offer(STOP, WAIT_MILLIS, TimeUnit.MILLISECONDS)) {
+              i--;
+            }
+          } catch(final InterruptedException e) {
+            interrupted = true;
+          }
+        }
+      }
+      while(true) {
+        try {
+          this.stopped.await();
+          break;
+        } catch(final InterruptedException e) {
+          interrupted = true;
+        }
+      }
+    } finally {
+      if(interrupted) {
+        Thread.currentThread().interrupt();
+      }
+    }
+    final Throwable failure = this.failure.get();
+    if(failure != null) {
+      throw new CompletionException(failure);
+    }
+  }
+
+  private void work() {
+    List<T> batch = new ArrayList<>(this.batchSize);
+    try {
+      while(true) {
+        Object source = this.queue.poll();
+        if(source == null) {
+          // hand over what has been decoded before waiting
+          batch = this.flush(batch);
+          source = this.queue.take();
+        }
+        if(source == STOP) {
+          break;
+        }
+        try {
+          batch.add(this.decoder.decode(this.parse(source).getAsJsonObject()));
+          this.completed.increment();
+        } catch(final Exception e) {
+          this.fail(source, e);
+        }
+        if(batch.size() == this.batchSize) {
+          batch = this.flush(batch);
+        }
+      }
+      this.flush(batch);
+    } catch(final InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch(final Throwable t) {
+      this.failure.compareAndSet(null, t);
+      throw t;
+    } finally {
+      this.stopped.countDown();
+    }
+  }
+
+  private @NonNull JsonElement parse(final @NonNull Object source) throws IOException {
+    if(source instanceof Path) {
+      return this.context.read((Path) source);
+    } else if(source instanceof byte[]) {
+      return this.context.parse(new ByteArrayInputStream((byte[]) source));
+    }
+    return this.context.parse((InputStream) source);
+  }
+
+  // hands a batch to the sink, returning the list to collect the next batch in
+  private @NonNull List<T> flush(final @NonNull List<T> batch) {
+    if(batch.isEmpty()) {
+      return batch;
+    }
+    try {
+      this.sinkLock.lock();
+      try {
+        this.sink.accept(batch);
+      } finally {
+        this.sinkLock.unlock();
+      }
+    } catch(final RuntimeException e) {
+      this.fail(batch, e);
+    }
+    return new ArrayList<>(this.batchSize);
+  }
+
+  private void fail(final @NonNull Object source, final @NonNull Exception exception) {
+    this.failed.increment();
+    if(this.failures != null) {
+      try {
+        this.failures.accept(source, exception);
+      } catch(final RuntimeException e) {
+        // the worker carries on, and the handler's failure is thrown from close instead
+        e.addSuppressed(exception);
+        this.failure.compareAndSet(null, e);
+      }
+    } else {
+      this.failure.compareAndSet(null, exception);
+    }
+  }
+
+  /**
+   * A builder of {@link JsonPipeline}s.
+   *
+   * @param <T> the value type
+   */
+  public static final class Builder<T> {
+    private final Executor executor;
+    private final JsonDecoder<T> decoder;
+    private final Consumer<List<T>> sink;
+    private JsonContext context = JsonContext.DEFAULT;
+    private @Nullable BiConsumer<Object, Exception> failures;
+    private int workers = Runtime.getRuntime().availableProcessors();
+    private int capacity = 1024;
+    private int batchSize = 256;
+
+    private Builder(final @NonNull Executor executor, final @NonNull JsonDecoder<T> decoder, final @NonNull Consumer<List<T>> sink) {
+      this.executor = executor;
+      this.decoder = decoder;
+      this.sink = sink;
+    }
+
+    /**
+     * Sets the context to parse with. Defaults to {@link JsonContext#DEFAULT}.
+     *
+     * @param context the context
+     * @return this builder
+     */
+    public @NonNull Builder<T> context(final @NonNull JsonContext context) {
+      this.context = context;
+      return this;
+    }
+
+    /**
+     * Sets the number of workers. Defaults to the number of available processors.
+     *
+     * @param workers the number of workers
+     * @return this builder
+     */
+    public @NonNull Builder<T> workers(final int workers) {
+      if(workers < 1) {
+        throw new IllegalArgumentException("workers must be at least 1");
+      }
+      this.workers = workers;
+      return this;
+    }
+
+    /**
+     * Sets the number of sources which may wait to be parsed before a submission blocks. Defaults to 1024.
+     *
+     * @param capacity the capacity
+     * @return this builder
+     */
+    public @NonNull Builder<T> capacity(final int capacity) {
+      if(capacity < 1) {
+        throw new IllegalArgumentException("capacity must be at least 1");
+      }
+      this.capacity = capacity;
+      return this;
+    }
+
+    /**
+     * Sets the maximum number of values handed to the sink at once. Defaults to 256.
+     *
+     * @param batchSize the batch size
+     * @return this builder
+     */
+    public @NonNull Builder<T> batchSize(final int batchSize) {
+      if(batchSize < 1) {
+        throw new IllegalArgumentException("batchSize must be at least 1");
+      }
+      this.batchSize = batchSize;
+      return this;
+    }
+
+    /**
+     * Sets the handler of failures, which is given the source of a document which could not be
+     * parsed or decoded, or a batch which the sink failed to accept, and the exception.
+     *
+     * <p>Without a handler, the first failure is thrown from {@link JsonPipeline#close()}. A
+     * handler which throws does not stop the worker calling it, and what it throws is thrown
+     * from {@code close()} instead.</p>
+     *
+     * @param failures the handler, which may be called by several workers at once
+     * @return this builder
+     */
+    public @NonNull Builder<T> failures(final @Nullable BiConsumer<Object, Exception> failures) {
+      this.failures = failures;
+      return this;
+    }
+
+    /**
+     * Builds a pipeline, and starts its workers.
+     *
+     * @return a pipeline
+     */
+    public @NonNull JsonPipeline<T> build() {
+      return new JsonPipeline<>(this);
+    }
+  }
+}
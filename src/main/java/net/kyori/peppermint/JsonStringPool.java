@@ -0,0 +1,156 @@
+/*
+ * This file is part of peppermint, licensed under the MIT License.
+ *
+ * Copyright (c) 2018 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.peppermint;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded, thread-safe pool used to deduplicate the strings of parsed JSON trees.
+ *
+ * <p>The pool is a fixed-size table indexed by hash code, in which a string displaces
+ * any other string in its slot. It never grows beyond its capacity, and lookups do not
+ * lock. Strings longer than the maximum length are not pooled.</p>
+ *
+ * @see JsonIO#read(java.nio.file.Path, JsonStringPool)
+ */
+public final class JsonStringPool {
+  /**
+   * The default maximum length of a pooled string.
+   */
+  public static final int DEFAULT_MAXIMUM_LENGTH = 64;
+  private final AtomicReferenceArray<String> table;
+  private final int mask;
+  private final int maximumLength;
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder bytesSaved = new LongAdder();
+
+  /**
+   * Creates a pool.
+   *
+   * @param capacity the capacity, which is rounded up to a power of two
+   */
+  public JsonStringPool(final int capacity) {
+    this(capacity, DEFAULT_MAXIMUM_LENGTH);
+  }
+
+  /**
+   * Creates a pool.
+   *
+   * @param capacity the capacity, which is rounded up to a power of two
+   * @param maximumLength the maximum length of a pooled string
+   */
+  public JsonStringPool(final int capacity, final int maximumLength) {
+    if(capacity < 1 || capacity > 1 << 30) {
+      throw new IllegalArgumentException("capacity must be between 1 and 2^30");
+    }
+    final int size = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+    this.table = new AtomicReferenceArray<>(size);
+    this.mask = size - 1;
+    this.maximumLength = maximumLength;
+  }
+
+  /**
+   * Gets the pooled instance equal to {@code string}, pooling {@code string} if there is none.
+   *
+   * @param string the string
+   * @return the pooled string, or {@code string}
+   */
+  public @NonNull String intern(final @NonNull String string) {
+    if(string.length() > this.maximumLength) {
+      return string;
+    }
+    final int hash = string.hashCode();
+    final int index = (hash ^ (hash >>> 16)) & this.mask;
+    final String pooled = this.table.get(index);
+    if(pooled != null && pooled.equals(string)) {
+      this.hits.increment();
+      this.bytesSaved.add(size(string));
+      return pooled;
+    }
+    this.table.lazySet(index, string);
+    this.misses.increment();
+    return string;
+  }
+
+  /**
+   * Gets the number of lookups which returned a pooled string.
+   *
+   * @return the number of hits
+   */
+  public long hits() {
+    return this.hits.sum();
+  }
+
+  /**
+   * Gets the number of lookups which did not return a pooled string.
+   *
+   * @return the number of misses
+   */
+  public long misses() {
+    return this.misses.sum();
+  }
+
+  /**
+   * Gets the ratio of hits to lookups.
+   *
+   * @return the hit rate, between {@code 0} and {@code 1}
+   */
+  public double hitRate() {
+    final long hits = this.hits.sum();
+    final long lookups = hits + this.misses.sum();
+    return lookups == 0 ? 0 : (double) hits / lookups;
+  }
+
+  /**
+   * Gets an estimate of the number of bytes saved by returning pooled strings in place of duplicates.
+   *
+   * <p>Each duplicate is counted as a string and its backing array of two-byte characters.</p>
+   *
+   * @return the estimated number of bytes saved
+   */
+  public long bytesSaved() {
+    return this.bytesSaved.sum();
+  }
+
+  /**
+   * Removes all pooled strings and resets the counters.
+   */
+  public void clear() {
+    for(int i = 0, length = this.table.length(); i < length; i++) {
+      this.table.lazySet(i, null);
+    }
+    this.hits.reset();
+    this.misses.reset();
+    this.bytesSaved.reset();
+  }
+
+  private static long size(final @NonNull String string) {
+    // object header, hash and array reference, plus the array header and its contents
+    return 24 + 16 + ((2L * string.length() + 7) & ~7);
+  }
+}
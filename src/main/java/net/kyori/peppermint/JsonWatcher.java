@@ -0,0 +1,316 @@
+/*
+ * This file is part of peppermint, licensed under the MIT License.
+ *
+ * Copyright (c) 2018 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.peppermint;
+
+import com.google.gson.JsonObject;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches the JSON objects in a directory, re-reading only the files which change.
+ *
+ * <p>Changes are detected with a {@link WatchService} rather than by polling. Events for
+ * a file are coalesced until it has been quiet for the debounce period, so a burst of
+ * writes results in a single read. A file is only reported as changed if its contents
+ * differ from the object last read from it.</p>
+ *
+ * <p>Listeners are notified on the executor given to the watcher. Notifications for a
+ * file are made in order when the executor runs tasks in order. A notification which the
+ * executor rejects is dropped, and the watcher carries on.</p>
+ *
+ * <p>A file which cannot be read, whether when the watcher starts or after it changes, is
+ * left out until it can be read.</p>
+ */
+public final class JsonWatcher implements Closeable {
+  /**
+   * The default debounce period.
+   */
+  public static final Duration DEFAULT_DEBOUNCE = Duration.ofMillis(100);
+  private final Path directory;
+  private final PathMatcher matcher;
+  private final long debounce;
+  private final Executor executor;
+  private final WatchService service;
+  private final Map<Path, JsonObject> objects = new ConcurrentHashMap<>();
+  private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+  private final Thread thread;
+  private volatile boolean closed;
+
+  /**
+   * Creates a watcher with the {@link #DEFAULT_DEBOUNCE default debounce period}, and starts watching.
+   *
+   * @param directory the directory
+   * @param glob the glob pattern file names must match
+   * @param executor the executor listeners are notified on
+   * @throws IOException if an exception occurred while watching or listing the directory
+   */
+  public JsonWatcher(final @NonNull Path directory, final @NonNull String glob, final @NonNull Executor executor) throws IOException {
+    this(directory, glob, DEFAULT_DEBOUNCE, executor);
+  }
+
+  /**
+   * Creates a watcher, and starts watching.
+   *
+   * <p>The files in {@code directory} which match {@code glob} are read before this constructor
+   * returns. Files which cannot be read are left out, and reported as created once they can be.</p>
+   *
+   * @param directory the directory
+   * @param glob the glob pattern file names must match
+   * @param debounce the period a file must be quiet for before it is read
+   * @param executor the executor listeners are notified on
+   * @throws IOException if an exception occurred while watching or listing the directory
+   * @see java.nio.file.FileSystem#getPathMatcher(String)
+   */
+  public JsonWatcher(final @NonNull Path directory, final @NonNull String glob, final @NonNull Duration debounce, final @NonNull Executor executor) throws IOException {
+    if(debounce.isNegative()) {
+      throw new IllegalArgumentException("debounce cannot be negative");
+    }
+    this.directory = directory;
+    this.matcher = directory.getFileSystem().getPathMatcher("glob:" + glob);
+    this.debounce = debounce.toNanos();
+    this.executor = executor;
+    this.service = directory.getFileSystem().newWatchService();
+    try {
+      // register before reading, so that a change made while reading is not missed
+      directory.register(this.service, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_DELETE, StandardWatchEventKinds.ENTRY_MODIFY);
+      try(final DirectoryStream<Path> stream = Files.newDirectoryStream(directory, glob)) {
+        for(final Path path : stream) {
+          if(Files.isRegularFile(path)) {
+            try {
+              this.objects.put(path, JsonIO.readObject(path));
+            } catch(final IOException | RuntimeException e) {
+              // as when a file changes, a file which cannot be read is left out until it can be
+            }
+          }
+        }
+      }
+    } catch(final IOException | RuntimeException e) {
+      this.service.close();
+      throw e;
+    }
+    this.thread = new Thread(this::run, "peppermint-json-watcher");
+    this.thread.setDaemon(true);
+    this.thread.start();
+  }
+
+  /**
+   * Gets the object last read from {@code path}.
+   *
+   * @param path the path
+   * @return the object, or {@code null} if there is no such file
+   */
+  public @Nullable JsonObject get(final @NonNull Path path) {
+    return this.objects.get(path);
+  }
+
+  /**
+   * Gets the objects last read from each file, by path.
+   *
+   * <p>The objects are shared, and must not be modified.</p>
+   *
+   * @return the objects
+   */
+  public @NonNull Map<Path, JsonObject> objects() {
+    return Collections.unmodifiableMap(this.objects);
+  }
+
+  /**
+   * Adds a listener.
+   *
+   * @param listener the listener
+   */
+  public void addListener(final @NonNull Listener listener) {
+    this.listeners.add(listener);
+  }
+
+  /**
+   * Removes a listener.
+   *
+   * @param listener the listener
+   */
+  public void removeListener(final @NonNull Listener listener) {
+    this.listeners.remove(listener);
+  }
+
+  private void run() {
+    // the time, from System#nanoTime, at which each changed file may be read
+    final Map<Path, Long> pending = new HashMap<>();
+    try {
+      while(!this.closed) {
+        final WatchKey key;
+        if(pending.isEmpty()) {
+          key = this.service.take();
+        } else {
+          final long now = System.nanoTime();
+          long wait = Long.MAX_VALUE;
+          for(final long deadline : pending.values()) {
+            wait = Math.min(wait, deadline - now);
+          }
+          key = wait > 0 ? this.service.poll(wait, TimeUnit.NANOSECONDS) : this.service.poll();
+        }
+        if(key != null) {
+          final long deadline = System.nanoTime() + this.debounce;
+          for(final WatchEvent<?> event : key.pollEvents()) {
+            if(event.kind() == StandardWatchEventKinds.OVERFLOW) {
+              // events were lost, so every file may have changed
+              this.scan(pending, deadline);
+            } else {
+              final Path path = this.directory.resolve((Path) event.context());
+              if(this.matcher.matches(path.getFileName())) {
+                pending.put(path, deadline);
+              }
+            }
+          }
+          key.reset();
+        }
+        final long now = System.nanoTime();
+        for(final Iterator<Map.Entry<Path, Long>> it = pending.entrySet().iterator(); it.hasNext(); ) {
+          final Map.Entry<Path, Long> entry = it.next();
+          if(entry.getValue() - now <= 0) {
+            it.remove();
+            this.reload(entry.getKey());
+          }
+        }
+      }
+    } catch(final ClosedWatchServiceException | InterruptedException e) {
+      // closed
+    }
+  }
+
+  private void scan(final @NonNull Map<Path, Long> pending, final long deadline) {
+    for(final Path path : this.objects.keySet()) {
+      pending.put(path, deadline);
+    }
+    try(final DirectoryStream<Path> stream = Files.newDirectoryStream(this.directory)) {
+      for(final Path path : stream) {
+        if(this.matcher.matches(path.getFileName())) {
+          pending.put(path, deadline);
+        }
+      }
+    } catch(final IOException e) {
+      // files which are known are still checked
+    }
+  }
+
+  private void reload(final @NonNull Path path) {
+    final JsonObject previous = this.objects.get(path);
+    final JsonObject current;
+    if(Files.isRegularFile(path)) {
+      try {
+        current = JsonIO.readObject(path);
+      } catch(final IOException | RuntimeException e) {
+        // the previous object is kept until the file can be read
+        this.dispatch(() -> {
+          for(final Listener listener : this.listeners) {
+            listener.failed(path, e);
+          }
+        });
+        return;
+      }
+      if(current.equals(previous)) {
+        return;
+      }
+      this.objects.put(path, current);
+    } else {
+      current = null;
+      if(this.objects.remove(path) == null) {
+        return;
+      }
+    }
+    this.dispatch(() -> {
+      for(final Listener listener : this.listeners) {
+        listener.changed(path, previous, current);
+      }
+    });
+  }
+
+  // notifies listeners on the executor, which must not stop the watcher if it fails
+  private void dispatch(final @NonNull Runnable notification) {
+    try {
+      this.executor.execute(notification);
+    } catch(final RuntimeException e) {
+      // the notification is dropped, but later changes are still reported
+    }
+  }
+
+  /**
+   * Stops watching.
+   *
+   * @throws IOException if an exception occurred while closing the watch service
+   */
+  @Override
+  public void close() throws IOException {
+    this.closed = true;
+    this.service.close();
+    this.thread.interrupt();
+  }
+
+  /**
+   * A listener for changes to watched files.
+   */
+  @FunctionalInterface
+  public interface Listener {
+    /**
+     * Called when a file is created, modified or deleted.
+     *
+     * @param path the path
+     * @param previous the previous object, or {@code null} if the file was created
+     * @param current the current object, or {@code null} if the file was deleted
+     */
+    void changed(final @NonNull Path path, final @Nullable JsonObject previous, final @Nullable JsonObject current);
+
+    /**
+     * Called when a file which changed could not be read.
+     *
+     * <p>The previous object for the file is kept until it can be read.</p>
+     *
+     * @param path the path
+     * @param exception the exception
+     */
+    default void failed(final @NonNull Path path, final @NonNull Exception exception) {
+    }
+  }
+}
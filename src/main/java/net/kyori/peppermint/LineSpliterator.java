@@ -0,0 +1,114 @@
+/*
+ * This file is part of peppermint, licensed under the MIT License.
+ *
+ * Copyright (c) 2018 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.peppermint;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonIOException;
+import com.google.gson.JsonSyntaxException;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A spliterator which parses newline-delimited JSON, one element per line.
+ *
+ * <p>Blank lines are skipped.</p>
+ */
+final class LineSpliterator extends Spliterators.AbstractSpliterator<JsonElement> {
+  private final BufferedReader reader;
+  private long line;
+
+  private LineSpliterator(final @NonNull BufferedReader reader) {
+    super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+    this.reader = reader;
+  }
+
+  /**
+   * Creates a stream of the elements on the lines read by {@code reader}.
+   *
+   * <p>Closing the stream closes {@code reader}.</p>
+   *
+   * @param reader the reader
+   * @param parallel {@code true} to parse batches of lines in parallel
+   * @return a stream of elements
+   */
+  static @NonNull Stream<JsonElement> stream(final @NonNull Reader reader, final boolean parallel) {
+    final BufferedReader buffered = new BufferedReader(reader, JsonCompression.BUFFER_SIZE);
+    return StreamSupport.stream(new LineSpliterator(buffered), parallel).onClose(() -> {
+      try {
+        buffered.close();
+      } catch(final IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    });
+  }
+
+  @Override
+  public boolean tryAdvance(final Consumer<? super JsonElement> action) {
+    try {
+      String line;
+      do {
+        line = this.reader.readLine();
+        if(line == null) {
+          return false;
+        }
+        this.line++;
+      } while(blank(line));
+      final JsonElement element;
+      try {
+        element = JsonContext.DEFAULT.parse(line);
+      } catch(final JsonSyntaxException e) {
+        throw new JsonSyntaxException("Malformed JSON on line " + this.line, e);
+      }
+      action.accept(element);
+      return true;
+    } catch(final IOException e) {
+      throw new JsonIOException(e);
+    }
+  }
+
+  /**
+   * Checks if {@code line} is empty or contains only JSON whitespace.
+   *
+   * @param line the line
+   * @return {@code true} if the line is blank
+   */
+  static boolean blank(final @NonNull CharSequence line) {
+    for(int i = 0, length = line.length(); i < length; i++) {
+      final char c = line.charAt(i);
+      if(c != ' ' && c != '\t' && c != '\r' && c != '\n') {
+        return false;
+      }
+    }
+    return true;
+  }
+}
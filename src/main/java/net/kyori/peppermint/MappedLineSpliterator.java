@@ -0,0 +1,242 @@
+/*
+ * This file is part of peppermint, licensed under the MIT License.
+ *
+ * Copyright (c) 2018 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.peppermint;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonIOException;
+import com.google.gson.JsonSyntaxException;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A spliterator which parses newline-delimited UTF-8 JSON from a memory-mapped file, one element per line.
+ *
+ * <p>A spliterator covers a range of the file which starts at the beginning of a line. It
+ * splits at the first newline after the middle of its range, without reading anything
+ * before it, so a file is divided between threads in a few reads. Each range is mapped
+ * through a window of limited size, so a file of any size can be read.</p>
+ *
+ * <p>Blank lines are skipped.</p>
+ */
+final class MappedLineSpliterator implements Spliterator<JsonElement> {
+  // the size of the window a range is mapped through - a longer line is mapped whole
+  private static final int WINDOW = 64 * 1024 * 1024;
+  // ranges smaller than this are not split
+  private static final long MINIMUM_SPLIT = 1024 * 1024;
+  private final FileChannel channel;
+  private final int windowSize;
+  private final long minimumSplit;
+  private final long end;
+  private long position;
+  private ByteBuffer window;
+  private long windowStart;
+  private byte[] line = new byte[256];
+
+  private MappedLineSpliterator(final @NonNull FileChannel channel, final long position, final long end, final int windowSize, final long minimumSplit) {
+    this.channel = channel;
+    this.windowSize = windowSize;
+    this.minimumSplit = minimumSplit;
+    this.position = position;
+    this.end = end;
+  }
+
+  /**
+   * Creates a parallel stream of the elements on the lines of {@code path}.
+   *
+   * @param path the path
+   * @return a stream of elements
+   * @throws IOException if an exception occurred while opening the file
+   */
+  static @NonNull Stream<JsonElement> stream(final @NonNull Path path) throws IOException {
+    return stream(path, WINDOW, MINIMUM_SPLIT);
+  }
+
+  /**
+   * Creates a parallel stream of the elements on the lines of {@code path}.
+   *
+   * @param path the path
+   * @param windowSize the size of the window each range is mapped through
+   * @param minimumSplit the size of the smallest range which is split
+   * @return a stream of elements
+   * @throws IOException if an exception occurred while opening the file
+   */
+  static @NonNull Stream<JsonElement> stream(final @NonNull Path path, final int windowSize, final long minimumSplit) throws IOException {
+    final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+    try {
+      final ByteBuffer bom = ByteBuffer.allocate(3);
+      while(bom.hasRemaining() && channel.read(bom, bom.position()) != -1) {
+        // read the first bytes, which may be a byte order mark
+      }
+      final boolean skip = bom.position() == 3 && (bom.get(0) & 0xff) == 0xef && (bom.get(1) & 0xff) == 0xbb && (bom.get(2) & 0xff) == 0xbf;
+      return StreamSupport.stream(new MappedLineSpliterator(channel, skip ? 3 : 0, channel.size(), windowSize, minimumSplit), true).onClose(() -> {
+        try {
+          channel.close();
+        } catch(final IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      });
+    } catch(final IOException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+  @Override
+  public boolean tryAdvance(final Consumer<? super JsonElement> action) {
+    try {
+      while(this.position < this.end) {
+        final long start = this.position;
+        final long newline = this.newline(start);
+        this.position = newline == -1 ? this.end : newline + 1;
+        long lineEnd = newline == -1 ? this.end : newline;
+        if(lineEnd > start && this.window.get((int) (lineEnd - 1 - this.windowStart)) == '\r') {
+          lineEnd--;
+        }
+        final String line = this.decode(start, (int) (lineEnd - start));
+        if(LineSpliterator.blank(line)) {
+          continue;
+        }
+        final JsonElement element;
+        try {
+          element = JsonContext.DEFAULT.parse(line);
+        } catch(final JsonSyntaxException e) {
+          throw new JsonSyntaxException("Malformed JSON on the line at byte " + start, e);
+        }
+        action.accept(element);
+        return true;
+      }
+      this.window = null;
+      return false;
+    } catch(final IOException e) {
+      throw new JsonIOException(e);
+    }
+  }
+
+  // finds the next newline at or after start, mapping the window so it covers the line
+  private long newline(final long start) throws IOException {
+    int size = this.windowSize;
+    if(this.window == null || start < this.windowStart || start >= this.windowStart + this.window.limit()) {
+      this.map(start, size);
+    }
+    while(true) {
+      final ByteBuffer window = this.window;
+      for(int i = (int) (start - this.windowStart), limit = window.limit(); i < limit; i++) {
+        if(window.get(i) == '\n') {
+          return this.windowStart + i;
+        }
+      }
+      if(this.windowStart + window.limit() >= this.end) {
+        return -1;
+      }
+      // the line continues past the window, so map a window from the start of the line - a larger one if the line fills a whole window
+      if(this.windowStart == start) {
+        if(size == Integer.MAX_VALUE) {
+          throw new JsonSyntaxException("The line at byte " + start + " is too long");
+        }
+        size = (int) Math.min(Integer.MAX_VALUE, 2L * size);
+      }
+      this.map(start, size);
+    }
+  }
+
+  private void map(final long start, final int size) throws IOException {
+    final MappedByteBuffer window = this.channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(size, this.end - start));
+    this.window = window;
+    this.windowStart = start;
+  }
+
+  private @NonNull String decode(final long start, final int length) {
+    if(this.line.length < length) {
+      this.line = new byte[Math.max(length, 2 * this.line.length)];
+    }
+    final ByteBuffer window = this.window;
+    window.position((int) (start - this.windowStart));
+    window.get(this.line, 0, length);
+    return new String(this.line, 0, length, StandardCharsets.UTF_8);
+  }
+
+  @Override
+  public Spliterator<JsonElement> trySplit() {
+    final long remaining = this.end - this.position;
+    if(remaining < this.minimumSplit) {
+      return null;
+    }
+    try {
+      final long newline = this.find(this.position + remaining / 2);
+      // a newline which ends the range would leave nothing to split off
+      if(newline == -1 || newline + 1 >= this.end) {
+        return null;
+      }
+      final MappedLineSpliterator prefix = new MappedLineSpliterator(this.channel, this.position, newline + 1, this.windowSize, this.minimumSplit);
+      this.position = newline + 1;
+      this.window = null;
+      return prefix;
+    } catch(final IOException e) {
+      throw new JsonIOException(e);
+    }
+  }
+
+  // finds the next newline at or after start with positional reads, so nothing before it is mapped
+  private long find(long start) throws IOException {
+    final ByteBuffer buffer = ByteBuffer.allocate(8 * 1024);
+    while(start < this.end) {
+      buffer.clear();
+      buffer.limit((int) Math.min(buffer.capacity(), this.end - start));
+      final int read = this.channel.read(buffer, start);
+      if(read == -1) {
+        break;
+      }
+      for(int i = 0; i < read; i++) {
+        if(buffer.get(i) == '\n') {
+          return start + i;
+        }
+      }
+      start += read;
+    }
+    return -1;
+  }
+
+  @Override
+  public long estimateSize() {
+    // the number of bytes, which is more than the number of lines
+    return this.end - this.position;
+  }
+
+  @Override
+  public int characteristics() {
+    return Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.IMMUTABLE;
+  }
+}
@@ -0,0 +1,167 @@
+/*
+ * This file is part of peppermint, licensed under the MIT License.
+ *
+ * Copyright (c) 2018 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.peppermint;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A reader which decodes UTF-8 directly from a memory-mapped file.
+ *
+ * <p>The file is mapped in windows of at most {@code window} bytes, so files larger
+ * than a single mapping can hold are supported.</p>
+ *
+ * <p>Malformed input is replaced with {@code U+FFFD}, as it is by {@link Utf8Reader}, so a
+ * file is read the same whether or not it is mapped.</p>
+ */
+final class MappedReader extends Reader {
+  private final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+    .onMalformedInput(CodingErrorAction.REPLACE)
+    .onUnmappableCharacter(CodingErrorAction.REPLACE);
+  private final FileChannel channel;
+  private final long size;
+  private final long window;
+  private @Nullable ByteBuffer buffer;
+  private long offset;
+  private final char[] pending = new char[2];
+  private int pendingPosition;
+  private int pendingLimit;
+  private boolean eof;
+
+  MappedReader(final @NonNull FileChannel channel) throws IOException {
+    this(channel, Integer.MAX_VALUE);
+  }
+
+  MappedReader(final @NonNull FileChannel channel, final long window) throws IOException {
+    this.channel = channel;
+    this.size = channel.size();
+    // a window must be able to hold the longest encoded code point
+    if(window < 4) {
+      throw new IllegalArgumentException("window must be at least 4 bytes");
+    }
+    this.window = window;
+  }
+
+  /**
+   * Opens a reader for {@code path}, memory-mapping it if it is at least {@code threshold} bytes in size.
+   *
+   * @param path the path
+   * @param threshold the size, in bytes, at which the file is memory-mapped
+   * @return a reader
+   * @throws IOException if an exception occurred while opening the file
+   */
+  static @NonNull Reader open(final @NonNull Path path, final long threshold) throws IOException {
+    final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+    try {
+      if(channel.size() >= threshold) {
+        return new MappedReader(channel);
+      }
+    } catch(final IOException e) {
+      channel.close();
+      throw e;
+    }
+    channel.close();
+    return new Utf8Reader(Files.newInputStream(path), new byte[0], 0, 0);
+  }
+
+  @Override
+  public int read(final char[] cbuf, final int off, final int len) throws IOException {
+    if(len == 0) {
+      return 0;
+    }
+    if(this.eof) {
+      return -1;
+    }
+    if(this.pendingPosition < this.pendingLimit) {
+      cbuf[off] = this.pending[this.pendingPosition++];
+      return 1;
+    }
+    final CharBuffer out = CharBuffer.wrap(cbuf, off, len);
+    while(true) {
+      if(this.buffer == null || (!this.buffer.hasRemaining() && !this.last())) {
+        if(!this.map()) {
+          return -1;
+        }
+      }
+      final ByteBuffer buffer = this.buffer;
+      final boolean last = this.last();
+      final CoderResult result = this.decoder.decode(buffer, out, last);
+      if(out.position() > off) {
+        return out.position() - off;
+      }
+      if(result.isOverflow()) {
+        // a surrogate pair did not fit into the single remaining slot
+        final CharBuffer pending = CharBuffer.wrap(this.pending);
+        this.decoder.decode(buffer, pending, last);
+        this.pendingPosition = 0;
+        this.pendingLimit = pending.position();
+        cbuf[off] = this.pending[this.pendingPosition++];
+        return 1;
+      }
+      if(last) {
+        this.decoder.flush(out);
+        this.eof = true;
+        return -1;
+      }
+      // underflow: the rest of this window is an incomplete sequence, remap starting from it
+      this.offset += buffer.position();
+      this.buffer = null;
+    }
+  }
+
+  private boolean last() {
+    return this.buffer != null && this.offset + this.buffer.limit() >= this.size;
+  }
+
+  private boolean map() throws IOException {
+    if(this.buffer != null) {
+      this.offset += this.buffer.limit();
+    }
+    if(this.buffer != null && this.offset >= this.size) {
+      return false;
+    }
+    final long length = Math.min(this.window, this.size - this.offset);
+    this.buffer = this.channel.map(FileChannel.MapMode.READ_ONLY, this.offset, length);
+    return true;
+  }
+
+  @Override
+  public void close() throws IOException {
+    this.buffer = null;
+    this.channel.close();
+  }
+}
@@ -0,0 +1,183 @@
+/*
+ * This file is part of peppermint, licensed under the MIT License.
+ *
+ * Copyright (c) 2018 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.peppermint;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Reports to the installed {@link JsonMetrics}, if any.
+ */
+final class Metrics {
+  private Metrics() {
+  }
+
+  static volatile @Nullable JsonMetrics metrics;
+
+  /**
+   * Starts timing an operation.
+   *
+   * @return the start time, or {@code 0} if no listener is installed
+   */
+  static long start() {
+    return metrics != null ? System.nanoTime() : 0;
+  }
+
+  /**
+   * Opens {@code path} and reads from it with {@code read}, reporting the read or its failure.
+   *
+   * <p>The bytes read from the file are counted as they are read, so a compressed file
+   * is reported with its compressed size, and no listener means no counting.</p>
+   *
+   * @param path the path
+   * @param read the function reading from the file
+   * @param <T> the result type
+   * @return the result
+   * @throws IOException if an exception occurred while reading
+   */
+  static <T> T read(final @NonNull Path path, final @NonNull Read<T> read) throws IOException {
+    final long start = start();
+    try(final InputStream in = start != 0 ? new CountingInputStream(Files.newInputStream(path)) : Files.newInputStream(path)) {
+      final T result = read.read(in);
+      if(in instanceof CountingInputStream) {
+        read(path, ((CountingInputStream) in).count, start);
+      }
+      return result;
+    } catch(final IOException | RuntimeException e) {
+      failed(path, e);
+      throw e;
+    }
+  }
+
+  /**
+   * Reports that {@code bytes} have been read from {@code path}.
+   *
+   * @param path the path
+   * @param bytes the number of bytes
+   * @param start the time returned by {@link #start()}
+   */
+  static void read(final @NonNull Path path, final long bytes, final long start) {
+    final JsonMetrics metrics = Metrics.metrics;
+    // a listener installed after the read started cannot time it
+    if(metrics != null && start != 0) {
+      metrics.read(path, bytes, System.nanoTime() - start);
+    }
+  }
+
+  static void failed(final @NonNull Path path, final @NonNull Exception exception) {
+    final JsonMetrics metrics = Metrics.metrics;
+    if(metrics != null) {
+      metrics.failed(path, exception);
+    }
+  }
+
+  static void missing(final @NonNull String name) {
+    final JsonMetrics metrics = Metrics.metrics;
+    if(metrics != null) {
+      metrics.missing(field(name));
+    }
+  }
+
+  static void mismatch(final @NonNull String name) {
+    final JsonMetrics metrics = Metrics.metrics;
+    if(metrics != null) {
+      metrics.mismatch(field(name));
+    }
+  }
+
+  // strips the indices from the name of an element of an array, so that it is counted with the array
+  private static @NonNull String field(final @NonNull String name) {
+    int end = name.length();
+    while(end > 0 && name.charAt(end - 1) == ']') {
+      final int start = name.lastIndexOf('[', end - 1);
+      if(start == -1) {
+        break;
+      }
+      end = start;
+    }
+    return end == name.length() ? name : name.substring(0, end);
+  }
+
+  /**
+   * A function which reads from a file.
+   *
+   * @param <T> the result type
+   */
+  @FunctionalInterface
+  interface Read<T> {
+    /**
+     * Reads from {@code in}.
+     *
+     * @param in the stream of the file, which is closed once this function returns
+     * @return the result
+     * @throws IOException if an exception occurred while reading
+     */
+    T read(final @NonNull InputStream in) throws IOException;
+  }
+
+  private static final class CountingInputStream extends FilterInputStream {
+    long count;
+
+    CountingInputStream(final @NonNull InputStream in) {
+      super(in);
+    }
+
+    @Override
+    public int read() throws IOException {
+      final int b = this.in.read();
+      if(b != -1) {
+        this.count++;
+      }
+      return b;
+    }
+
+    @Override
+    public int read(final byte @NonNull [] bytes, final int offset, final int length) throws IOException {
+      final int read = this.in.read(bytes, offset, length);
+      if(read > 0) {
+        this.count += read;
+      }
+      return read;
+    }
+
+    @Override
+    public long skip(final long n) throws IOException {
+      final long skipped = this.in.skip(n);
+      this.count += skipped;
+      return skipped;
+    }
+
+    @Override
+    public boolean markSupported() {
+      // a reset would count bytes twice
+      return false;
+    }
+  }
+}
@@ -0,0 +1,151 @@
+/*
+ * This file is part of peppermint, licensed under the MIT License.
+ *
+ * Copyright (c) 2018 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.peppermint;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+/**
+ * Number parsing which reports failure without throwing an exception.
+ */
+final class Numbers {
+  private Numbers() {
+  }
+
+  /**
+   * Tests if {@code string} is an integer in the range {@code [min, max]}, using the same grammar
+   * as {@link Long#parseLong(String)}: an optional sign followed by decimal digits, which may be
+   * any Unicode digits, and no surrounding whitespace.
+   *
+   * @param string the string
+   * @param min the minimum value, which must not be positive
+   * @param max the maximum value, which must not be negative
+   * @return {@code true} if {@code string} is an integer in range, {@code false} otherwise
+   */
+  static boolean isInteger(final @NonNull String string, final long min, final long max) {
+    final int length = string.length();
+    if(length == 0) {
+      return false;
+    }
+    int i = 0;
+    boolean negative = false;
+    final char first = string.charAt(0);
+    if(first == '-' || first == '+') {
+      negative = first == '-';
+      if(++i == length) {
+        return false;
+      }
+    }
+    // accumulate negatively, as the negative range is the larger one
+    final long limit = negative ? min : -max;
+    final long multiplyLimit = limit / 10;
+    long result = 0;
+    for(; i < length; i++) {
+      final int digit = Character.digit(string.charAt(i), 10);
+      if(digit < 0 || result < multiplyLimit) {
+        return false;
+      }
+      result *= 10;
+      if(result < limit + digit) {
+        return false;
+      }
+      result -= digit;
+    }
+    return true;
+  }
+
+  /**
+   * Tests if {@code string} is a floating-point number, using the same grammar as
+   * {@link Double#parseDouble(String)} and {@link Float#parseFloat(String)}.
+   *
+   * <p>Leading and trailing whitespace is ignored. The number is an optional sign followed by {@code NaN},
+   * {@code Infinity}, a hexadecimal number with a binary exponent, or ASCII digits with an optional fraction
+   * and exponent, where either of the last two may be followed by a {@code d}, {@code D}, {@code f}
+   * or {@code F} suffix.</p>
+   *
+   * @param string the string
+   * @return {@code true} if {@code string} is a floating-point number, {@code false} otherwise
+   */
+  static boolean isDecimal(final @NonNull String string) {
+    int length = string.length();
+    int i = 0;
+    // trimmed as by String.trim()
+    while(i < length && string.charAt(i) <= ' ') {
+      i++;
+    }
+    while(length > i && string.charAt(length - 1) <= ' ') {
+      length--;
+    }
+    if(i < length && (string.charAt(i) == '-' || string.charAt(i) == '+')) {
+      i++;
+    }
+    if(string.startsWith("NaN", i)) {
+      return length == i + 3;
+    } else if(string.startsWith("Infinity", i)) {
+      return length == i + 8;
+    }
+    final boolean hex = i + 1 < length && string.charAt(i) == '0' && (string.charAt(i + 1) == 'x' || string.charAt(i + 1) == 'X');
+    if(hex) {
+      i += 2;
+    }
+    int digits = 0;
+    while(i < length && isDigit(string.charAt(i), hex)) {
+      i++;
+      digits++;
+    }
+    if(i < length && string.charAt(i) == '.') {
+      i++;
+      while(i < length && isDigit(string.charAt(i), hex)) {
+        i++;
+        digits++;
+      }
+    }
+    if(digits == 0) {
+      return false;
+    }
+    // the exponent of a hexadecimal number is required, and is a power of two
+    if(i < length && (hex ? (string.charAt(i) == 'p' || string.charAt(i) == 'P') : (string.charAt(i) == 'e' || string.charAt(i) == 'E'))) {
+      i++;
+      if(i < length && (string.charAt(i) == '-' || string.charAt(i) == '+')) {
+        i++;
+      }
+      final int start = i;
+      while(i < length && isDigit(string.charAt(i), false)) {
+        i++;
+      }
+      if(i == start) {
+        return false;
+      }
+    } else if(hex) {
+      return false;
+    }
+    if(i < length && "dDfF".indexOf(string.charAt(i)) != -1) {
+      i++;
+    }
+    return i == length;
+  }
+
+  private static boolean isDigit(final char c, final boolean hex) {
+    return (c >= '0' && c <= '9') || (hex && ((c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F')));
+  }
+}
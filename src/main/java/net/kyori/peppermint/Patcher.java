@@ -0,0 +1,264 @@
+/*
+ * This file is part of peppermint, licensed under the MIT License.
+ *
+ * Copyright (c) 2018 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.peppermint;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonSyntaxException;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Applies patches.
+ */
+final class Patcher {
+  private JsonElement root;
+
+  private Patcher(final @NonNull JsonElement root) {
+    this.root = root;
+  }
+
+  /**
+   * Applies {@code patch} to {@code json}, modifying it.
+   *
+   * @param json the json
+   * @param patch the patch
+   * @return the patched json, which is {@code json} unless the whole document was replaced
+   */
+  static @NonNull JsonElement apply(final @NonNull JsonElement json, final @NonNull JsonArray patch) {
+    final Patcher patcher = new Patcher(json);
+    for(int i = 0, size = patch.size(); i < size; i++) {
+      final JsonElement element = patch.get(i);
+      if(!element.isJsonObject()) {
+        throw new JsonSyntaxException("Expected operation " + i + " to be an object");
+      }
+      patcher.apply(element.getAsJsonObject());
+    }
+    return patcher.root;
+  }
+
+  private void apply(final @NonNull JsonObject operation) {
+    final String op = Json.needString(operation, "op");
+    final String path = Json.needString(operation, "path");
+    switch(op) {
+      case "add":
+        this.add(path, this.value(operation));
+        break;
+      case "remove":
+        this.remove(path);
+        break;
+      case "replace":
+        this.replace(path, this.value(operation));
+        break;
+      case "move": {
+        final String from = Json.needString(operation, "from");
+        if(path.startsWith(from + '/')) {
+          throw new JsonSyntaxException("Cannot move " + from + " into one of its children");
+        }
+        this.add(path, this.remove(from));
+        break;
+      }
+      case "copy":
+        this.add(path, this.get(Json.needString(operation, "from")).deepCopy());
+        break;
+      case "test":
+        if(!this.get(path).equals(this.value(operation))) {
+          throw new JsonSyntaxException("Test of " + path + " failed");
+        }
+        break;
+      default:
+        throw new JsonSyntaxException("Unknown operation " + op);
+    }
+  }
+
+  private @NonNull JsonElement value(final @NonNull JsonObject operation) {
+    final JsonElement value = operation.get("value");
+    if(value == null) {
+      throw new JsonSyntaxException("Missing value, expected to find an element");
+    }
+    return value.deepCopy();
+  }
+
+  private @NonNull JsonElement get(final @NonNull String pointer) {
+    final List<String> tokens = parse(pointer);
+    JsonElement element = this.root;
+    for(int i = 0, size = tokens.size(); i < size; i++) {
+      element = child(element, tokens.get(i), pointer);
+    }
+    return element;
+  }
+
+  private void add(final @NonNull String pointer, final @NonNull JsonElement value) {
+    final List<String> tokens = parse(pointer);
+    if(tokens.isEmpty()) {
+      this.root = value;
+      return;
+    }
+    final JsonElement parent = this.parent(tokens, pointer);
+    final String token = tokens.get(tokens.size() - 1);
+    if(parent.isJsonObject()) {
+      parent.getAsJsonObject().add(token, value);
+    } else {
+      final JsonArray array = parent.getAsJsonArray();
+      final int size = array.size();
+      final int index = token.equals("-") ? size : index(token, size, pointer);
+      // there is no insertion in JsonArray, so shift the following elements along by one
+      array.add(value);
+      for(int i = size; i > index; i--) {
+        array.set(i, array.get(i - 1));
+      }
+      array.set(index, value);
+    }
+  }
+
+  private void replace(final @NonNull String pointer, final @NonNull JsonElement value) {
+    final List<String> tokens = parse(pointer);
+    if(tokens.isEmpty()) {
+      this.root = value;
+      return;
+    }
+    final JsonElement parent = this.parent(tokens, pointer);
+    final String token = tokens.get(tokens.size() - 1);
+    if(parent.isJsonObject()) {
+      final JsonObject object = parent.getAsJsonObject();
+      if(!object.has(token)) {
+        throw new JsonSyntaxException("Missing " + pointer);
+      }
+      // replacing a member keeps its position
+      object.add(token, value);
+    } else {
+      final JsonArray array = parent.getAsJsonArray();
+      array.set(index(token, array.size() - 1, pointer), value);
+    }
+  }
+
+  private @NonNull JsonElement remove(final @NonNull String pointer) {
+    final List<String> tokens = parse(pointer);
+    if(tokens.isEmpty()) {
+      throw new JsonSyntaxException("Cannot remove the whole document");
+    }
+    final JsonElement parent = this.parent(tokens, pointer);
+    final String token = tokens.get(tokens.size() - 1);
+    if(parent.isJsonObject()) {
+      final JsonElement removed = parent.getAsJsonObject().remove(token);
+      if(removed == null) {
+        throw new JsonSyntaxException("Missing " + pointer);
+      }
+      return removed;
+    }
+    final JsonArray array = parent.getAsJsonArray();
+    return array.remove(index(token, array.size() - 1, pointer));
+  }
+
+  private @NonNull JsonElement parent(final @NonNull List<String> tokens, final @NonNull String pointer) {
+    JsonElement element = this.root;
+    for(int i = 0, size = tokens.size() - 1; i < size; i++) {
+      element = child(element, tokens.get(i), pointer);
+    }
+    if(!element.isJsonObject() && !element.isJsonArray()) {
+      throw new JsonSyntaxException("Expected the parent of " + pointer + " to be an object or an array");
+    }
+    return element;
+  }
+
+  private static @NonNull JsonElement child(final @NonNull JsonElement element, final @NonNull String token, final @NonNull String pointer) {
+    final JsonElement child;
+    if(element.isJsonObject()) {
+      child = element.getAsJsonObject().get(token);
+    } else if(element.isJsonArray()) {
+      final JsonArray array = element.getAsJsonArray();
+      child = array.get(index(token, array.size() - 1, pointer));
+    } else {
+      child = null;
+    }
+    if(child == null) {
+      throw new JsonSyntaxException("Missing " + pointer);
+    }
+    return child;
+  }
+
+  private static int index(final @NonNull String token, final int maximum, final @NonNull String pointer) {
+    // an index is ASCII digits, without leading zeros
+    if(!Numbers.isInteger(token, 0, maximum) || (token.length() > 1 && token.charAt(0) == '0') || !digits(token)) {
+      throw new JsonSyntaxException("Invalid index " + token + " in " + pointer);
+    }
+    return Integer.parseInt(token);
+  }
+
+  private static boolean digits(final @NonNull String token) {
+    for(int i = 0; i < token.length(); i++) {
+      final char c = token.charAt(i);
+      if(c < '0' || c > '9') {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  static @NonNull List<String> parse(final @NonNull String pointer) {
+    final List<String> tokens = new ArrayList<>();
+    if(pointer.isEmpty()) {
+      return tokens;
+    }
+    if(pointer.charAt(0) != '/') {
+      throw new JsonSyntaxException("Invalid pointer " + pointer);
+    }
+    int start = 1;
+    while(true) {
+      int end = pointer.indexOf('/', start);
+      if(end == -1) {
+        end = pointer.length();
+      }
+      final String token = pointer.substring(start, end);
+      tokens.add(token.indexOf('~') == -1 ? token : unescape(token, pointer));
+      if(end == pointer.length()) {
+        return tokens;
+      }
+      start = end + 1;
+    }
+  }
+
+  private static @NonNull String unescape(final @NonNull String token, final @NonNull String pointer) {
+    final StringBuilder sb = new StringBuilder(token.length());
+    for(int i = 0, length = token.length(); i < length; i++) {
+      final char c = token.charAt(i);
+      if(c == '~') {
+        final char next = i + 1 < length ? token.charAt(++i) : 0;
+        if(next == '0') {
+          sb.append('~');
+        } else if(next == '1') {
+          sb.append('/');
+        } else {
+          throw new JsonSyntaxException("Invalid escape in pointer " + pointer);
+        }
+      } else {
+        sb.append(c);
+      }
+    }
+    return sb.toString();
+  }
+}
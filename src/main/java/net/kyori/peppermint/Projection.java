@@ -0,0 +1,99 @@
+/*
+ * This file is part of peppermint, licensed under the MIT License.
+ *
+ * Copyright (c) 2018 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.peppermint;
+
+import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A set of paths to be extracted from an object while it is being read.
+ */
+final class Projection {
+  private final Map<String, Projection> children = new HashMap<>();
+  private boolean leaf;
+
+  /**
+   * Compiles a projection of {@code paths}.
+   *
+   * @param paths the paths
+   * @return a projection
+   * @throws IllegalArgumentException if a path is malformed or contains an array index
+   */
+  static @NonNull Projection compile(final @NonNull Collection<String> paths) {
+    final Projection root = new Projection();
+    for(final String string : paths) {
+      final JsonPath path = JsonPath.compile(string);
+      Projection node = root;
+      for(int i = 0, size = path.size(); i < size && !node.leaf; i++) {
+        final String name = path.name(i);
+        if(name == null) {
+          throw new IllegalArgumentException("Cannot project array elements, in path " + string);
+        }
+        node = node.children.computeIfAbsent(name, key -> new Projection());
+      }
+      // a shorter path selects the whole subtree
+      node.leaf = true;
+      node.children.clear();
+    }
+    return root;
+  }
+
+  /**
+   * Reads the object at the current position of {@code reader}, keeping only the projected members.
+   *
+   * @param reader the reader
+   * @return the projected object
+   * @throws IOException if an exception occurred while reading
+   */
+  @NonNull JsonObject read(final @NonNull JsonReader reader) throws IOException {
+    // the empty path selects the whole object
+    if(this.leaf && reader.peek() == JsonToken.BEGIN_OBJECT) {
+      return JsonIO.PARSER.parse(reader).getAsJsonObject();
+    }
+    final JsonObject json = new JsonObject();
+    reader.beginObject();
+    while(reader.hasNext()) {
+      final String name = reader.nextName();
+      final Projection child = this.children.get(name);
+      if(child == null) {
+        reader.skipValue();
+      } else if(child.leaf) {
+        json.add(name, JsonIO.PARSER.parse(reader));
+      } else if(reader.peek() == JsonToken.BEGIN_OBJECT) {
+        json.add(name, child.read(reader));
+      } else {
+        reader.skipValue();
+      }
+    }
+    reader.endObject();
+    return json;
+  }
+}
@@ -0,0 +1,289 @@
+/*
+ * This file is part of peppermint, licensed under the MIT License.
+ *
+ * Copyright (c) 2018 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.peppermint;
+
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.MalformedJsonException;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.SequenceInputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Opens files for reading.
+ */
+final class Readers {
+  private Readers() {
+  }
+
+  private static final Charset UTF_32BE = Charset.forName("UTF-32BE");
+  private static final Charset UTF_32LE = Charset.forName("UTF-32LE");
+
+  /**
+   * Opens a buffered reader for {@code path}, detecting its compression and encoding as {@link #open(InputStream)} does.
+   *
+   * @param path the path
+   * @return a reader
+   * @throws IOException if an exception occurred while opening the file
+   */
+  static @NonNull Reader open(final @NonNull Path path) throws IOException {
+    return open(Files.newInputStream(path), (Utf8Reader) null);
+  }
+
+  /**
+   * Opens a buffered reader for {@code path}, detecting its compression and encoding as {@link #open(InputStream)} does.
+   *
+   * @param path the path
+   * @param reuse a reader to reset and return if the file is UTF-8, or {@code null}
+   * @return a reader
+   * @throws IOException if an exception occurred while opening the file
+   */
+  static @NonNull Reader open(final @NonNull Path path, final @Nullable Utf8Reader reuse) throws IOException {
+    return open(Files.newInputStream(path), reuse);
+  }
+
+  /**
+   * Opens a buffered reader for {@code path}, decompressing it with {@code compression}
+   * and decoding it with the encoding detected by {@link #decode(InputStream, Utf8Reader)}.
+   *
+   * @param path the path
+   * @param compression the compression
+   * @return a reader
+   * @throws IOException if an exception occurred while opening the file
+   */
+  static @NonNull Reader open(final @NonNull Path path, final @NonNull JsonCompression compression) throws IOException {
+    return open(Files.newInputStream(path), compression);
+  }
+
+  /**
+   * Opens a buffered reader for {@code in}, decompressing it with {@code compression}
+   * and decoding it with the encoding detected by {@link #decode(InputStream, Utf8Reader)}.
+   *
+   * @param in the stream, which is closed if an exception is thrown
+   * @param compression the compression
+   * @return a reader
+   * @throws IOException if an exception occurred while reading
+   */
+  static @NonNull Reader open(final @NonNull InputStream in, final @NonNull JsonCompression compression) throws IOException {
+    final InputStream buffered = new BufferedInputStream(in, JsonCompression.BUFFER_SIZE);
+    try {
+      return decode(compression.decompress(buffered), null);
+    } catch(final IOException e) {
+      buffered.close();
+      throw e;
+    }
+  }
+
+  /**
+   * Opens a buffered reader for {@code path}, decompressing it if its compression is detected
+   * and decoding it with {@code charset}.
+   *
+   * @param path the path
+   * @param charset the charset
+   * @return a reader
+   * @throws IOException if an exception occurred while opening the file
+   */
+  static @NonNull Reader open(final @NonNull Path path, final @NonNull Charset charset) throws IOException {
+    return open(Files.newInputStream(path), charset);
+  }
+
+  /**
+   * Opens a buffered reader for {@code in}, decompressing it if its compression is detected
+   * and decoding it with {@code charset}.
+   *
+   * @param in the stream, which is closed if an exception is thrown
+   * @param charset the charset
+   * @return a reader
+   * @throws IOException if an exception occurred while reading
+   */
+  static @NonNull Reader open(final @NonNull InputStream in, final @NonNull Charset charset) throws IOException {
+    final InputStream decompressed = JsonCompression.open(new BufferedInputStream(in, JsonCompression.BUFFER_SIZE));
+    if(charset.equals(StandardCharsets.UTF_8)) {
+      return new Utf8Reader(decompressed, new byte[0], 0, 0);
+    }
+    return new InputStreamReader(decompressed, charset);
+  }
+
+  /**
+   * Opens a reader for {@code in}, decompressing it if its compression is detected, and
+   * decoding it with the encoding detected by {@link #decode(InputStream, Utf8Reader)}.
+   *
+   * <p>The compression and encoding are both detected from the first bytes of the stream,
+   * so {@code in} need not support {@link InputStream#mark(int)}, and an uncompressed stream
+   * is read with no buffer other than that of the reader.</p>
+   *
+   * @param in the stream, which is closed if an exception is thrown
+   * @return a reader
+   * @throws IOException if an exception occurred while reading
+   */
+  static @NonNull Reader open(final @NonNull InputStream in) throws IOException {
+    return open(in, (Utf8Reader) null);
+  }
+
+  /**
+   * Opens a reader for {@code in}, detecting its compression and encoding as {@link #open(InputStream)} does.
+   *
+   * @param in the stream, which is closed if an exception is thrown
+   * @param reuse a reader to reset and return if the stream is UTF-8, or {@code null}
+   * @return a reader
+   * @throws IOException if an exception occurred while reading
+   */
+  static @NonNull Reader open(final @NonNull InputStream in, final @Nullable Utf8Reader reuse) throws IOException {
+    final byte[] head = new byte[4];
+    final int length = head(in, head);
+    final JsonCompression compression = JsonCompression.detect(length > 0 ? head[0] & 0xff : -1, length > 1 ? head[1] & 0xff : -1);
+    if(compression != JsonCompression.NONE) {
+      final InputStream compressed = new BufferedInputStream(new SequenceInputStream(new ByteArrayInputStream(head, 0, length), in), JsonCompression.BUFFER_SIZE);
+      try {
+        return decode(compression.decompress(compressed), reuse);
+      } catch(final IOException e) {
+        compressed.close();
+        throw e;
+      }
+    }
+    return decode(in, head, length, reuse);
+  }
+
+  /**
+   * Opens a reader for {@code in}, detecting its encoding.
+   *
+   * <p>JSON text is UTF-8, as <a href="https://tools.ietf.org/html/rfc8259#section-8.1">RFC 8259</a>
+   * requires, unless the document says otherwise. A byte order mark is skipped, and selects
+   * UTF-8, UTF-16 or UTF-32. Without one, UTF-16 and UTF-32 are detected from the pattern of
+   * null bytes in the first four bytes - the first characters of a JSON text are ASCII, so
+   * the position of the zero bytes in their encoding reveals the encoding. RFC 8259 allows a
+   * parser to accept these encodings, and this is the detection its predecessor,
+   * <a href="https://tools.ietf.org/html/rfc4627#section-3">RFC 4627</a>, described.</p>
+   *
+   * <p>UTF-8 is decoded by a {@link Utf8Reader}.</p>
+   *
+   * @param in the stream, which is closed if an exception is thrown
+   * @param reuse a reader to reset and return if the stream is UTF-8, or {@code null}
+   * @return a reader
+   * @throws IOException if an exception occurred while reading
+   */
+  static @NonNull Reader decode(final @NonNull InputStream in, final @Nullable Utf8Reader reuse) throws IOException {
+    final byte[] head = new byte[4];
+    return decode(in, head, head(in, head), reuse);
+  }
+
+  // reads the first bytes of in into head, returning how many were read
+  private static int head(final @NonNull InputStream in, final byte @NonNull [] head) throws IOException {
+    int length = 0;
+    try {
+      int read;
+      while(length < head.length && (read = in.read(head, length, head.length - length)) != -1) {
+        length += read;
+      }
+    } catch(final IOException e) {
+      in.close();
+      throw e;
+    }
+    return length;
+  }
+
+  // detects the encoding of head, which was read from the start of in
+  private static @NonNull Reader decode(final @NonNull InputStream in, final byte @NonNull [] head, final int length, final @Nullable Utf8Reader reuse) {
+    final int b0 = length > 0 ? head[0] & 0xff : -1;
+    final int b1 = length > 1 ? head[1] & 0xff : -1;
+    final int b2 = length > 2 ? head[2] & 0xff : -1;
+    final int b3 = length > 3 ? head[3] & 0xff : -1;
+    if(b0 == 0xef && b1 == 0xbb && b2 == 0xbf) {
+      return utf8(in, head, 3, length, reuse);
+    } else if(b0 == 0 && b1 == 0 && b2 == 0xfe && b3 == 0xff) {
+      return reader(in, head, 4, length, UTF_32BE);
+    } else if(b0 == 0xff && b1 == 0xfe && b2 == 0 && b3 == 0) {
+      return reader(in, head, 4, length, UTF_32LE);
+    } else if(b0 == 0xfe && b1 == 0xff) {
+      return reader(in, head, 2, length, StandardCharsets.UTF_16BE);
+    } else if(b0 == 0xff && b1 == 0xfe) {
+      return reader(in, head, 2, length, StandardCharsets.UTF_16LE);
+    } else if(b0 == 0 && b1 == 0 && b2 == 0 && b3 > 0) {
+      return reader(in, head, 0, length, UTF_32BE);
+    } else if(b0 > 0 && b1 == 0 && b2 == 0 && b3 == 0) {
+      return reader(in, head, 0, length, UTF_32LE);
+    } else if(b0 == 0 && b1 > 0) {
+      return reader(in, head, 0, length, StandardCharsets.UTF_16BE);
+    } else if(b0 > 0 && b1 == 0) {
+      return reader(in, head, 0, length, StandardCharsets.UTF_16LE);
+    }
+    return utf8(in, head, 0, length, reuse);
+  }
+
+  private static @NonNull Reader utf8(final @NonNull InputStream in, final byte @NonNull [] head, final int offset, final int length, final @Nullable Utf8Reader reuse) {
+    return reuse != null ? reuse.reset(in, head, offset, length - offset) : new Utf8Reader(in, head, offset, length - offset);
+  }
+
+  // decodes the bytes of head from offset, followed by the rest of in
+  private static @NonNull Reader reader(final @NonNull InputStream in, final byte @NonNull [] head, final int offset, final int length, final @NonNull Charset charset) {
+    return new InputStreamReader(new SequenceInputStream(new ByteArrayInputStream(head, offset, length - offset), in), charset);
+  }
+
+  /**
+   * Reads a whole document from {@code path} with {@code function}.
+   *
+   * <p>Malformed input is reported as a {@link JsonSyntaxException}, as it is by {@link com.google.gson.JsonParser}.</p>
+   *
+   * @param path the path
+   * @param function the function reading the document
+   * @param <T> the result type
+   * @return the result
+   * @throws IOException if an exception occurred while reading
+   */
+  static <T> T read(final @NonNull Path path, final @NonNull Function<T> function) throws IOException {
+    return Metrics.read(path, in -> {
+      try(final JsonReader reader = new JsonReader(open(in))) {
+        final T result = function.read(reader);
+        if(reader.peek() != JsonToken.END_DOCUMENT) {
+          throw new JsonSyntaxException("Did not consume the entire document.");
+        }
+        return result;
+      } catch(final MalformedJsonException | IllegalStateException | NumberFormatException e) {
+        throw new JsonSyntaxException(e);
+      }
+    });
+  }
+
+  /**
+   * A function which reads from a {@link JsonReader}.
+   *
+   * @param <T> the result type
+   */
+  @FunctionalInterface
+  interface Function<T> {
+    T read(final @NonNull JsonReader reader) throws IOException;
+  }
+}
@@ -0,0 +1,287 @@
+/*
+ * This file is part of peppermint, licensed under the MIT License.
+ *
+ * Copyright (c) 2018 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.peppermint;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonIOException;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.internal.LazilyParsedNumber;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.MalformedJsonException;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds JSON trees from a {@link JsonReader}.
+ *
+ * <p>Trees are built iteratively, rather than recursively, so the depth of a
+ * document is not limited by the size of the stack. The result is the same as
+ * that of {@link com.google.gson.JsonParser}.</p>
+ *
+ * <p>A tree reader keeps its stack between documents, and so must not be shared between threads.</p>
+ */
+final class TreeReader {
+  // primitives cannot be modified, so booleans can be shared
+  private static final JsonPrimitive TRUE = new JsonPrimitive(true);
+  private static final JsonPrimitive FALSE = new JsonPrimitive(false);
+  private final @Nullable JsonStringPool strings;
+  private final boolean lenient;
+  private final int maximumDepth;
+  private final int maximumStringLength;
+  private final int maximumElements;
+  private final List<JsonElement> stack = new ArrayList<>();
+  // null if neither the length nor the time of a document is limited
+  private final @Nullable Guard guard;
+
+  /**
+   * Creates a lenient tree reader without limits.
+   *
+   * @param strings the pool to intern strings and member names with, or {@code null}
+   */
+  TreeReader(final @Nullable JsonStringPool strings) {
+    this.strings = strings;
+    this.lenient = true;
+    this.maximumDepth = Integer.MAX_VALUE;
+    this.maximumStringLength = Integer.MAX_VALUE;
+    this.maximumElements = Integer.MAX_VALUE;
+    this.guard = null;
+  }
+
+  /**
+   * Creates a tree reader with the configuration and limits of {@code context}.
+   *
+   * @param context the context
+   */
+  TreeReader(final @NonNull JsonContext context) {
+    this.strings = context.strings();
+    this.lenient = context.lenient();
+    this.maximumDepth = context.maximumDepth();
+    this.maximumStringLength = context.maximumStringLength();
+    this.maximumElements = context.maximumElements();
+    final long maximumNanos = context.maximumTime().toNanos();
+    this.guard = context.maximumLength() != Long.MAX_VALUE || maximumNanos != Long.MAX_VALUE ? new Guard(context.maximumLength(), maximumNanos) : null;
+  }
+
+  /**
+   * Parses a whole document from {@code reader}, as {@link com.google.gson.JsonParser#parse(Reader)} does.
+   *
+   * <p>A strict reader rejects an empty document, rather than reading it as {@link JsonNull}.</p>
+   *
+   * @param reader the reader
+   * @return the json
+   * @throws JsonIOException if an exception occurred while reading
+   * @throws JsonSyntaxException if the document is malformed
+   * @throws JsonLimitException if the document exceeds a limit
+   */
+  @NonNull JsonElement parse(final @NonNull Reader reader) {
+    try {
+      final JsonReader json = new JsonReader(this.guard != null ? this.guard.reset(reader) : reader);
+      json.setLenient(this.lenient);
+      try {
+        json.peek();
+      } catch(final EOFException e) {
+        // an empty document
+        if(!this.lenient) {
+          throw new JsonSyntaxException(e);
+        }
+        return JsonNull.INSTANCE;
+      }
+      final JsonElement element = this.read(json);
+      if(!element.isJsonNull() && json.peek() != JsonToken.END_DOCUMENT) {
+        throw new JsonSyntaxException("Did not consume the entire document.");
+      }
+      return element;
+    } catch(final EOFException | MalformedJsonException | NumberFormatException e) {
+      // a truncated document is malformed rather than unreadable
+      throw new JsonSyntaxException(e);
+    } catch(final IOException e) {
+      throw new JsonIOException(e);
+    } finally {
+      if(this.guard != null) {
+        this.guard.reset(null);
+      }
+    }
+  }
+
+  /**
+   * Reads the element at the current position of {@code reader}.
+   *
+   * @param reader the reader
+   * @return the element
+   * @throws IOException if an exception occurred while reading
+   */
+  @NonNull JsonElement read(final @NonNull JsonReader reader) throws IOException {
+    try {
+      return this.read(reader, this.stack);
+    } finally {
+      // the stack is reused, and must not keep a partly read tree alive
+      this.stack.clear();
+    }
+  }
+
+  private @NonNull JsonElement read(final @NonNull JsonReader reader, final @NonNull List<JsonElement> stack) throws IOException {
+    JsonElement root = null;
+    while(true) {
+      final JsonElement parent = stack.isEmpty() ? null : stack.get(stack.size() - 1);
+      String name = null;
+      if(parent != null && parent.isJsonObject() && reader.hasNext()) {
+        name = this.string(reader, reader.nextName());
+      }
+      final JsonElement value;
+      switch(reader.peek()) {
+        case BEGIN_ARRAY:
+          reader.beginArray();
+          value = new JsonArray();
+          break;
+        case BEGIN_OBJECT:
+          reader.beginObject();
+          value = new JsonObject();
+          break;
+        case END_ARRAY:
+          reader.endArray();
+          stack.remove(stack.size() - 1);
+          if(stack.isEmpty()) {
+            return root;
+          }
+          continue;
+        case END_OBJECT:
+          reader.endObject();
+          stack.remove(stack.size() - 1);
+          if(stack.isEmpty()) {
+            return root;
+          }
+          continue;
+        case STRING:
+          value = new JsonPrimitive(this.string(reader, reader.nextString()));
+          break;
+        case NUMBER:
+          value = new JsonPrimitive(new LazilyParsedNumber(reader.nextString()));
+          break;
+        case BOOLEAN:
+          value = reader.nextBoolean() ? TRUE : FALSE;
+          break;
+        case NULL:
+          reader.nextNull();
+          value = JsonNull.INSTANCE;
+          break;
+        default:
+          throw new IllegalArgumentException();
+      }
+      if(parent == null) {
+        root = value;
+      } else if(name != null) {
+        final JsonObject object = parent.getAsJsonObject();
+        object.add(name, value);
+        if(object.size() > this.maximumElements) {
+          throw this.elements(reader);
+        }
+      } else {
+        final JsonArray array = parent.getAsJsonArray();
+        array.add(value);
+        if(array.size() > this.maximumElements) {
+          throw this.elements(reader);
+        }
+      }
+      if(value.isJsonArray() || value.isJsonObject()) {
+        if(stack.size() == this.maximumDepth) {
+          throw new JsonLimitException(JsonLimitException.Limit.DEPTH, this.maximumDepth, "Exceeded the maximum depth of " + this.maximumDepth + " at path " + reader.getPath());
+        }
+        stack.add(value);
+      } else if(parent == null) {
+        return root;
+      }
+    }
+  }
+
+  private @NonNull String string(final @NonNull JsonReader reader, final @NonNull String string) {
+    if(string.length() > this.maximumStringLength) {
+      throw new JsonLimitException(JsonLimitException.Limit.STRING_LENGTH, this.maximumStringLength, "Exceeded the maximum string length of " + this.maximumStringLength + " at path " + reader.getPath());
+    }
+    return this.strings != null ? this.strings.intern(string) : string;
+  }
+
+  private @NonNull JsonLimitException elements(final @NonNull JsonReader reader) {
+    return new JsonLimitException(JsonLimitException.Limit.ELEMENTS, this.maximumElements, "Exceeded the maximum of " + this.maximumElements + " elements at path " + reader.getPath());
+  }
+
+  /**
+   * A reader which limits the length of a document, and the time taken to parse it.
+   *
+   * <p>Both are checked each time the {@link JsonReader} fills its buffer, so a document is
+   * rejected within a buffer of exceeding its length, however large it or a single string
+   * within it is, and the clock is read at most once per buffer.</p>
+   */
+  private static final class Guard extends Reader {
+    private final long maximumLength;
+    private final long maximumNanos;
+    private @Nullable Reader in;
+    private long length;
+    private long start;
+
+    Guard(final long maximumLength, final long maximumNanos) {
+      this.maximumLength = maximumLength;
+      this.maximumNanos = maximumNanos;
+    }
+
+    @NonNull Guard reset(final @Nullable Reader in) {
+      this.in = in;
+      this.length = 0;
+      this.start = this.maximumNanos != Long.MAX_VALUE ? System.nanoTime() : 0;
+      return this;
+    }
+
+    @Override
+    public int read(final char[] cbuf, final int off, final int len) throws IOException {
+      if(this.maximumNanos != Long.MAX_VALUE && System.nanoTime() - this.start > this.maximumNanos) {
+        throw new JsonLimitException(JsonLimitException.Limit.TIME, this.maximumNanos, "Exceeded the maximum time of " + this.maximumNanos + "ns after reading " + this.length + " characters");
+      }
+      // read no more than one character past the limit, so that exceeding it is detected without reading the rest
+      final long remaining = this.maximumLength - this.length;
+      final int read = this.in.read(cbuf, off, remaining < len ? (int) remaining + 1 : len);
+      if(read > 0) {
+        this.length += read;
+        if(this.length > this.maximumLength) {
+          throw new JsonLimitException(JsonLimitException.Limit.LENGTH, this.maximumLength, "Exceeded the maximum length of " + this.maximumLength + " characters");
+        }
+      }
+      return read;
+    }
+
+    @Override
+    public void close() throws IOException {
+      // the reader is closed by whoever opened it
+    }
+  }
+}
@@ -0,0 +1,137 @@
+/*
+ * This file is part of peppermint, licensed under the MIT License.
+ *
+ * Copyright (c) 2018 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.peppermint;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A reader which decodes UTF-8 from a stream.
+ *
+ * <p>Unlike an {@link java.io.InputStreamReader}, bytes are decoded straight into the
+ * caller's array, without an intermediate character buffer or a lock, by the JDK's UTF-8
+ * decoder and its fast path for ASCII. Malformed input is replaced with {@code U+FFFD}.</p>
+ */
+final class Utf8Reader extends Reader {
+  // small enough to stay in cache while it is decoded - each fill is a single read of the stream beneath, so an
+  // uncompressed file is read straight into this buffer, a block at a time, without a buffered stream's copy
+  private static final int BUFFER_SIZE = 8 * 1024;
+  private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+  private final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+    .onMalformedInput(CodingErrorAction.REPLACE)
+    .onUnmappableCharacter(CodingErrorAction.REPLACE);
+  private InputStream in;
+  private boolean eof;
+  private boolean flushed;
+
+  /**
+   * Creates a reader which must be {@link #reset(InputStream, byte[], int, int) reset} before it is read.
+   */
+  Utf8Reader() {
+  }
+
+  /**
+   * Creates a reader.
+   *
+   * @param in the stream
+   * @param head bytes already read from the start of {@code in}
+   * @param offset the offset of the first byte in {@code head} to decode
+   * @param length the number of bytes in {@code head} to decode, at most the size of the buffer
+   */
+  Utf8Reader(final @NonNull InputStream in, final byte @NonNull [] head, final int offset, final int length) {
+    this.reset(in, head, offset, length);
+  }
+
+  /**
+   * Resets this reader to decode a new stream, keeping its buffer.
+   *
+   * @param in the stream
+   * @param head bytes already read from the start of {@code in}
+   * @param offset the offset of the first byte in {@code head} to decode
+   * @param length the number of bytes in {@code head} to decode, at most the size of the buffer
+   * @return this reader
+   */
+  @NonNull Utf8Reader reset(final @NonNull InputStream in, final byte @NonNull [] head, final int offset, final int length) {
+    this.in = in;
+    this.buffer.clear();
+    this.buffer.put(head, offset, length).flip();
+    this.decoder.reset();
+    this.eof = false;
+    this.flushed = false;
+    return this;
+  }
+
+  @Override
+  public int read(final char[] cbuf, final int off, final int len) throws IOException {
+    if(len == 0) {
+      return 0;
+    }
+    if(this.flushed) {
+      return -1;
+    }
+    final CharBuffer out = CharBuffer.wrap(cbuf, off, len);
+    while(true) {
+      final CoderResult result = this.decoder.decode(this.buffer, out, this.eof);
+      if(result.isOverflow()) {
+        break;
+      } else if(this.eof) {
+        this.decoder.flush(out);
+        this.flushed = true;
+        break;
+      } else if(out.position() > off) {
+        // return what has been decoded rather than blocking for more
+        break;
+      }
+      this.fill();
+    }
+    final int read = out.position() - off;
+    return read == 0 && this.flushed ? -1 : read;
+  }
+
+  // moves the undecoded bytes to the start of the buffer and reads more after them
+  private void fill() throws IOException {
+    final ByteBuffer buffer = this.buffer.compact();
+    final int read = this.in.read(buffer.array(), buffer.position(), buffer.remaining());
+    if(read == -1) {
+      this.eof = true;
+    } else {
+      buffer.position(buffer.position() + read);
+    }
+    buffer.flip();
+  }
+
+  @Override
+  public void close() throws IOException {
+    this.in.close();
+  }
+}
@@ -0,0 +1,178 @@
+/*
+ * This file is part of peppermint, licensed under the MIT License.
+ *
+ * Copyright (c) 2018 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.peppermint;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonSyntaxException;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class FrozenJsonTest {
+  private static final String JSON = "{\"int\": 3, \"negative\": -7, \"long\": 9007199254740993, \"huge\": 12345678901234567890,"
+    + " \"double\": 1.5, \"exponent\": 1e3, \"trailing\": 1.50, \"large\": 1.0E20, \"zero\": -0.0, \"numeric\": \"12\","
+    + " \"string\": \"abc\", \"word\": \"true\", \"empty\": \"\", \"true\": true, \"false\": false, \"null\": null,"
+    + " \"object\": {\"a\": 1}, \"array\": [1, \"b\", null]}";
+  private JsonObject json;
+  private FrozenJson frozen;
+
+  @BeforeAll
+  void init() {
+    this.json = JsonIO.PARSER.parse(JSON).getAsJsonObject();
+    this.frozen = FrozenJson.of(this.json);
+  }
+
+  @Test
+  void testAccessors() {
+    for(final String name : this.json.keySet()) {
+      this.assertSameResult(name, Json::needBoolean, FrozenJson::needBoolean);
+      this.assertSameResult(name, Json::needByte, FrozenJson::needByte);
+      this.assertSameResult(name, Json::needDouble, FrozenJson::needDouble);
+      this.assertSameResult(name, Json::needFloat, FrozenJson::needFloat);
+      this.assertSameResult(name, Json::needInt, FrozenJson::needInt);
+      this.assertSameResult(name, Json::needLong, FrozenJson::needLong);
+      this.assertSameResult(name, Json::needString, FrozenJson::needString);
+      this.assertSameResult(name, (json, n) -> Json.getString(json, n, "default"), (json, n) -> json.getString(n, "default"));
+      assertEquals(Json.hasNonNull(this.json, name), this.frozen.hasNonNull(name), name);
+      assertEquals(Json.isNumber(this.json, name), this.frozen.isNumber(name), name);
+      assertEquals(Json.isString(this.json, name), this.frozen.isString(name), name);
+      assertEquals(Json.isBoolean(this.json, name), this.frozen.isBoolean(name), name);
+      assertEquals(Json.isPrimitive(this.json, name), this.frozen.isPrimitive(name), name);
+      assertEquals(Json.isObject(this.json, name), this.frozen.isObject(name), name);
+      assertEquals(Json.isArray(this.json, name), this.frozen.isArray(name), name);
+    }
+    assertFalse(this.frozen.has("missing"));
+    assertEquals(5, this.frozen.getInt("missing", 5));
+    assertEquals("Missing missing, expected to find an int", assertThrows(JsonSyntaxException.class, () -> this.frozen.needInt("missing")).getMessage());
+    assertEquals("Expected object to be an int", assertThrows(JsonSyntaxException.class, () -> this.frozen.needInt("object")).getMessage());
+  }
+
+  private <T> void assertSameResult(final String name, final BiFunction<JsonObject, String, T> expected, final BiFunction<FrozenJson, String, T> actual) {
+    final Object expectedResult = result(() -> expected.apply(this.json, name));
+    final Object actualResult = result(() -> actual.apply(this.frozen, name));
+    if(expectedResult instanceof Exception) {
+      assertEquals(expectedResult.getClass(), actualResult.getClass(), name);
+      assertEquals(((Exception) expectedResult).getMessage(), ((Exception) actualResult).getMessage(), name);
+    } else {
+      assertEquals(expectedResult, actualResult, name);
+    }
+  }
+
+  private static Object result(final Supplier<?> supplier) {
+    try {
+      return supplier.get();
+    } catch(final RuntimeException e) {
+      return e;
+    }
+  }
+
+  @Test
+  void testStructure() {
+    assertTrue(this.frozen.isObject());
+    assertEquals(this.json.size(), this.frozen.size());
+    assertEquals(Arrays.asList("a"), this.frozen.needObject("object").names());
+    final FrozenJson array = this.frozen.needArray("array");
+    assertTrue(array.isArray());
+    assertEquals(3, array.size());
+    assertEquals(1, array.needInt(0));
+    assertEquals("b", array.needString(1));
+    assertTrue(array.isNull(2));
+    assertEquals("Expected [2] to be a string", assertThrows(JsonSyntaxException.class, () -> array.needString(2)).getMessage());
+    assertThrows(IllegalStateException.class, () -> array.name(0));
+    assertEquals(this.json, this.frozen.toJson());
+    assertEquals(this.frozen, FrozenJson.of(this.json));
+    assertEquals(this.frozen.hashCode(), FrozenJson.of(this.json).hashCode());
+  }
+
+  @Test
+  void testSharedNames() {
+    final JsonArray array = JsonIO.PARSER.parse("[{\"b\": 1, \"a\": 2}, {\"a\": \"x\", \"b\": true}, {\"a\": 1, \"a\": 2}]").getAsJsonArray();
+    final FrozenJson frozen = FrozenJson.of(array);
+    assertSame(frozen.needObject(0).names().get(0), frozen.needObject(1).names().get(0));
+    assertEquals(Arrays.asList("a", "b"), frozen.needObject(1).names());
+    assertEquals(2, frozen.needObject(2).needInt("a"));
+  }
+
+  @Test
+  void testReadFrozen() throws IOException {
+    final Path file = Files.createTempFile("peppermint", ".json");
+    try {
+      Files.write(file, JSON.getBytes(StandardCharsets.UTF_8));
+      assertEquals(this.frozen, JsonIO.readFrozen(file));
+      Files.write(file, "1".getBytes(StandardCharsets.UTF_8));
+      assertThrows(JsonSyntaxException.class, () -> JsonIO.readFrozen(file));
+      Files.write(file, "{\"a\": 1} 2".getBytes(StandardCharsets.UTF_8));
+      assertThrows(JsonSyntaxException.class, () -> JsonIO.readFrozen(file));
+
+      // trees are built iteratively, so depth is not limited by the stack
+      final StringBuilder deep = new StringBuilder();
+      for(int i = 0; i < 100000; i++) {
+        deep.append("{\"a\": [");
+      }
+      deep.append('1');
+      for(int i = 0; i < 100000; i++) {
+        deep.append("]}");
+      }
+      Files.write(file, deep.toString().getBytes(StandardCharsets.UTF_8));
+      FrozenJson read = JsonIO.readFrozen(file);
+      for(int i = 1; i < 100000; i++) {
+        read = read.needArray("a").needObject(0);
+      }
+      assertEquals(1, read.needArray("a").needInt(0));
+
+      JsonArray array = new JsonArray();
+      final JsonArray deepest = array;
+      for(int i = 0; i < 100000; i++) {
+        final JsonObject object = new JsonObject();
+        object.add("a", array);
+        array = new JsonArray();
+        array.add(object);
+      }
+      deepest.add(1);
+      FrozenJson frozen = FrozenJson.of(array);
+      for(int i = 0; i < 100000; i++) {
+        frozen = frozen.needObject(0).needArray("a");
+      }
+      assertEquals(1, frozen.needInt(0));
+    } finally {
+      Files.delete(file);
+    }
+  }
+}
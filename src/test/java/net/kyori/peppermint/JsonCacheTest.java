@@ -0,0 +1,164 @@
+/*
+ * This file is part of peppermint, licensed under the MIT License.
+ *
+ * Copyright (c) 2018 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.peppermint;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonSyntaxException;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class JsonCacheTest {
+  @Test
+  void testHitAndInvalidate() throws IOException {
+    final Path file = Files.createTempFile("peppermint", ".json");
+    try {
+      write(file, "{\"a\":1}", 1000);
+      final JsonCache cache = new JsonCache(1024, false);
+      final JsonObject first = cache.getObject(file);
+      assertSame(first, cache.getObject(file));
+      assertEquals(1, cache.hits());
+      assertEquals(1, cache.misses());
+
+      write(file, "{\"a\":2}", 2000);
+      assertEquals(2, Json.needInt(cache.getObject(file), "a"));
+      assertEquals(2, cache.misses());
+
+      cache.invalidate(file);
+      assertEquals(0, cache.size());
+      assertEquals(0, cache.weight());
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  @Test
+  void testCopy() throws IOException {
+    final Path file = Files.createTempFile("peppermint", ".json");
+    try {
+      write(file, "{\"a\":1}", 1000);
+      final JsonCache cache = new JsonCache(1024);
+      final JsonObject first = cache.getObject(file);
+      first.addProperty("a", 2);
+      assertNotSame(first, cache.getObject(file));
+      assertEquals(1, Json.needInt(cache.getObject(file), "a"));
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  @Test
+  void testEviction() throws IOException {
+    final Path a = Files.createTempFile("peppermint", ".json");
+    final Path b = Files.createTempFile("peppermint", ".json");
+    try {
+      write(a, "[1,2,3]", 1000);
+      write(b, "[4,5,6]", 1000);
+      final JsonCache cache = new JsonCache(10);
+      cache.get(a);
+      cache.get(b);
+      assertEquals(1, cache.size());
+      assertEquals(7, cache.weight());
+      cache.get(b);
+      assertEquals(1, cache.hits());
+    } finally {
+      Files.delete(a);
+      Files.delete(b);
+    }
+  }
+
+  @Test
+  void testConcurrentMisses() throws Exception {
+    final Path file = Files.createTempFile("peppermint", ".json");
+    final JsonMetricsRecorder recorder = new JsonMetricsRecorder();
+    final ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      final StringBuilder json = new StringBuilder("[");
+      for(int i = 0; i < 100_000; i++) {
+        json.append(i).append(',');
+      }
+      write(file, json.append("0]").toString(), 1000);
+      final JsonCache cache = new JsonCache(Long.MAX_VALUE);
+      JsonMetrics.install(recorder);
+      final CountDownLatch start = new CountDownLatch(1);
+      final List<Future<JsonElement>> futures = new ArrayList<>();
+      for(int i = 0; i < 8; i++) {
+        futures.add(executor.submit(() -> {
+          start.await();
+          return cache.get(file);
+        }));
+      }
+      start.countDown();
+      for(final Future<JsonElement> future : futures) {
+        assertEquals(100_001, future.get().getAsJsonArray().size());
+      }
+      // the lookups which missed while the file was being read waited for that read
+      assertEquals(1, recorder.files());
+      assertEquals(1, cache.misses());
+      assertEquals(7, cache.hits());
+    } finally {
+      JsonMetrics.install(null);
+      executor.shutdown();
+      Files.delete(file);
+    }
+  }
+
+  @Test
+  void testMalformed() throws IOException {
+    final Path file = Files.createTempFile("peppermint", ".json");
+    try {
+      write(file, "[1,", 1000);
+      final JsonCache cache = new JsonCache(1024);
+      assertThrows(JsonSyntaxException.class, () -> cache.get(file));
+      // a failed read is not cached
+      assertEquals(0, cache.size());
+      assertEquals(0, cache.weight());
+      write(file, "[1]", 2000);
+      assertEquals(1, cache.get(file).getAsJsonArray().size());
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  private static void write(final Path path, final String content, final long modified) throws IOException {
+    Files.write(path, content.getBytes(StandardCharsets.UTF_8));
+    Files.setLastModifiedTime(path, FileTime.fromMillis(modified));
+  }
+}
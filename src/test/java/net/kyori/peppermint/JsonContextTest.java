@@ -0,0 +1,184 @@
+/*
+ * This file is part of peppermint, licensed under the MIT License.
+ *
+ * Copyright (c) 2018 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.peppermint;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonSyntaxException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.function.Executable;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class JsonContextTest {
+  private static final String JSON = "{\"a\": [1, 2.50, {\"b\": \"c\"}], \"d\": true, \"e\": null, \"f\": \"\\u00e9\"}";
+
+  @Test
+  void testParse() {
+    assertEquals(JsonIO.PARSER.parse(JSON), JsonContext.DEFAULT.parse(JSON));
+    assertEquals(JsonIO.PARSER.parse("{a: 'b'}"), JsonContext.DEFAULT.parse("{a: 'b'}"));
+    assertSame(JsonNull.INSTANCE, JsonContext.DEFAULT.parse(""));
+    assertThrows(JsonSyntaxException.class, () -> JsonContext.DEFAULT.parse("[1,"));
+    // the stack of a failed parse does not affect the next
+    assertEquals(JsonIO.PARSER.parse(JSON), JsonContext.DEFAULT.parse(JSON));
+  }
+
+  @Test
+  void testStrict() {
+    final JsonContext context = JsonContext.builder().lenient(false).build();
+    assertEquals(JsonIO.PARSER.parse(JSON), context.parse(JSON));
+    assertThrows(JsonSyntaxException.class, () -> context.parse("{a: 'b'}"));
+    assertThrows(JsonSyntaxException.class, () -> context.parse("[1,]"));
+    assertThrows(JsonSyntaxException.class, () -> context.parse("{} {}"));
+    assertThrows(JsonSyntaxException.class, () -> context.parse(""));
+  }
+
+  @Test
+  void testLimits() {
+    final JsonContext context = JsonContext.builder().maximumDepth(3).maximumStringLength(4).build();
+    assertEquals(JsonIO.PARSER.parse(JSON), context.parse(JSON));
+    assertEquals(1, context.parse("[[[1]]]").getAsJsonArray().get(0).getAsJsonArray().get(0).getAsJsonArray().get(0).getAsInt());
+    final JsonLimitException depth = assertThrows(JsonLimitException.class, () -> context.parse("[[{\"a\": []}]]"));
+    assertTrue(depth.getMessage().contains("$[0][0].a"), depth.getMessage());
+    assertLimit(JsonLimitException.Limit.STRING_LENGTH, 4, () -> context.parse("[\"abcde\"]"));
+    assertLimit(JsonLimitException.Limit.STRING_LENGTH, 4, () -> context.parse("{\"abcde\": 1}"));
+    assertThrows(IllegalArgumentException.class, () -> JsonContext.builder().maximumDepth(0));
+  }
+
+  @Test
+  void testUntrusted() {
+    final JsonContext context = JsonContext.builder()
+      .lenient(false)
+      .maximumDepth(64)
+      .maximumElements(4)
+      .maximumLength(1024 * 1024)
+      .maximumTime(Duration.ofSeconds(10))
+      .build();
+    assertEquals(JsonIO.PARSER.parse(JSON), context.parse(JSON));
+    assertEquals(4, context.parse("{\"a\": [1, 2, 3, 4]}").getAsJsonObject().getAsJsonArray("a").size());
+    assertLimit(JsonLimitException.Limit.ELEMENTS, 4, () -> context.parse("[1, 2, 3, 4, 5]"));
+    assertLimit(JsonLimitException.Limit.ELEMENTS, 4, () -> context.parse("{\"a\": 1, \"b\": 2, \"c\": 3, \"d\": 4, \"e\": 5}"));
+    final StringBuilder deep = new StringBuilder();
+    for(int i = 0; i < 100_000; i++) {
+      deep.append('[');
+    }
+    assertLimit(JsonLimitException.Limit.DEPTH, 64, () -> context.parse(deep.toString()));
+    // a string which never ends is rejected once the document is too long, rather than exhausting the heap
+    assertLimit(JsonLimitException.Limit.LENGTH, 1024 * 1024, () -> context.parse(new Endless("[\"", 'a')));
+    // as is an array which never ends, once it has taken too long
+    final JsonContext timed = JsonContext.builder().maximumTime(Duration.ofMillis(50)).build();
+    assertLimit(JsonLimitException.Limit.TIME, Duration.ofMillis(50).toNanos(), () -> timed.parse(new Endless("[", '1', ',')));
+    // a document of exactly the maximum length is accepted
+    assertEquals(1, JsonContext.builder().maximumLength(3).build().parse("[1]").getAsJsonArray().size());
+    assertLimit(JsonLimitException.Limit.LENGTH, 2, () -> JsonContext.builder().maximumLength(2).build().parse("[1]"));
+    assertThrows(IllegalArgumentException.class, () -> JsonContext.builder().maximumTime(Duration.ofMillis(-1)));
+    assertEquals(Long.MAX_VALUE, JsonContext.builder().maximumTime(Duration.ofDays(365 * 1000)).build().maximumTime().toNanos());
+  }
+
+  private static void assertLimit(final JsonLimitException.Limit limit, final long maximum, final Executable executable) {
+    final JsonLimitException exception = assertThrows(JsonLimitException.class, executable);
+    assertEquals(limit, exception.limit());
+    assertEquals(maximum, exception.maximum());
+  }
+
+  // a reader of a prefix followed by an endless repetition of a pattern
+  private static final class Endless extends Reader {
+    private final String prefix;
+    private final char[] pattern;
+    private long position;
+
+    Endless(final String prefix, final char... pattern) {
+      this.prefix = prefix;
+      this.pattern = pattern;
+    }
+
+    @Override
+    public int read(final char[] cbuf, final int off, final int len) {
+      for(int i = 0; i < len; i++, this.position++) {
+        cbuf[off + i] = this.position < this.prefix.length() ? this.prefix.charAt((int) this.position) : this.pattern[(int) ((this.position - this.prefix.length()) % this.pattern.length)];
+      }
+      return len;
+    }
+
+    @Override
+    public void close() {
+    }
+  }
+
+  @Test
+  void testRead() throws IOException {
+    final Path file = Files.createTempFile("peppermint", ".json");
+    try {
+      final JsonContext context = JsonContext.builder().strings(new JsonStringPool(16)).build();
+      // the reader of the thread is reused between files of different encodings
+      Files.write(file, JSON.getBytes(StandardCharsets.UTF_8));
+      assertEquals(JsonIO.PARSER.parse(JSON), context.readObject(file));
+      Files.write(file, JSON.getBytes(StandardCharsets.UTF_16LE));
+      assertEquals(JsonIO.PARSER.parse(JSON), context.read(file));
+      Files.write(file, ('\uFEFF' + JSON).getBytes(StandardCharsets.UTF_8));
+      assertEquals(JsonIO.PARSER.parse(JSON), context.read(file));
+      Files.write(file, "[1".getBytes(StandardCharsets.UTF_8));
+      assertThrows(JsonSyntaxException.class, () -> context.read(file));
+      Files.write(file, "[1]".getBytes(StandardCharsets.UTF_8));
+      assertEquals(1, context.read(file).getAsJsonArray().get(0).getAsInt());
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  @Test
+  void testThreads() throws ExecutionException, InterruptedException {
+    final JsonElement expected = JsonIO.PARSER.parse(JSON);
+    final ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      final List<Future<JsonElement>> futures = new ArrayList<>();
+      for(int i = 0; i < 256; i++) {
+        futures.add(executor.submit(() -> JsonContext.DEFAULT.parse(JSON)));
+      }
+      for(final Future<JsonElement> future : futures) {
+        assertEquals(expected, future.get());
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
+}
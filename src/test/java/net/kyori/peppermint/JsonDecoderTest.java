@@ -0,0 +1,152 @@
+/*
+ * This file is part of peppermint, licensed under the MIT License.
+ *
+ * Copyright (c) 2018 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.peppermint;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonSyntaxException;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class JsonDecoderTest {
+  private static JsonObject json(final String json) {
+    return JsonIO.PARSER.parse(json).getAsJsonObject();
+  }
+
+  @Test
+  void testInterface() {
+    final Record record = JsonDecoder.of(Record.class).decode(json("{\"id\": 3, \"name\": \"foo\", \"kind\": \"B\", \"tags\": [\"x\", \"y\"], \"position\": {\"x\": 1, \"y\": 2}}"));
+    assertEquals(3, record.id());
+    assertEquals("foo", record.name());
+    assertEquals(Kind.B, record.kind());
+    assertEquals(Arrays.asList("x", "y"), record.tags());
+    assertEquals(1, record.position().x);
+    assertEquals(2, record.position().y);
+    assertNull(record.score());
+    assertFalse(record.parent().isPresent());
+    assertSame(JsonDecoder.of(Record.class), JsonDecoder.of(Record.class));
+  }
+
+  @Test
+  void testNested() {
+    final Record record = JsonDecoder.of(Record.class).decode(json("{\"id\": 3, \"name\": \"foo\", \"kind\": \"A\", \"tags\": [], \"position\": {\"x\": 1, \"y\": 2}, \"score\": 1.5, \"parent\": {\"id\": 4, \"name\": \"bar\", \"kind\": \"A\", \"tags\": [], \"position\": {\"x\": 0, \"y\": 0}}}"));
+    assertEquals(Double.valueOf(1.5d), record.score());
+    assertEquals(4, record.parent().get().id());
+  }
+
+  @Test
+  void testMessages() {
+    assertEquals("Missing kind, expected to find a string", assertThrows(JsonSyntaxException.class, () -> JsonDecoder.of(Record.class).decode(json("{\"id\": 3}"))).getMessage());
+    assertEquals("Expected kind to be one of [A, B]", assertThrows(JsonSyntaxException.class, () -> JsonDecoder.of(Record.class).decode(json("{\"id\": 3, \"name\": \"foo\", \"kind\": \"C\"}"))).getMessage());
+    assertEquals("Expected position to be an object", assertThrows(JsonSyntaxException.class, () -> JsonDecoder.of(Record.class).decode(json("{\"id\": 3, \"name\": \"foo\", \"kind\": \"A\", \"tags\": [], \"position\": 1}"))).getMessage());
+    assertEquals("Missing y, expected to find an int", assertThrows(JsonSyntaxException.class, () -> JsonDecoder.of(Position.class).decode(json("{\"x\": 3}"))).getMessage());
+  }
+
+  @Test
+  void testImplementation() {
+    final Point point = JsonDecoder.of(Point.class).decode(json("{\"x\": 1, \"y\": 2, \"label\": \"p\", \"weight\": 0.5, \"big\": 9007199254740993}"));
+    // default methods are inherited rather than bound
+    assertEquals(3, point.sum());
+    assertEquals("Point{big=9007199254740993, label=p, weight=0.5, x=1, y=2}", point.toString());
+    assertEquals(point, point);
+    assertNotEquals(point, JsonDecoder.of(Point.class).decode(json("{\"x\": 1, \"y\": 2, \"label\": \"p\", \"weight\": 0.5, \"big\": 0}")));
+    // a method narrowed by a subinterface is bound once, and returns the same value through either declaration
+    final Named named = JsonDecoder.of(Named.class).decode(json("{\"name\": \"a\"}"));
+    assertEquals("a", named.name());
+    assertEquals("a", ((Labelled) named).name());
+  }
+
+  @Test
+  void testUnbindable() {
+    assertThrows(IllegalArgumentException.class, () -> JsonDecoder.of(Runnable.class));
+  }
+
+  enum Kind {
+    A,
+    B
+  }
+
+  interface Record {
+    int id();
+
+    String name();
+
+    Kind kind();
+
+    List<String> tags();
+
+    Position position();
+
+    Double score();
+
+    Optional<Record> parent();
+  }
+
+  interface Point {
+    int x();
+
+    int y();
+
+    String label();
+
+    float weight();
+
+    long big();
+
+    default int sum() {
+      return this.x() + this.y();
+    }
+
+    @Override
+    String toString();
+  }
+
+  interface Labelled {
+    Object name();
+  }
+
+  interface Named extends Labelled {
+    @Override
+    String name();
+  }
+
+  static final class Position {
+    final int x;
+    final int y;
+
+    Position(final int x, final int y) {
+      this.x = x;
+      this.y = y;
+    }
+  }
+}
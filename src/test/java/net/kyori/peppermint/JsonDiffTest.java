@@ -0,0 +1,151 @@
+/*
+ * This file is part of peppermint, licensed under the MIT License.
+ *
+ * Copyright (c) 2018 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.peppermint;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.JsonSyntaxException;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class JsonDiffTest {
+  private static JsonElement parse(final String json) {
+    return JsonIO.PARSER.parse(json);
+  }
+
+  @Test
+  void testDiff() {
+    assertEquals(parse("[]"), JsonDiff.diff(parse("{\"a\": [1, 2]}"), parse("{\"a\": [1, 2]}")));
+    assertEquals(parse("[{\"op\": \"replace\", \"path\": \"/a/b~1c/1\", \"value\": 3}]"), JsonDiff.diff(parse("{\"a\": {\"b/c\": [1, 2]}}"), parse("{\"a\": {\"b/c\": [1, 3]}}")));
+    assertEquals(parse("[{\"op\": \"remove\", \"path\": \"/a\"}, {\"op\": \"add\", \"path\": \"/c~0\", \"value\": null}]"), JsonDiff.diff(parse("{\"a\": 1, \"b\": 2}"), parse("{\"b\": 2, \"c~\": null}")));
+    assertEquals(parse("[{\"op\": \"add\", \"path\": \"/1\", \"value\": {\"x\": 1}}]"), JsonDiff.diff(parse("[1, 2, 3]"), parse("[1, {\"x\": 1}, 2, 3]")));
+    assertEquals(parse("[{\"op\": \"remove\", \"path\": \"/0\"}, {\"op\": \"add\", \"path\": \"/2\", \"value\": 4}]"), JsonDiff.diff(parse("[1, 2, 3]"), parse("[2, 3, 4]")));
+    assertEquals(parse("[{\"op\": \"replace\", \"path\": \"/1/a\", \"value\": 2}]"), JsonDiff.diff(parse("[0, {\"a\": 1, \"b\": [5]}, 9]"), parse("[0, {\"a\": 2, \"b\": [5]}, 9]")));
+    assertEquals(parse("[{\"op\": \"replace\", \"path\": \"\", \"value\": [1]}]"), JsonDiff.diff(parse("{}"), parse("[1]")));
+  }
+
+  @Test
+  void testApply() {
+    final JsonElement json = parse("{\"a\": [1, 2], \"b\": {\"c\": true}}");
+    final JsonArray patch = parse("[{\"op\": \"test\", \"path\": \"/b/c\", \"value\": true},"
+      + " {\"op\": \"add\", \"path\": \"/a/1\", \"value\": 5}, {\"op\": \"add\", \"path\": \"/a/-\", \"value\": 6},"
+      + " {\"op\": \"copy\", \"from\": \"/a\", \"path\": \"/d\"}, {\"op\": \"move\", \"from\": \"/b/c\", \"path\": \"/e\"},"
+      + " {\"op\": \"replace\", \"path\": \"/a/0\", \"value\": 0}, {\"op\": \"remove\", \"path\": \"/d/3\"}]").getAsJsonArray();
+    assertEquals(parse("{\"a\": [0, 5, 2, 6], \"b\": {}, \"d\": [1, 5, 2], \"e\": true}"), JsonDiff.apply(json, patch));
+    assertEquals(parse("{\"a\": [1, 2], \"b\": {\"c\": true}}"), json);
+
+    assertThrows(JsonSyntaxException.class, () -> JsonDiff.apply(json, parse("[{\"op\": \"test\", \"path\": \"/b/c\", \"value\": false}]").getAsJsonArray()));
+    assertThrows(JsonSyntaxException.class, () -> JsonDiff.apply(json, parse("[{\"op\": \"remove\", \"path\": \"/x\"}]").getAsJsonArray()));
+    assertThrows(JsonSyntaxException.class, () -> JsonDiff.apply(json, parse("[{\"op\": \"add\", \"path\": \"/a/3\", \"value\": 1}]").getAsJsonArray()));
+    assertThrows(JsonSyntaxException.class, () -> JsonDiff.apply(json, parse("[{\"op\": \"replace\", \"path\": \"/a/01\", \"value\": 1}]").getAsJsonArray()));
+    assertThrows(JsonSyntaxException.class, () -> JsonDiff.apply(json, parse("[{\"op\": \"move\", \"from\": \"/b\", \"path\": \"/b/c\"}]").getAsJsonArray()));
+    assertThrows(JsonSyntaxException.class, () -> JsonDiff.apply(json, parse("[{\"op\": \"add\", \"path\": \"a\", \"value\": 1}]").getAsJsonArray()));
+  }
+
+  @Test
+  void testRoundTrip() {
+    final Random random = new Random(0x5eed);
+    for(int i = 0; i < 500; i++) {
+      final JsonElement source = element(random, 3);
+      final JsonElement target = mutate(random, source.deepCopy(), 3);
+      assertEquals(target, JsonDiff.apply(source, JsonDiff.diff(source, target)), () -> source + " -> " + target);
+    }
+  }
+
+  @Test
+  void testLargeArrays() {
+    final JsonArray source = new JsonArray();
+    final JsonArray target = new JsonArray();
+    for(int i = 0; i < 1000; i++) {
+      source.add(i);
+      target.add(i % 7 == 0 ? -i : i + 1);
+    }
+    // too large to find the longest common subsequence, so elements are compared by index
+    final JsonArray patch = JsonDiff.diff(source, target);
+    assertEquals(999, patch.size());
+    assertEquals(target, JsonDiff.apply(source, patch));
+  }
+
+  private static JsonElement element(final Random random, final int depth) {
+    switch(depth > 0 ? random.nextInt(6) : random.nextInt(4)) {
+      case 0: return JsonNull.INSTANCE;
+      case 1: return new JsonPrimitive(random.nextInt(4));
+      case 2: return new JsonPrimitive(random.nextBoolean());
+      case 3: return new JsonPrimitive(String.valueOf((char) ('a' + random.nextInt(4))));
+      case 4: {
+        final JsonArray array = new JsonArray();
+        for(int i = random.nextInt(6); i > 0; i--) {
+          array.add(element(random, depth - 1));
+        }
+        return array;
+      }
+      default: {
+        final JsonObject object = new JsonObject();
+        for(int i = random.nextInt(5); i > 0; i--) {
+          object.add(String.valueOf((char) ('a' + random.nextInt(5))), element(random, depth - 1));
+        }
+        return object;
+      }
+    }
+  }
+
+  private static JsonElement mutate(final Random random, final JsonElement json, final int depth) {
+    if(random.nextInt(4) == 0) {
+      return element(random, depth);
+    } else if(json.isJsonArray()) {
+      final JsonArray array = json.getAsJsonArray();
+      final JsonArray result = new JsonArray();
+      for(final JsonElement element : array) {
+        final int action = random.nextInt(5);
+        if(action == 0) {
+          continue;
+        } else if(action == 1) {
+          result.add(element(random, depth - 1));
+        }
+        result.add(action == 2 ? mutate(random, element, depth - 1) : element);
+      }
+      return result;
+    } else if(json.isJsonObject()) {
+      final JsonObject object = json.getAsJsonObject();
+      for(final String name : object.keySet().toArray(new String[0])) {
+        final int action = random.nextInt(4);
+        if(action == 0) {
+          object.remove(name);
+        } else if(action == 1) {
+          object.add(name, mutate(random, object.get(name), depth - 1));
+        }
+      }
+      object.add(String.valueOf((char) ('a' + random.nextInt(5))), element(random, depth - 1));
+      return object;
+    }
+    return json;
+  }
+}
@@ -0,0 +1,474 @@
+/*
+ * This file is part of peppermint, licensed under the MIT License.
+ *
+ * Copyright (c) 2018 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.peppermint;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class JsonIOTest {
+  private static final String STRING = "peppermint éè 中文 🍃";
+  private Path directory;
+  private Path file;
+  private JsonObject json;
+
+  @BeforeAll
+  void init() throws IOException {
+    this.directory = Files.createTempDirectory("peppermint");
+    this.json = new JsonObject();
+    final JsonArray array = new JsonArray();
+    for(int i = 0; i < 64; i++) {
+      final JsonObject element = new JsonObject();
+      element.addProperty("id", i);
+      element.addProperty("name", STRING + i);
+      array.add(element);
+    }
+    this.json.add("array", array);
+    this.json.addProperty("string", STRING);
+    this.file = this.write("object.json", this.json.toString());
+  }
+
+  @AfterAll
+  void destroy() throws IOException {
+    try(final Stream<Path> paths = Files.walk(this.directory)) {
+      paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+    }
+  }
+
+  private Path write(final String name, final String content) throws IOException {
+    return Files.write(this.directory.resolve(name), content.getBytes(StandardCharsets.UTF_8));
+  }
+
+  @Test
+  void testReadMapped() throws IOException {
+    assertEquals(this.json, JsonIO.readMapped(this.file));
+    assertEquals(this.json, JsonIO.readMapped(this.file, 0));
+    assertEquals(this.json, JsonIO.readMapped(this.file, Long.MAX_VALUE));
+    assertEquals(this.json, JsonIO.readObjectMapped(this.file));
+  }
+
+  @Test
+  void testReadMappedWindows() throws IOException {
+    // small windows split multi-byte sequences across mappings
+    for(int window = 4; window < 12; window++) {
+      try(final Reader reader = new MappedReader(FileChannel.open(this.file, StandardOpenOption.READ), window)) {
+        assertEquals(this.json, JsonIO.PARSER.parse(reader));
+      }
+    }
+  }
+
+  @Test
+  void testReadMappedSingleCharacters() throws IOException {
+    final StringBuilder sb = new StringBuilder();
+    try(final Reader reader = new MappedReader(FileChannel.open(this.file, StandardOpenOption.READ), 5)) {
+      final char[] buffer = new char[1];
+      while(reader.read(buffer, 0, 1) != -1) {
+        sb.append(buffer[0]);
+      }
+    }
+    assertEquals(this.json.toString(), sb.toString());
+  }
+
+  @Test
+  void testReadMalformedUtf8() throws IOException {
+    // every read path replaces malformed input, rather than some replacing it and others throwing
+    final Path path = Files.write(this.directory.resolve("malformed.json"), new byte[]{'[', '"', 'a', (byte) 0xff, 'b', '"', ']'});
+    final JsonElement expected = JsonIO.PARSER.parse("[\"a\uFFFDb\"]");
+    assertEquals(expected, JsonIO.read(path));
+    assertEquals(expected, JsonIO.readMapped(path, 0));
+    assertEquals(expected, JsonIO.readMapped(path, Long.MAX_VALUE));
+    try(final Stream<JsonElement> lines = JsonIO.readLines(path, true)) {
+      assertEquals(Collections.singletonList(expected), lines.collect(Collectors.toList()));
+    }
+  }
+
+  @Test
+  void testReadMappedEmptyArray() throws IOException {
+    final JsonElement empty = JsonIO.readMapped(this.write("empty.json", "[]"), 0);
+    assertEquals(new JsonArray(), empty);
+  }
+
+  @Test
+  void testStream() throws IOException {
+    final JsonArray array = this.json.getAsJsonArray("array");
+    try(final Stream<JsonElement> stream = JsonIO.stream(this.write("array.json", array.toString()))) {
+      final Iterator<JsonElement> it = stream.iterator();
+      for(int i = 0; i < array.size(); i++) {
+        final JsonObject element = it.next().getAsJsonObject();
+        assertEquals(i, Json.needInt(element, "id"));
+        assertEquals(STRING + i, Json.needString(element, "name"));
+      }
+      assertFalse(it.hasNext());
+    }
+  }
+
+  @Test
+  void testStreamMalformed() throws IOException {
+    try(final Stream<JsonElement> stream = JsonIO.stream(this.write("object-stream.json", "{}"))) {
+      assertThrows(JsonSyntaxException.class, stream::count);
+    }
+    try(final Stream<JsonElement> stream = JsonIO.stream(this.write("trailing-stream.json", "[1, 2] 3"))) {
+      assertThrows(JsonSyntaxException.class, stream::count);
+    }
+  }
+
+  @Test
+  void testReadAll() throws IOException {
+    final Path directory = Files.createDirectory(this.directory.resolve("batch"));
+    for(int i = 0; i < 32; i++) {
+      final JsonObject json = new JsonObject();
+      json.addProperty("id", i);
+      Files.write(directory.resolve(i + ".json"), json.toString().getBytes(StandardCharsets.UTF_8));
+    }
+    Files.write(directory.resolve("bad.json"), "{".getBytes(StandardCharsets.UTF_8));
+    Files.write(directory.resolve("array.json"), "[]".getBytes(StandardCharsets.UTF_8));
+    Files.write(directory.resolve("ignored.txt"), "{".getBytes(StandardCharsets.UTF_8));
+
+    final JsonBatch batch = JsonIO.readAll(directory, "*.json");
+    assertFalse(batch.successful());
+    assertEquals(32, batch.objects().size());
+    for(int i = 0; i < 32; i++) {
+      assertEquals(i, Json.needInt(batch.objects().get(directory.resolve(i + ".json")), "id"));
+    }
+    assertEquals(2, batch.failures().size());
+    assertTrue(batch.failures().containsKey(directory.resolve("bad.json")));
+    assertTrue(batch.failures().containsKey(directory.resolve("array.json")));
+  }
+
+  @Test
+  void testReadAsync() throws Exception {
+    assertEquals(this.json, JsonIO.readAsync(this.file).get());
+    assertEquals(this.json, JsonIO.readObjectAsync(this.file, Runnable::run).get());
+    final ExecutionException missing = assertThrows(ExecutionException.class, () -> JsonIO.readAsync(this.directory.resolve("missing.json")).get());
+    assertTrue(missing.getCause() instanceof NoSuchFileException);
+  }
+
+  @Test
+  void testWrite() throws IOException {
+    final JsonObject json = this.json.deepCopy();
+    json.add("null", JsonNull.INSTANCE);
+    json.addProperty("boolean", true);
+    json.addProperty("double", 1.5d);
+    final Path path = this.directory.resolve("write.json");
+    JsonIO.write(path, json);
+    assertEquals(json, JsonIO.readMapped(path));
+    JsonIO.write(path, json, true);
+    assertEquals(json, JsonIO.readMapped(path));
+    assertTrue(new String(Files.readAllBytes(path), StandardCharsets.UTF_8).contains("\n  \"array\": ["));
+  }
+
+  @Test
+  void testWriterIncomplete() throws IOException {
+    final Path path = this.write("writer.json", "[]");
+    final JsonWriter writer = JsonIO.writer(path);
+    writer.beginArray();
+    writer.value(1);
+    assertThrows(IOException.class, writer::close);
+    assertEquals(new JsonArray(), JsonIO.read(path));
+    try(final Stream<Path> paths = Files.list(this.directory)) {
+      assertFalse(paths.anyMatch(file -> file.getFileName().toString().endsWith(".tmp")));
+    }
+  }
+
+  @Test
+  void testProject() throws IOException {
+    final Path path = this.write("project.json", "{\"a\": {\"b\": 1, \"c\": [1, 2], \"d\": {\"e\": true}}, \"f\": \"g\", \"h\": null, \"i\": {\"j\": 2}}");
+    final JsonObject json = JsonIO.project(path, new HashSet<>(Arrays.asList("a.b", "a.d", "f", "i.x", "missing.y")));
+    assertEquals(JsonIO.PARSER.parse("{\"a\": {\"b\": 1, \"d\": {\"e\": true}}, \"f\": \"g\", \"i\": {}}"), json);
+    assertEquals(1, JsonPath.compile("a.b").needInt(json));
+    assertEquals(JsonIO.PARSER.parse("{\"a\": {\"b\": 1, \"c\": [1, 2], \"d\": {\"e\": true}}}"), JsonIO.project(path, new HashSet<>(Arrays.asList("a.b", "a"))));
+    // the empty path selects the whole object, as it does in JsonPath
+    assertEquals(JsonIO.PARSER.parse(new String(Files.readAllBytes(path), StandardCharsets.UTF_8)), JsonIO.project(path, Collections.singleton("")));
+    assertEquals(JsonIO.PARSER.parse(new String(Files.readAllBytes(path), StandardCharsets.UTF_8)), JsonIO.project(path, new HashSet<>(Arrays.asList("", "a.b"))));
+    assertThrows(IllegalArgumentException.class, () -> JsonIO.project(path, Collections.singleton("a.c[0]")));
+    assertThrows(JsonSyntaxException.class, () -> JsonIO.project(this.write("project-array.json", "[]"), Collections.singleton("a")));
+  }
+
+  @Test
+  void testReadNumericArrays() throws IOException {
+    final StringBuilder sb = new StringBuilder("[");
+    for(int i = 0; i < 100; i++) {
+      sb.append(i == 0 ? "" : ",").append(i * 3);
+    }
+    final Path path = this.write("numbers.json", sb.append(']').toString());
+    final int[] ints = JsonIO.readIntArray(path);
+    assertEquals(100, ints.length);
+    assertEquals(297, ints[99]);
+    assertEquals(297L, JsonIO.readLongArray(path)[99]);
+    assertEquals(297d, JsonIO.readDoubleArray(path)[99]);
+    assertArrayEquals(new double[]{1.5, -2e3}, JsonIO.readDoubleArray(this.write("doubles.json", "[1.5, -2e3]")));
+    assertThrows(JsonSyntaxException.class, () -> JsonIO.readIntArray(this.write("bad-numbers.json", "[1, 1.5]")));
+
+    final IntBuffer buffer = IntBuffer.allocate(4);
+    try(final JsonReader reader = new JsonReader(new StringReader("{\"a\": [4, 5, 6]}"))) {
+      reader.beginObject();
+      reader.nextName();
+      assertEquals(3, JsonIO.readInts(reader, buffer));
+      reader.endObject();
+    }
+    assertEquals(6, buffer.get(2));
+  }
+
+  @Test
+  void testReadStringPool() throws IOException {
+    final JsonStringPool strings = new JsonStringPool(256, 8);
+    final JsonObject first = JsonIO.readObject(this.file, strings);
+    final JsonObject second = JsonIO.readObject(this.file, strings);
+    assertEquals(this.json, first);
+    assertEquals(this.json, second);
+    final String name = first.getAsJsonArray("array").get(0).getAsJsonObject().keySet().iterator().next();
+    final String other = second.getAsJsonArray("array").get(1).getAsJsonObject().keySet().iterator().next();
+    assertSame(name, other);
+    assertTrue(strings.hits() > 0);
+    assertTrue(strings.bytesSaved() > 0);
+    assertTrue(strings.hitRate() > 0.5);
+    strings.clear();
+    assertEquals(0, strings.hits());
+  }
+
+  @Test
+  void testTreeReader() {
+    final TreeReader reader = new TreeReader((JsonStringPool) null);
+    for(final String json : new String[]{"", "1", "\"a\"", "null", "[]", "{}", "[1, [2, {\"a\": [true, false, null]}], {}]", "{\"a\": {\"b\": {\"c\": 1.50}}, \"d\": [\"e\"]}", "{'lenient': unquoted}"}) {
+      assertEquals(JsonIO.PARSER.parse(json), reader.parse(new StringReader(json)));
+    }
+    assertThrows(JsonSyntaxException.class, () -> reader.parse(new StringReader("{} {}")));
+    assertThrows(JsonSyntaxException.class, () -> reader.parse(new StringReader("[1,")));
+    final StringBuilder deep = new StringBuilder();
+    for(int i = 0; i < 100000; i++) {
+      deep.append('[');
+    }
+    for(int i = 0; i < 100000; i++) {
+      deep.append(']');
+    }
+    assertTrue(reader.parse(new StringReader(deep.toString())).isJsonArray());
+  }
+
+  @Test
+  void testBinary() throws IOException {
+    final Path binary = this.directory.resolve("binary.pjb");
+    final JsonElement numbers = JsonIO.PARSER.parse("[0, -1, 9223372036854775807, -9223372036854775808, 12345678901234567890, -0, 1.50, 1e3, -2.5E-7, \"\", null, true, false, {}]");
+    for(final JsonElement json : new JsonElement[]{this.json, numbers, JsonNull.INSTANCE}) {
+      JsonIO.writeBinary(binary, json);
+      final JsonElement read = JsonIO.readBinary(binary);
+      assertEquals(json, read);
+      assertEquals(json.toString(), read.toString());
+      assertEquals(JsonIO.PARSER.parse(json.toString()).hashCode(), read.hashCode());
+      JsonIO.writeBinary(binary, json, false);
+      assertEquals(json.toString(), JsonIO.readBinary(binary).toString());
+    }
+    JsonIO.writeBinary(binary, this.json, false);
+    final long full = Files.size(binary);
+    JsonIO.writeBinary(binary, this.json, true);
+    assertTrue(Files.size(binary) < full);
+    assertTrue(Files.size(binary) < Files.size(this.file));
+
+    final byte[] bytes = Files.readAllBytes(binary);
+    Files.write(binary, Arrays.copyOf(bytes, bytes.length - 1));
+    assertThrows(JsonSyntaxException.class, () -> JsonIO.readBinary(binary));
+    Files.write(binary, Arrays.copyOf(bytes, bytes.length + 1));
+    assertThrows(JsonSyntaxException.class, () -> JsonIO.readBinary(binary));
+    assertThrows(JsonSyntaxException.class, () -> JsonIO.readBinary(this.file));
+
+    // unpaired surrogates are replaced the same way whether or not the rest of the string is ascii
+    JsonIO.writeBinary(binary, new JsonPrimitive("x\uDC41y"));
+    assertEquals("x?y", JsonIO.readBinary(binary).getAsString());
+    JsonIO.writeBinary(binary, new JsonPrimitive("\u00e9\uDC41"));
+    assertEquals("\u00e9?", JsonIO.readBinary(binary).getAsString());
+
+    JsonArray deep = new JsonArray();
+    final JsonArray deepest = deep;
+    for(int i = 0; i < 100000; i++) {
+      final JsonArray parent = new JsonArray();
+      parent.add(deep);
+      deep = parent;
+    }
+    deepest.add(1);
+    JsonIO.writeBinary(binary, deep);
+    JsonElement read = JsonIO.readBinary(binary);
+    for(int i = 0; i < 100000; i++) {
+      read = read.getAsJsonArray().get(0);
+    }
+    assertEquals(1, read.getAsJsonArray().get(0).getAsInt());
+  }
+
+  @Test
+  void testCompression() throws IOException, ExecutionException, InterruptedException {
+    final Path compressed = this.directory.resolve("compressed.json.gz");
+    for(final JsonCompression compression : JsonCompression.values()) {
+      JsonIO.write(compressed, this.json, false, compression);
+      assertEquals(compression, JsonCompression.detect(compressed));
+      assertEquals(this.json, JsonIO.read(compressed, compression));
+      assertEquals(this.json, JsonIO.readObject(compressed, new JsonStringPool(64)));
+      assertEquals(this.json, JsonIO.readObjectAsync(compressed).get());
+      assertEquals(FrozenJson.of(this.json), JsonIO.readFrozen(compressed));
+      JsonIO.write(compressed, this.json.getAsJsonArray("array"), true, compression);
+      try(final Stream<JsonElement> stream = JsonIO.stream(compressed)) {
+        assertEquals(64, stream.count());
+      }
+    }
+    JsonIO.write(compressed, this.json, false, JsonCompression.GZIP);
+    assertTrue(Files.size(compressed) < Files.size(this.file));
+    // numbers which look like a zlib header are not mistaken for one
+    final Path number = this.write("number.json", "800");
+    assertEquals(JsonCompression.NONE, JsonCompression.detect(number));
+    assertEquals(800, JsonIO.read(number).getAsInt());
+  }
+
+  @Test
+  void testCharsets() throws IOException {
+    final String text = this.json.toString();
+    final Path encoded = this.directory.resolve("encoded.json");
+    final Charset[] charsets = {StandardCharsets.UTF_8, StandardCharsets.UTF_16BE, StandardCharsets.UTF_16LE, Charset.forName("UTF-32BE"), Charset.forName("UTF-32LE")};
+    for(final Charset charset : charsets) {
+      Files.write(encoded, text.getBytes(charset));
+      assertEquals(this.json, JsonIO.read(encoded));
+      assertEquals(this.json, JsonIO.read(encoded, charset));
+      // with a byte order mark
+      Files.write(encoded, ('\uFEFF' + text).getBytes(charset));
+      assertEquals(this.json, JsonIO.read(encoded));
+      assertEquals(FrozenJson.of(this.json), JsonIO.readFrozen(encoded));
+      // a single character document
+      Files.write(encoded, "1".getBytes(charset));
+      assertEquals(1, JsonIO.read(encoded).getAsInt());
+    }
+    Files.write(encoded, "\"\u00e9\"".getBytes(StandardCharsets.ISO_8859_1));
+    assertEquals("\u00e9", JsonIO.read(encoded, StandardCharsets.ISO_8859_1).getAsString());
+  }
+
+  @Test
+  void testUtf8Reader() throws IOException {
+    final StringBuilder builder = new StringBuilder();
+    while(builder.length() < 3 * JsonCompression.BUFFER_SIZE) {
+      builder.append(STRING).append(builder.length());
+    }
+    final String string = builder.toString();
+    // a stream returning a few bytes at a time splits sequences between reads
+    final InputStream in = new FilterInputStream(new ByteArrayInputStream(string.getBytes(StandardCharsets.UTF_8))) {
+      @Override
+      public int read(final byte[] b, final int off, final int len) throws IOException {
+        return super.read(b, off, Math.min(len, 7));
+      }
+    };
+    try(final Reader reader = Readers.open(in)) {
+      assertEquals(string, this.read(reader, 5));
+    }
+    // malformed sequences are replaced
+    final byte[] malformed = {0x61, (byte) 0xc3, 0x28, (byte) 0xed, (byte) 0xa0, (byte) 0x80, (byte) 0xf0, (byte) 0x9f};
+    try(final Reader reader = Readers.open(new ByteArrayInputStream(malformed))) {
+      assertEquals(new String(malformed, StandardCharsets.UTF_8), this.read(reader, 16));
+    }
+  }
+
+  @Test
+  void testLines() throws IOException {
+    final List<JsonElement> elements = new ArrayList<>();
+    for(int i = 0; i < 2000; i++) {
+      final JsonObject object = new JsonObject();
+      object.addProperty("id", i);
+      // some lines are longer than the smallest window below
+      object.addProperty("text", i % 97 == 0 ? String.join("", Collections.nCopies(40, STRING)) : "line\n" + i);
+      elements.add(object);
+    }
+    final Path lines = this.directory.resolve("lines.jsonl");
+    for(final JsonCompression compression : JsonCompression.values()) {
+      JsonIO.writeLines(lines, elements, compression);
+      for(final boolean parallel : new boolean[]{false, true}) {
+        try(final Stream<JsonElement> stream = JsonIO.readLines(lines, parallel)) {
+          assertEquals(elements, stream.collect(Collectors.toList()));
+        }
+      }
+    }
+    JsonIO.writeLines(lines, elements);
+    assertEquals(elements.size(), Files.readAllLines(lines).size());
+    try(final Stream<JsonElement> stream = MappedLineSpliterator.stream(lines, 64, 256)) {
+      assertEquals(elements, stream.collect(Collectors.toList()));
+    }
+    // a byte order mark, carriage returns, blank lines and no final newline
+    Files.write(lines, "\uFEFF{\"a\": 1}\r\n\r\n  \n[2]\n\"3\"".getBytes(StandardCharsets.UTF_8));
+    final List<JsonElement> expected = Arrays.asList(JsonIO.PARSER.parse("{\"a\": 1}"), JsonIO.PARSER.parse("[2]"), JsonIO.PARSER.parse("\"3\""));
+    try(final Stream<JsonElement> stream = JsonIO.readLines(lines)) {
+      assertEquals(expected, stream.collect(Collectors.toList()));
+    }
+    try(final Stream<JsonElement> stream = MappedLineSpliterator.stream(lines, 4, 1)) {
+      assertEquals(expected, stream.collect(Collectors.toList()));
+    }
+    Files.write(lines, "{}\n{\"a\": \n{}".getBytes(StandardCharsets.UTF_8));
+    try(final Stream<JsonElement> stream = JsonIO.readLines(lines)) {
+      assertEquals("Malformed JSON on line 2", assertThrows(JsonSyntaxException.class, () -> stream.count()).getMessage());
+    }
+  }
+
+  private String read(final Reader reader, final int length) throws IOException {
+    final StringBuilder builder = new StringBuilder();
+    final char[] buffer = new char[length];
+    int n;
+    while((n = reader.read(buffer)) != -1) {
+      builder.append(buffer, 0, n);
+    }
+    return builder.toString();
+  }
+}
@@ -0,0 +1,143 @@
+/*
+ * This file is part of peppermint, licensed under the MIT License.
+ *
+ * Copyright (c) 2018 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.peppermint;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonSyntaxException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class JsonMetricsTest {
+  @AfterEach
+  void uninstall() {
+    JsonMetrics.install(null);
+  }
+
+  @Test
+  void testRead() throws IOException {
+    final Path file = Files.createTempFile("peppermint", ".json");
+    try {
+      final JsonMetricsRecorder recorder = new JsonMetricsRecorder();
+      // nothing is recorded until a listener is installed
+      Files.write(file, "{\"a\": 1}".getBytes(StandardCharsets.UTF_8));
+      JsonIO.read(file);
+      JsonMetrics.install(recorder);
+      assertSame(recorder, JsonMetrics.installed());
+      JsonIO.read(file);
+      JsonIO.readMapped(file, 0);
+      JsonIO.readIntArray(Files.write(file, "[1, 2]".getBytes(StandardCharsets.UTF_8)));
+      assertEquals(3, recorder.files());
+      assertEquals(8 + 8 + 6, recorder.bytes());
+      assertEquals(0, recorder.failures());
+      long reads = 0;
+      for(final long count : recorder.latencies()) {
+        reads += count;
+      }
+      assertEquals(3, reads);
+      assertTrue(recorder.percentile(1) >= recorder.percentile(0.5));
+      assertTrue(recorder.percentile(0.5) > 0);
+
+      Files.write(file, "[1, }".getBytes(StandardCharsets.UTF_8));
+      assertThrows(JsonSyntaxException.class, () -> JsonIO.read(file));
+      assertThrows(JsonSyntaxException.class, () -> JsonIO.readIntArray(file));
+      assertEquals(3, recorder.files());
+      assertEquals(2, recorder.failures());
+
+      recorder.reset();
+      assertEquals(0, recorder.files());
+      assertEquals(0, recorder.percentile(1));
+
+      // the bytes read from a compressed file are its compressed bytes
+      try(final OutputStream out = new GZIPOutputStream(Files.newOutputStream(file))) {
+        out.write("[1, 2, 3, 4, 5, 6, 7, 8, 9, 10]".getBytes(StandardCharsets.UTF_8));
+      }
+      JsonIO.read(file);
+      assertEquals(1, recorder.files());
+      assertEquals(Files.size(file), recorder.bytes());
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  @Test
+  void testAccessors() {
+    final JsonMetricsRecorder recorder = new JsonMetricsRecorder();
+    JsonMetrics.install(recorder);
+    final JsonObject json = new JsonParser().parse("{\"a\": [], \"b\": [1, {}], \"c\": \"x\", \"d\": [1, \"x\"]}").getAsJsonObject();
+    assertThrows(JsonSyntaxException.class, () -> Json.needInt(json, "missing"));
+    assertThrows(JsonSyntaxException.class, () -> Json.needString(json, "missing"));
+    assertThrows(JsonSyntaxException.class, () -> Json.needInt(json, "a"));
+    assertThrows(JsonSyntaxException.class, () -> Json.needIntArray(json, "b"));
+    assertThrows(NumberFormatException.class, () -> Json.needInt(json, "c"));
+    assertThrows(JsonSyntaxException.class, () -> Json.needIntArray(json, "d"));
+    final JsonErrors errors = new JsonErrors();
+    Json.needBoolean(json, "missing", errors);
+    Json.getLong(json, "a", 0, errors);
+    assertEquals(1, Json.getInt(json, "other", 1));
+    assertEquals(3, (long) recorder.missing().get("missing"));
+    assertEquals(2, (long) recorder.mismatches().get("a"));
+    assertEquals(1, (long) recorder.mismatches().get("b"));
+    assertEquals(1, (long) recorder.mismatches().get("c"));
+    assertEquals(1, (long) recorder.mismatches().get("d"));
+    assertEquals(4, recorder.mismatches().size());
+
+    // frozen trees are counted the same way
+    final FrozenJson frozen = FrozenJson.of(json);
+    assertThrows(JsonSyntaxException.class, () -> frozen.needInt("missing"));
+    assertThrows(JsonSyntaxException.class, () -> frozen.needInt("a"));
+    assertThrows(NumberFormatException.class, () -> frozen.needInt("c"));
+    assertEquals(4, (long) recorder.missing().get("missing"));
+    assertEquals(3, (long) recorder.mismatches().get("a"));
+    assertEquals(2, (long) recorder.mismatches().get("c"));
+    assertNull(recorder.missing().get("other"));
+
+    JsonMetrics.install(null);
+    assertThrows(JsonSyntaxException.class, () -> Json.needInt(json, "missing"));
+    assertEquals(4, (long) recorder.missing().get("missing"));
+  }
+
+  @Test
+  void testBuckets() {
+    assertEquals(0, JsonMetricsRecorder.bucket(0));
+    assertEquals(1, JsonMetricsRecorder.bucket(1));
+    assertEquals(10, JsonMetricsRecorder.bucket(1000));
+    assertEquals(JsonMetricsRecorder.BUCKETS - 1, JsonMetricsRecorder.bucket(Long.MAX_VALUE));
+  }
+}
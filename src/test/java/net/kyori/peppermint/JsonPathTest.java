@@ -0,0 +1,98 @@
+/*
+ * This file is part of peppermint, licensed under the MIT License.
+ *
+ * Copyright (c) 2018 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.peppermint;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonSyntaxException;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class JsonPathTest {
+  private JsonObject json;
+
+  @BeforeAll
+  void init() {
+    final JsonObject c = new JsonObject();
+    c.addProperty("c", 3);
+    c.addProperty("d.e", "dotted");
+    final JsonArray array = new JsonArray();
+    array.add(0);
+    array.add(c);
+    final JsonObject a = new JsonObject();
+    a.add("b", array);
+    this.json = new JsonObject();
+    this.json.add("a", a);
+  }
+
+  @Test
+  void testCompile() {
+    final JsonPath path = JsonPath.compile("a.b[1][\"d.e\"]");
+    assertEquals(4, path.size());
+    assertEquals("a", path.name(0));
+    assertEquals("b", path.name(1));
+    assertNull(path.name(2));
+    assertEquals(1, path.index(2));
+    assertEquals("d.e", path.name(3));
+    assertEquals(-1, path.index(3));
+
+    assertThrows(IllegalArgumentException.class, () -> JsonPath.compile("a."));
+    assertThrows(IllegalArgumentException.class, () -> JsonPath.compile("a..b"));
+    assertThrows(IllegalArgumentException.class, () -> JsonPath.compile("a[b]"));
+    assertThrows(IllegalArgumentException.class, () -> JsonPath.compile("a[1"));
+    assertThrows(IllegalArgumentException.class, () -> JsonPath.compile("a[1]b"));
+    assertThrows(IllegalArgumentException.class, () -> JsonPath.compile("a['b"));
+  }
+
+  @Test
+  void testFind() {
+    assertSame(this.json, JsonPath.compile("").find(this.json));
+    assertEquals(3, JsonPath.compile("a.b[1].c").needInt(this.json));
+    assertEquals("dotted", JsonPath.compile("a.b[1]['d.e']").needString(this.json));
+    assertEquals(0, JsonPath.compile("a.b[0]").needInt(this.json));
+    assertEquals(2, JsonPath.compile("a.b").needArray(this.json).size());
+    assertTrue(JsonPath.compile("a.b[1]").has(this.json));
+    assertFalse(JsonPath.compile("a.b[2]").has(this.json));
+    assertFalse(JsonPath.compile("a.b.c").has(this.json));
+    assertFalse(JsonPath.compile("a[0]").has(this.json));
+    assertEquals(5, JsonPath.compile("a.b[1].x").getInt(this.json, 5));
+    assertEquals("foo", JsonPath.compile("a.x").getString(this.json, "foo"));
+  }
+
+  @Test
+  void testMessages() {
+    assertEquals("Missing a.b[2].c, expected to find an int", assertThrows(JsonSyntaxException.class, () -> JsonPath.compile("a.b[2].c").needInt(this.json)).getMessage());
+    assertEquals("Expected a.b to be a string", assertThrows(JsonSyntaxException.class, () -> JsonPath.compile("a.b").needString(this.json)).getMessage());
+    assertEquals("Expected a.b to be an object", assertThrows(JsonSyntaxException.class, () -> JsonPath.compile("a.b").needObject(this.json)).getMessage());
+  }
+}
@@ -0,0 +1,161 @@
+/*
+ * This file is part of peppermint, licensed under the MIT License.
+ *
+ * Copyright (c) 2018 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.peppermint;
+
+import com.google.gson.JsonObject;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class JsonPipelineTest {
+  @Test
+  void testPipeline() throws IOException, InterruptedException {
+    final ExecutorService executor = Executors.newCachedThreadPool();
+    final Path file = Files.createTempFile("peppermint", ".json");
+    try {
+      Files.write(file, "{\"id\": -1}".getBytes(StandardCharsets.UTF_8));
+      final List<Integer> ids = Collections.synchronizedList(new ArrayList<>());
+      final AtomicInteger largest = new AtomicInteger();
+      final JsonPipeline<Integer> pipeline = JsonPipeline.<Integer>builder(executor, json -> Json.needInt(json, "id"), batch -> {
+        largest.accumulateAndGet(batch.size(), Math::max);
+        ids.addAll(batch);
+      }).workers(3).capacity(2).batchSize(4).build();
+      for(int i = 0; i < 1000; i++) {
+        pipeline.submit(("{\"id\": " + i + "}").getBytes(StandardCharsets.UTF_8));
+      }
+      pipeline.submit(file);
+      pipeline.submit(new ByteArrayInputStream(gzip("{\"id\": 1000}")));
+      pipeline.close();
+      assertEquals(1002, pipeline.completed());
+      assertEquals(0, pipeline.failed());
+      assertEquals(1002, ids.size());
+      assertEquals(1002, ids.stream().distinct().count());
+      assertTrue(largest.get() <= 4);
+      assertThrows(IllegalStateException.class, () -> pipeline.submit(file));
+    } finally {
+      executor.shutdown();
+      Files.delete(file);
+    }
+  }
+
+  @Test
+  void testFailures() throws InterruptedException {
+    final ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      final Map<Object, Exception> failures = new ConcurrentHashMap<>();
+      final JsonPipeline<JsonObject> handled = JsonPipeline.<JsonObject>builder(executor, json -> json, batch -> { })
+        .workers(2)
+        .failures(failures::put)
+        .build();
+      final byte[] malformed = "{\"id\": ".getBytes(StandardCharsets.UTF_8);
+      final byte[] array = "[]".getBytes(StandardCharsets.UTF_8);
+      handled.submit(malformed);
+      handled.submit(array);
+      handled.submit("{}".getBytes(StandardCharsets.UTF_8));
+      handled.close();
+      assertEquals(1, handled.completed());
+      assertEquals(2, handled.failed());
+      assertEquals(2, failures.size());
+      assertTrue(failures.containsKey(malformed));
+      assertTrue(failures.containsKey(array));
+
+      // without a handler, the first failure is thrown from close
+      final JsonPipeline<JsonObject> unhandled = JsonPipeline.<JsonObject>builder(executor, json -> json, batch -> {
+        throw new IllegalStateException("sink");
+      }).workers(2).build();
+      unhandled.submit("{}".getBytes(StandardCharsets.UTF_8));
+      final CompletionException exception = assertThrows(CompletionException.class, unhandled::close);
+      assertEquals("sink", exception.getCause().getMessage());
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  void testFailingWorkers() throws InterruptedException {
+    final ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      // a handler which throws does not stop the workers
+      final JsonPipeline<JsonObject> throwing = JsonPipeline.<JsonObject>builder(executor, json -> json, batch -> { })
+        .workers(1)
+        .capacity(1)
+        .failures((source, exception) -> {
+          throw new IllegalStateException("handler");
+        })
+        .build();
+      for(int i = 0; i < 10; i++) {
+        throwing.submit("[]".getBytes(StandardCharsets.UTF_8));
+      }
+      throwing.submit("{}".getBytes(StandardCharsets.UTF_8));
+      final CompletionException handler = assertThrows(CompletionException.class, throwing::close);
+      assertEquals("handler", handler.getCause().getMessage());
+      assertEquals(10, throwing.failed());
+      assertEquals(1, throwing.completed());
+
+      // once every worker has failed with an error, submissions fail rather than block
+      final JsonPipeline<JsonObject> dead = JsonPipeline.<JsonObject>builder(executor, json -> {
+        throw new AssertionError("decoder");
+      }, batch -> { }).workers(2).capacity(1).build();
+      final IllegalStateException exception = assertThrows(IllegalStateException.class, () -> {
+        for(int i = 0; i < 100; i++) {
+          dead.submit("{}".getBytes(StandardCharsets.UTF_8));
+        }
+      });
+      assertEquals("decoder", exception.getCause().getMessage());
+      final CompletionException closed = assertThrows(CompletionException.class, dead::close);
+      assertTrue(closed.getCause() instanceof AssertionError);
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  private static byte[] gzip(final String string) throws IOException {
+    final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try(final GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+      out.write(string.getBytes(StandardCharsets.UTF_8));
+    }
+    return bytes.toByteArray();
+  }
+}
@@ -25,15 +25,19 @@ package net.kyori.peppermint;
 
 import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
+import com.google.gson.JsonSyntaxException;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
 
 import java.util.UUID;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @TestInstance(TestInstance.Lifecycle.PER_CLASS)
@@ -169,4 +173,132 @@ class JsonTest {
     assertEquals(STRING, Json.getString(this.json, "primitive-string", "foo"));
     assertEquals("bar", Json.getString(this.json, "primitive-string_nope", "bar"));
   }
+
+  @Test
+  void testTry() {
+    final boolean[] booleans = new boolean[1];
+    assertTrue(Json.tryBoolean(this.json, "primitive-boolean-true", booleans));
+    assertTrue(booleans[0]);
+    assertFalse(Json.tryBoolean(this.json, "object", booleans));
+    assertFalse(Json.tryBoolean(this.json, "primitive-boolean-nope", booleans));
+
+    final double[] doubles = new double[1];
+    assertTrue(Json.tryDouble(this.json, "primitive-number-double", doubles));
+    assertEquals(NUMBER_DOUBLE, doubles[0]);
+    assertFalse(Json.tryDouble(this.json, "primitive-string", doubles));
+
+    final int[] ints = new int[1];
+    assertTrue(Json.tryInt(this.json, "primitive-number-int", ints));
+    assertEquals(NUMBER_INT, ints[0]);
+    assertFalse(Json.tryInt(this.json, "array", ints));
+    assertFalse(Json.tryInt(this.json, "primitive-boolean-false", ints));
+    assertFalse(Json.tryInt(this.json, "primitive-number-int_nope", ints));
+
+    final long[] longs = new long[1];
+    assertTrue(Json.tryLong(this.json, "primitive-number-long", longs));
+    assertEquals(NUMBER_LONG, longs[0]);
+
+    final String[] strings = new String[1];
+    assertTrue(Json.tryString(this.json, "primitive-string", strings));
+    assertEquals(STRING, strings[0]);
+    assertFalse(Json.tryString(this.json, "primitive-string_nope", strings));
+  }
+
+  @Test
+  void testMessages() {
+    assertEquals("Missing primitive-number-int_nope, expected to find an int", assertThrows(JsonSyntaxException.class, () -> Json.needInt(this.json, "primitive-number-int_nope")).getMessage());
+    assertEquals("Expected object to be an int", assertThrows(JsonSyntaxException.class, () -> Json.needInt(this.json, "object")).getMessage());
+    assertEquals("Expected array to be a string", assertThrows(JsonSyntaxException.class, () -> Json.getString(this.json, "array", null)).getMessage());
+  }
+
+  @Test
+  void testErrors() {
+    final JsonErrors errors = new JsonErrors();
+    assertEquals(NUMBER_INT, Json.needInt(this.json, "primitive-number-int", errors));
+    assertEquals(STRING, Json.needString(this.json, "primitive-string", errors));
+    assertEquals(2, Json.getInt(this.json, "primitive-number-int_nope", 2, errors));
+    assertTrue(errors.isEmpty());
+
+    assertEquals(0, Json.needInt(this.json, "primitive-number-int_nope", errors));
+    assertEquals(0, Json.needInt(this.json, "object", errors));
+    assertEquals(0, Json.needInt(this.json, "primitive-string", errors));
+    assertEquals(2.34d, Json.getDouble(this.json, "array", 2.34d, errors));
+    assertEquals(4, errors.size());
+    assertEquals("Missing primitive-number-int_nope, expected to find an int", errors.message(0));
+    assertEquals("Expected object to be an int", errors.message(1));
+    assertEquals("Expected primitive-string to be an int", errors.message(2));
+    assertEquals("Expected array to be a double", errors.message(3));
+    assertEquals("object", errors.name(1));
+    assertEquals("Missing primitive-number-int_nope, expected to find an int", assertThrows(JsonSyntaxException.class, errors::throwIfAny).getMessage());
+
+    errors.clear();
+    assertTrue(errors.isEmpty());
+    final JsonObject strings = new JsonObject();
+    strings.addProperty("byte", "127");
+    strings.addProperty("byte-overflow", "128");
+    strings.addProperty("long", "-9223372036854775808");
+    strings.addProperty("long-overflow", "9223372036854775808");
+    strings.addProperty("double", "-1.5e3");
+    strings.addProperty("double-bad", "1.5e");
+    assertEquals(127, Json.needByte(strings, "byte", errors));
+    assertEquals(Long.MIN_VALUE, Json.needLong(strings, "long", errors));
+    assertEquals(-1.5e3d, Json.needDouble(strings, "double", errors));
+    assertTrue(errors.isEmpty());
+    Json.needByte(strings, "byte-overflow", errors);
+    Json.needLong(strings, "long-overflow", errors);
+    Json.needDouble(strings, "double-bad", errors);
+    assertEquals(3, errors.size());
+  }
+
+  @Test
+  void testNumberGrammar() {
+    // the validating accessors accept exactly what the throwing accessors accept
+    final String[] strings = {
+      "", "-", "+", "0", "-0", "+1", "127", "128", "-128", "-129", "2147483648", "9223372036854775807", "9223372036854775808",
+      " 1", "1 ", "\t1.5\n", "1.", ".5", ".", "1e", "1e5", "1E-5", "-1.5e+3", "1d", "1.5f", "1.5F", "1e5D", "1dd", "1x",
+      "0x1p3", "0X1.8P-1", "-0x.8p1f", "0x1", "0xp1", "0x1p", "NaN", "-Infinity", "NaNd", "nan", "\u0661\u0662", "\uff11", "1_000"
+    };
+    for(final String string : strings) {
+      final JsonObject json = new JsonObject();
+      json.addProperty("value", string);
+      assertEquals(parses(() -> Json.needByte(json, "value")), accepts(errors -> Json.needByte(json, "value", errors)), string);
+      assertEquals(parses(() -> Json.needInt(json, "value")), accepts(errors -> Json.needInt(json, "value", errors)), string);
+      assertEquals(parses(() -> Json.needLong(json, "value")), accepts(errors -> Json.needLong(json, "value", errors)), string);
+      assertEquals(parses(() -> Json.needFloat(json, "value")), accepts(errors -> Json.needFloat(json, "value", errors)), string);
+      assertEquals(parses(() -> Json.needDouble(json, "value")), accepts(errors -> Json.needDouble(json, "value", errors)), string);
+    }
+  }
+
+  private static boolean parses(final Runnable accessor) {
+    try {
+      accessor.run();
+      return true;
+    } catch(final NumberFormatException e) {
+      return false;
+    }
+  }
+
+  private static boolean accepts(final Consumer<JsonErrors> accessor) {
+    final JsonErrors errors = new JsonErrors();
+    accessor.accept(errors);
+    return errors.isEmpty();
+  }
+
+  @Test
+  void testArrays() {
+    final JsonObject json = JsonIO.PARSER.parse("{\"numbers\": [1, 2, \"3\"], \"mixed\": [1, {}], \"strings\": [\"x\"], \"empty\": []}").getAsJsonObject();
+    assertArrayEquals(new int[]{1, 2, 3}, Json.needIntArray(json, "numbers"));
+    assertArrayEquals(new long[]{1, 2, 3}, Json.needLongArray(json, "numbers"));
+    assertArrayEquals(new double[]{1, 2, 3}, Json.needDoubleArray(json, "numbers"));
+    assertArrayEquals(new float[]{1, 2, 3}, Json.needFloatArray(json, "numbers"));
+    assertArrayEquals(new int[0], Json.needIntArray(json, "empty"));
+    assertEquals("Expected mixed[1] to be an int", assertThrows(JsonSyntaxException.class, () -> Json.needIntArray(json, "mixed")).getMessage());
+    // a string which is not a number fails as an element which is not a primitive does
+    assertEquals("Expected strings[0] to be an int", assertThrows(JsonSyntaxException.class, () -> Json.needIntArray(json, "strings")).getMessage());
+    assertEquals("Expected strings[0] to be a long", assertThrows(JsonSyntaxException.class, () -> Json.needLongArray(json, "strings")).getMessage());
+    assertEquals("Expected strings[0] to be a double", assertThrows(JsonSyntaxException.class, () -> Json.needDoubleArray(json, "strings")).getMessage());
+    assertEquals("Expected strings[0] to be a float", assertThrows(JsonSyntaxException.class, () -> Json.needFloatArray(json, "strings")).getMessage());
+    assertEquals("Expected object to be an array", assertThrows(JsonSyntaxException.class, () -> Json.needIntArray(this.json, "object")).getMessage());
+    assertEquals("Missing nope, expected to find an array", assertThrows(JsonSyntaxException.class, () -> Json.needIntArray(this.json, "nope")).getMessage());
+  }
 }
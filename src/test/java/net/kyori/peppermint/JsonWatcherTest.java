@@ -0,0 +1,173 @@
+/*
+ * This file is part of peppermint, licensed under the MIT License.
+ *
+ * Copyright (c) 2018 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.peppermint;
+
+import com.google.gson.JsonObject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class JsonWatcherTest {
+  private final BlockingQueue<Object[]> changes = new LinkedBlockingQueue<>();
+  private Path directory;
+  private JsonWatcher watcher;
+
+  @BeforeEach
+  void init() throws IOException {
+    this.directory = Files.createTempDirectory("peppermint");
+    this.write("a.json", "{\"a\": 1}");
+    this.write("ignored.txt", "{}");
+    this.watcher = new JsonWatcher(this.directory, "*.json", Duration.ofMillis(50), Runnable::run);
+    this.watcher.addListener(new JsonWatcher.Listener() {
+      @Override
+      public void changed(final Path path, final JsonObject previous, final JsonObject current) {
+        JsonWatcherTest.this.changes.add(new Object[]{path, previous, current});
+      }
+
+      @Override
+      public void failed(final Path path, final Exception exception) {
+        JsonWatcherTest.this.changes.add(new Object[]{path, exception});
+      }
+    });
+  }
+
+  @AfterEach
+  void destroy() throws IOException {
+    this.watcher.close();
+    try(final Stream<Path> paths = Files.walk(this.directory)) {
+      paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+    }
+  }
+
+  private Path write(final String name, final String content) throws IOException {
+    return Files.write(this.directory.resolve(name), content.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private Object[] next() throws InterruptedException {
+    final Object[] change = this.changes.poll(30, TimeUnit.SECONDS);
+    assertNotNull(change, "no change was reported");
+    return change;
+  }
+
+  @Test
+  void testChanges() throws IOException, InterruptedException {
+    final Path a = this.directory.resolve("a.json");
+    assertEquals(1, this.watcher.objects().size());
+    final JsonObject initial = this.watcher.get(a);
+    assertEquals(1, Json.needInt(initial, "a"));
+
+    this.write("a.json", "{\"a\": 2}");
+    Object[] change = this.next();
+    assertEquals(a, change[0]);
+    assertSame(initial, change[1]);
+    assertEquals(2, Json.needInt((JsonObject) change[2], "a"));
+    assertSame(change[2], this.watcher.get(a));
+
+    final Path b = this.write("b.json", "{\"b\": true}");
+    change = this.next();
+    assertEquals(b, change[0]);
+    assertNull(change[1]);
+    assertEquals(2, this.watcher.objects().size());
+
+    Files.delete(b);
+    change = this.next();
+    assertEquals(b, change[0]);
+    assertNull(change[2]);
+    assertNull(this.watcher.get(b));
+  }
+
+  @Test
+  void testFailure() throws IOException, InterruptedException {
+    final Path a = this.directory.resolve("a.json");
+    final JsonObject initial = this.watcher.get(a);
+    this.write("a.json", "{\"a\": ");
+    final Object[] change = this.next();
+    assertEquals(a, change[0]);
+    assertEquals(2, change.length);
+    assertSame(initial, this.watcher.get(a));
+  }
+
+  @Test
+  void testDebounce() throws IOException, InterruptedException {
+    for(int i = 0; i < 10; i++) {
+      this.write("a.json", "{\"a\": " + i + "}");
+    }
+    // the writes are coalesced into a single change
+    final Object[] change = this.next();
+    assertEquals(9, Json.needInt((JsonObject) change[2], "a"));
+    // an unchanged file is not reported
+    this.write("a.json", "{\"a\":9}");
+    this.write("c.json", "{}");
+    assertEquals(this.directory.resolve("c.json"), this.next()[0]);
+    assertNull(this.changes.poll(200, TimeUnit.MILLISECONDS));
+  }
+
+  @Test
+  void testUnreadable() throws IOException, InterruptedException {
+    final Path d = this.write("d.json", "{\"d\": ");
+    final AtomicInteger executions = new AtomicInteger();
+    // an executor which rejects its first notification
+    final Executor executor = task -> {
+      if(executions.getAndIncrement() == 0) {
+        throw new RejectedExecutionException();
+      }
+      task.run();
+    };
+    try(final JsonWatcher watcher = new JsonWatcher(this.directory, "*.json", Duration.ofMillis(50), executor)) {
+      assertNull(watcher.get(d));
+      assertNotNull(watcher.get(this.directory.resolve("a.json")));
+      final BlockingQueue<Path> changed = new LinkedBlockingQueue<>();
+      watcher.addListener((path, previous, current) -> changed.add(path));
+      // the first change is dropped by the executor, and the watcher carries on to report the next
+      this.write("d.json", "{\"d\": 1}");
+      for(int i = 0; executions.get() == 0 && i < 3000; i++) {
+        Thread.sleep(10);
+      }
+      assertEquals(1, executions.get());
+      this.write("d.json", "{\"d\": 2}");
+      assertEquals(d, changed.poll(30, TimeUnit.SECONDS));
+      assertEquals(2, executions.get());
+      assertEquals(2, Json.needInt(watcher.get(d), "d"));
+    }
+  }
+}